@@ -0,0 +1,32 @@
+package com.pro.apigatewayservice.cache;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+
+/**
+ * A buffered upstream response. Headers exclude hop-by-hop headers and cookies; the ETag is the
+ * upstream one or a hash of the body.
+ */
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "Headers are wrapped read-only in the constructor")
+public record CachedResponse(int status, HttpHeaders headers, byte[] body, String etag, Instant storedAt, Instant expiresAt) {
+
+    public CachedResponse {
+        headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        body = body.clone();
+    }
+
+    @Override
+    public byte[] body() {
+        return body.clone();
+    }
+
+    public int size() {
+        return body.length;
+    }
+
+    public boolean isFresh(Instant now) {
+        return expiresAt.isAfter(now);
+    }
+}
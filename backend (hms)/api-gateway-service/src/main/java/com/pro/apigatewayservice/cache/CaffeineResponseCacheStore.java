@@ -0,0 +1,135 @@
+package com.pro.apigatewayservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory store bounded by the total size of cached bodies. Each entry expires at its own
+ * {@link CachedResponse#expiresAt()}, so routes can use different TTLs.
+ * <p>
+ * Keys are indexed by their first path segment, so an invalidation only scans its own section,
+ * and each section counts its invalidations for {@link #generation}.
+ */
+public class CaffeineResponseCacheStore implements ResponseCacheStore {
+
+    private final Cache<ResponseCacheKey, CachedResponse> cache;
+    private final ConcurrentMap<String, Section> sections = new ConcurrentHashMap<>();
+
+    public CaffeineResponseCacheStore(DataSize maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((ResponseCacheKey key, CachedResponse response) -> Math.max(1, response.size()))
+                .expireAfter(new UntilExpiresAt())
+                // Runs atomically with the eviction, so a later put of the same key is indexed again
+                .evictionListener((ResponseCacheKey key, CachedResponse response, RemovalCause cause) -> {
+                    if (key != null) {
+                        section(key.path()).remove(key);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Optional<CachedResponse> get(ResponseCacheKey key) {
+        CachedResponse response = cache.getIfPresent(key);
+        return response != null && response.isFresh(Instant.now()) ? Optional.of(response) : Optional.empty();
+    }
+
+    @Override
+    public long generation(String path) {
+        return section(path).generation();
+    }
+
+    @Override
+    public void put(ResponseCacheKey key, CachedResponse response, long generation) {
+        section(key.path()).put(key, response, generation);
+    }
+
+    @Override
+    public void invalidatePrefix(String pathPrefix) {
+        String name = sectionName(pathPrefix);
+        if (name.length() <= 1) {
+            sections.values().forEach(section -> section.invalidate(pathPrefix));
+        } else {
+            section(name).invalidate(pathPrefix);
+        }
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private Section section(String path) {
+        return sections.computeIfAbsent(sectionName(path), name -> new Section());
+    }
+
+    private static String sectionName(String path) {
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path : path.substring(0, end);
+    }
+
+    /** Keys under one first path segment, and how often they have been invalidated. */
+    private final class Section {
+
+        private final Set<ResponseCacheKey> keys = ConcurrentHashMap.newKeySet();
+        private long generation;
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void put(ResponseCacheKey key, CachedResponse response, long expected) {
+            if (generation != expected) {
+                return;
+            }
+            cache.put(key, response);
+            keys.add(key);
+        }
+
+        synchronized void invalidate(String pathPrefix) {
+            generation++;
+            Set<ResponseCacheKey> matching = new HashSet<>();
+            for (ResponseCacheKey key : keys) {
+                if (key.path().startsWith(pathPrefix)) {
+                    matching.add(key);
+                }
+            }
+            keys.removeAll(matching);
+            cache.invalidateAll(matching);
+        }
+
+        void remove(ResponseCacheKey key) {
+            keys.remove(key);
+        }
+    }
+
+    private static final class UntilExpiresAt implements Expiry<ResponseCacheKey, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(ResponseCacheKey key, CachedResponse response, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), response.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ResponseCacheKey key, CachedResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ResponseCacheKey key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
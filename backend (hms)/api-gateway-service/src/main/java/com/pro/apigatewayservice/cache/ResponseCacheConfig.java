@@ -0,0 +1,17 @@
+package com.pro.apigatewayservice.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ResponseCacheStore responseCacheStore(@Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize) {
+        return new CaffeineResponseCacheStore(maxSize);
+    }
+}
@@ -0,0 +1,8 @@
+package com.pro.apigatewayservice.cache;
+
+/**
+ * Identifies a cached GET response. {@code scope} is what the response may vary by (a user, a
+ * role set or nothing), so one principal is never served another's cached data.
+ */
+public record ResponseCacheKey(String routeId, String path, String query, String scope) {
+}
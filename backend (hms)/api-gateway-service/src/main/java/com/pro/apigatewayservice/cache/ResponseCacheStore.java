@@ -0,0 +1,27 @@
+package com.pro.apigatewayservice.cache;
+
+import java.util.Optional;
+
+/**
+ * Storage behind the route response cache. The in-memory implementation is per gateway
+ * instance; a shared implementation (e.g. Redis) can replace it without touching the filter.
+ */
+public interface ResponseCacheStore {
+
+    Optional<CachedResponse> get(ResponseCacheKey key);
+
+    /**
+     * Invalidation generation of the part of the path space {@code path} belongs to. Taken before
+     * a response is fetched and passed back to {@link #put}.
+     */
+    long generation(String path);
+
+    /**
+     * Stores the response, unless an invalidation covering its path happened after
+     * {@code generation} was taken: the response may then have been read before the write.
+     */
+    void put(ResponseCacheKey key, CachedResponse response, long generation);
+
+    /** Drops every entry whose path starts with the given prefix, across routes and scopes. */
+    void invalidatePrefix(String pathPrefix);
+}
@@ -0,0 +1,64 @@
+package com.pro.apigatewayservice.dashboard;
+
+import com.pro.apigatewayservice.dto.ApiError;
+import com.pro.apigatewayservice.dto.PatientDashboard;
+import com.pro.apigatewayservice.ratelimit.PrincipalKeyResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * One-round-trip patient dashboard. Answers 200 with whatever sections arrived in time; only when
+ * every section failed does the caller get an error, carrying the patient lookup's status so an
+ * access denial is not reported as an outage.
+ */
+@RestController
+@RequestMapping("/dashboard")
+public class PatientDashboardController {
+
+    private final PatientDashboardService dashboardService;
+    private final PrincipalKeyResolver principalKeyResolver;
+
+    public PatientDashboardController(PatientDashboardService dashboardService,
+                                      PrincipalKeyResolver principalKeyResolver) {
+        this.dashboardService = dashboardService;
+        this.principalKeyResolver = principalKeyResolver;
+    }
+
+    @GetMapping("/patients/{userId}")
+    public Mono<ResponseEntity<Object>> getPatientDashboard(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long patientId,
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            ServerWebExchange exchange) {
+        return dashboardService.dashboard(userId, patientId != null ? patientId : userId, authorization,
+                        principalKeyResolver.clientAddress(exchange))
+                .map(PatientDashboardController::toResponse);
+    }
+
+    private static ResponseEntity<Object> toResponse(PatientDashboard dashboard) {
+        if (dashboard.unavailable().size() < PatientDashboardService.SECTIONS) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(dashboard);
+        }
+        PatientDashboard.UnavailableSection patient = dashboard.unavailable().stream()
+                .filter(section -> PatientDashboardService.PATIENT.equals(section.section()))
+                .findFirst()
+                .orElseThrow();
+        HttpStatus status = HttpStatus.resolve(patient.status());
+        if (status == null || !status.is4xxClientError()) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        return ResponseEntity.status(status)
+                .body(new ApiError(status.is4xxClientError() ? patient.code() : "DASHBOARD_UNAVAILABLE",
+                        "Patient dashboard for user " + dashboard.userId() + " is unavailable"));
+    }
+}
@@ -0,0 +1,166 @@
+package com.pro.apigatewayservice.dashboard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pro.apigatewayservice.dto.PatientDashboard;
+import com.pro.apigatewayservice.dto.PatientDashboard.UnavailableSection;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Composes the patient dashboard from five services in one round trip. The calls go out together
+ * through the gateway's own routes, so rate limits, load shedding, circuit breakers, retries and
+ * hedging apply to each of them as if the browser had made it. Every call has its own deadline; a
+ * slow or failing service costs its section, not the page.
+ * <p>
+ * The calls carry the caller's identity rather than the gateway's: its {@code Authorization}
+ * header, and its address as the trusted X-Forwarded-For hop, so anonymous callers are still rate
+ * limited by their own address and not all together as 127.0.0.1.
+ */
+@Service
+public class PatientDashboardService {
+
+    static final String PATIENT = "patient";
+    static final String APPOINTMENTS = "appointments";
+    static final String BILLING_STATS = "billingStats";
+    static final String INVOICES = "invoices";
+    static final String PRESCRIPTIONS = "prescriptions";
+    static final int SECTIONS = 5;
+
+    private final WebClient.Builder webClientBuilder;
+    private final Duration sectionTimeout;
+    private final MeterRegistry meterRegistry;
+    private volatile WebClient webClient;
+
+    @Autowired
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "Collaborators are shared application beans")
+    public PatientDashboardService(WebClient.Builder webClientBuilder,
+                                   @Value("${gateway.dashboard.section-timeout:2s}") Duration sectionTimeout,
+                                   MeterRegistry meterRegistry) {
+        this.webClientBuilder = webClientBuilder;
+        this.sectionTimeout = sectionTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    PatientDashboardService(WebClient.Builder webClientBuilder, Duration sectionTimeout, MeterRegistry meterRegistry,
+                            String baseUrl) {
+        this(webClientBuilder, sectionTimeout, meterRegistry);
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+    }
+
+    // The port is only known once the server is listening (and is random in tests)
+    @EventListener
+    public void onServerStarted(WebServerInitializedEvent event) {
+        webClient = webClientBuilder.clone().baseUrl("http://127.0.0.1:" + event.getWebServer().getPort()).build();
+    }
+
+    /**
+     * @param userId        whose dashboard to build
+     * @param patientId     id the appointment service knows the patient by
+     * @param authorization the caller's {@code Authorization} header, forwarded to every section
+     * @param clientAddress the caller's address as resolved for rate limiting, or null if unknown
+     */
+    public Mono<PatientDashboard> dashboard(Long userId, Long patientId, String authorization, String clientAddress) {
+        Caller caller = new Caller(authorization, clientAddress);
+        return Mono.zip(
+                section(PATIENT, "/patients/user/{id}", userId, caller),
+                section(APPOINTMENTS, "/appointments/patient/{id}", patientId, caller),
+                section(BILLING_STATS, "/invoices/stats/user/{id}", userId, caller),
+                section(INVOICES, "/invoices/user/{id}", userId, caller),
+                section(PRESCRIPTIONS, "/pharmacy/prescriptions/patient/{id}", userId, caller))
+                .map(sections -> {
+                    List<UnavailableSection> unavailable = Stream.of(sections.getT1(), sections.getT2(),
+                                    sections.getT3(), sections.getT4(), sections.getT5())
+                            .map(Section::failure)
+                            .filter(Objects::nonNull)
+                            .toList();
+                    return new PatientDashboard(userId,
+                            sections.getT1().body(),
+                            sections.getT2().body(),
+                            sections.getT3().body(),
+                            sections.getT4().body(),
+                            sections.getT5().body(),
+                            !unavailable.isEmpty(),
+                            unavailable);
+                });
+    }
+
+    private Mono<Section> section(String name, String path, Long id, Caller caller) {
+        WebClient client = webClient;
+        if (client == null) {
+            return Mono.error(new IllegalStateException("Dashboard requested before the server started"));
+        }
+        return client.get()
+                .uri(path, id)
+                .headers(caller::apply)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(sectionTimeout)
+                .map(body -> new Section(body, null))
+                .defaultIfEmpty(new Section(null, null))
+                .doOnNext(section -> outcome(name, "ok").increment())
+                .onErrorResume(e -> {
+                    UnavailableSection failure = unavailable(name, e);
+                    outcome(name, failure.code().toLowerCase(Locale.ROOT)).increment();
+                    return Mono.just(new Section(null, failure));
+                });
+    }
+
+    private static UnavailableSection unavailable(String section, Throwable error) {
+        if (error instanceof TimeoutException) {
+            return new UnavailableSection(section, HttpStatus.GATEWAY_TIMEOUT.value(), "UPSTREAM_TIMEOUT");
+        }
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            String code = switch (status) {
+                case 401, 403 -> "FORBIDDEN";
+                case 404 -> "NOT_FOUND";
+                case 429 -> "RATE_LIMITED";
+                default -> status >= 500 ? "UPSTREAM_UNAVAILABLE" : "UPSTREAM_REJECTED";
+            };
+            return new UnavailableSection(section, status, code);
+        }
+        return new UnavailableSection(section, HttpStatus.BAD_GATEWAY.value(), "UPSTREAM_UNAVAILABLE");
+    }
+
+    private Counter outcome(String section, String outcome) {
+        return Counter.builder("gateway.dashboard.sections")
+                .description("Dashboard sections by outcome")
+                .tag("section", section)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Section(JsonNode body, UnavailableSection failure) {
+    }
+
+    private record Caller(String authorization, String address) {
+
+        void apply(HttpHeaders headers) {
+            if (authorization != null) {
+                headers.set(HttpHeaders.AUTHORIZATION, authorization);
+            }
+            // The loopback call is the caller's last hop, which is the one the rate limiter trusts
+            if (address != null) {
+                headers.set("X-Forwarded-For", address);
+            }
+        }
+    }
+}
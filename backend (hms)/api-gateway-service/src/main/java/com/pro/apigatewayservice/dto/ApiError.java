@@ -0,0 +1,9 @@
+package com.pro.apigatewayservice.dto;
+
+/**
+ * Error payload for responses produced by the gateway itself, matching the downstream services.
+ */
+public record ApiError(
+        String code,
+        String message
+) { }
@@ -0,0 +1,31 @@
+package com.pro.apigatewayservice.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Everything the patient dashboard shows, gathered in one response. Sections whose service failed
+ * or missed its deadline are {@code null} and listed in {@code unavailable}.
+ */
+public record PatientDashboard(
+        Long userId,
+        JsonNode patient,
+        JsonNode appointments,
+        JsonNode billingStats,
+        JsonNode invoices,
+        JsonNode prescriptions,
+        boolean partial,
+        List<UnavailableSection> unavailable
+) {
+
+    public PatientDashboard {
+        unavailable = List.copyOf(unavailable);
+    }
+
+    public record UnavailableSection(
+            String section,
+            int status,
+            String code
+    ) { }
+}
@@ -0,0 +1,193 @@
+package com.pro.apigatewayservice.filter;
+
+import com.pro.apigatewayservice.resilience.LoadBudget;
+import com.pro.apigatewayservice.shedding.LoadSheddingFilter;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Retries idempotent, bodiless requests after a connection failure, timeout or one of the
+ * configured gateway statuses, drawing each retry from the shared {@link LoadBudget}. Declare it
+ * after {@code CircuitBreaker} so an open breaker short-circuits before any retry and the breaker
+ * sees one outcome per client request. Requests shed by the gateway itself are never retried.
+ *
+ * <pre>
+ * filters:
+ *   - name: BudgetedRetry
+ *     args:
+ *       retries: 2
+ * </pre>
+ */
+@Component
+public class BudgetedRetryGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<BudgetedRetryGatewayFilterFactory.Config> {
+
+    private static final List<HttpMethod> BODILESS = List.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private final LoadBudget budget;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The budget and meter registry are shared application beans")
+    public BudgetedRetryGatewayFilterFactory(@Qualifier("retryBudget") LoadBudget budget, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.budget = budget;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.retry.budget.balance", budget, LoadBudget::balance)
+                .description("Retries the gateway may currently spend")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (!BODILESS.containsAll(config.getMethods())) {
+            throw new IllegalArgumentException("BudgetedRetry does not replay request bodies; methods must be among " + BODILESS);
+        }
+        return (exchange, chain) -> {
+            if (!config.getMethods().contains(exchange.getRequest().getMethod())) {
+                return chain.filter(exchange);
+            }
+            budget.deposit();
+            return attempt(exchange, chain, config, 0);
+        };
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Config config, int retriesDone) {
+        return chain.filter(exchange)
+                .then(Mono.<Throwable>empty())
+                .onErrorResume(Mono::just)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(error -> {
+                    if (shouldRetry(exchange, config, error.orElse(null), retriesDone)) {
+                        reset(exchange);
+                        return Mono.delay(config.getBackoff().multipliedBy(1L << retriesDone))
+                                .then(attempt(exchange, chain, config, retriesDone + 1));
+                    }
+                    return error.map(Mono::<Void>error).orElseGet(Mono::empty);
+                });
+    }
+
+    private boolean shouldRetry(ServerWebExchange exchange, Config config, Throwable error, int retriesDone) {
+        if (retriesDone >= config.getRetries()
+                || exchange.getResponse().isCommitted()
+                || exchange.getAttribute(LoadSheddingFilter.SHED_ATTR) != null) {
+            return false;
+        }
+        boolean retryable = error != null ? isTransient(error) : isRetryableStatus(exchange, config);
+        if (!retryable) {
+            return false;
+        }
+        boolean allowed = budget.tryWithdraw();
+        counter(routeId(exchange), allowed ? "retried" : "budget_exhausted").increment();
+        return allowed;
+    }
+
+    private static boolean isRetryableStatus(ServerWebExchange exchange, Config config) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && config.getStatuses().stream().anyMatch(s -> s.value() == status.value());
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Same clean-up the stock Retry filter does between attempts
+    private static void reset(ServerWebExchange exchange) {
+        Connection connection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+            exchange.getAttributes().remove(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        }
+        ServerWebExchangeUtils.reset(exchange);
+        exchange.getResponse().setStatusCode(null);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return counters.computeIfAbsent(routeId + '|' + outcome,
+                key -> Counter.builder("gateway.retry.attempts")
+                        .description("Retries attempted or refused by the shared retry budget")
+                        .tag("route", routeId)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+    }
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "Setters store immutable copies")
+    public static class Config {
+
+        private int retries = 2;
+        private List<HttpMethod> methods = List.of(HttpMethod.GET, HttpMethod.HEAD);
+        private List<HttpStatus> statuses = List.of(HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE,
+                HttpStatus.GATEWAY_TIMEOUT);
+        private Duration backoff = Duration.ofMillis(50);
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public Config setRetries(int retries) {
+            this.retries = retries;
+            return this;
+        }
+
+        public List<HttpMethod> getMethods() {
+            return methods;
+        }
+
+        public Config setMethods(List<HttpMethod> methods) {
+            this.methods = List.copyOf(methods);
+            return this;
+        }
+
+        public List<HttpStatus> getStatuses() {
+            return statuses;
+        }
+
+        public Config setStatuses(List<HttpStatus> statuses) {
+            this.statuses = List.copyOf(statuses);
+            return this;
+        }
+
+        public Duration getBackoff() {
+            return backoff;
+        }
+
+        public Config setBackoff(Duration backoff) {
+            this.backoff = backoff;
+            return this;
+        }
+    }
+}
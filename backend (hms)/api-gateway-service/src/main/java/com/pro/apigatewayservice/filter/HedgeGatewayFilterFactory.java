@@ -0,0 +1,358 @@
+package com.pro.apigatewayservice.filter;
+
+import com.pro.apigatewayservice.loadbalancer.InstanceStats;
+import com.pro.apigatewayservice.loadbalancer.InstanceStatsRegistry;
+import com.pro.apigatewayservice.resilience.LoadBudget;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.support.DelegatingServiceInstance;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Hedged reads for {@code lb://} routes: if the first instance has not answered within the route's
+ * recent latency percentile, the same GET goes to a second instance, the first response wins and
+ * the slower call is cancelled. Each hedge is paid for from the shared hedge budget, so hedging
+ * cannot multiply load when every instance is slow at once.
+ *
+ * <p>Hedged requests are proxied here instead of by the routing filter, with fully buffered
+ * responses, so only use this on small, idempotent reads. Like the routing filter, only the status
+ * is set here; {@link HedgedResponseWriteFilter} writes the body once the chain has unwound. Calls
+ * time out after the route's {@code response-timeout}, or the gateway-wide one.
+ *
+ * <pre>
+ * filters:
+ *   - name: Hedge
+ *     args:
+ *       paths: /patients/{id}
+ *       percentile: 0.95
+ * </pre>
+ */
+@Component
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    public static final String HEDGED_HEADER = "X-Hedged";
+
+    static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+    private static final int RESERVOIR_SIZE = 1024;
+    private static final int MIN_SAMPLES = 50;
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory;
+    private final InstanceStatsRegistry instanceStats;
+    private final LoadBudget budget;
+    private final Supplier<List<HttpHeadersFilter>> headersFilters;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final Duration defaultResponseTimeout;
+    private final Map<String, RouteHedging> routes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public HedgeGatewayFilterFactory(LoadBalancerClientFactory clientFactory,
+                                     InstanceStatsRegistry instanceStats,
+                                     @Qualifier("hedgeBudget") LoadBudget budget,
+                                     ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                     HttpClient httpClient,
+                                     HttpClientProperties httpClientProperties,
+                                     MeterRegistry meterRegistry) {
+        this(clientFactory, instanceStats, budget, () -> headersFilters.getIfAvailable(List::of), httpClient,
+                httpClientProperties.getResponseTimeout(), meterRegistry);
+    }
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "Collaborators are shared application beans")
+    HedgeGatewayFilterFactory(ReactiveLoadBalancer.Factory<ServiceInstance> clientFactory,
+                              InstanceStatsRegistry instanceStats,
+                              LoadBudget budget,
+                              Supplier<List<HttpHeadersFilter>> headersFilters,
+                              HttpClient httpClient,
+                              Duration defaultResponseTimeout,
+                              MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.clientFactory = clientFactory;
+        this.instanceStats = instanceStats;
+        this.budget = budget;
+        this.headersFilters = headersFilters;
+        this.webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        this.meterRegistry = meterRegistry;
+        this.defaultResponseTimeout = defaultResponseTimeout;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> paths = config.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config, paths), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config, List<PathPattern> paths) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (url == null || route == null || !"lb".equals(url.getScheme())
+                || !HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                || !matches(paths, exchange)) {
+            return chain.filter(exchange);
+        }
+
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        RouteHedging hedging = routes.computeIfAbsent(route.getId(), RouteHedging::new);
+        ReactiveLoadBalancer<ServiceInstance> balancer = clientFactory.getInstance(url.getHost());
+        Duration timeout = responseTimeout(route);
+        budget.deposit();
+
+        return choose(balancer)
+                .switchIfEmpty(Mono.error(() -> NotFoundException.create(true, "Unable to find instance for " + url.getHost())))
+                .flatMap(primary -> hedged(exchange, url, timeout, config, hedging, balancer, primary))
+                .flatMap(winner -> write(exchange, winner));
+    }
+
+    private Mono<Attempt> hedged(ServerWebExchange exchange, URI url, Duration timeout, Config config,
+                                 RouteHedging hedging, ReactiveLoadBalancer<ServiceInstance> balancer,
+                                 ServiceInstance primary) {
+        Sinks.One<Boolean> primaryDone = Sinks.one();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Mono<Attempt> first = call(exchange, url, timeout, primary, false, hedging)
+                .doFinally(signal -> primaryDone.tryEmitValue(true))
+                .onErrorResume(e -> {
+                    failure.set(e);
+                    return Mono.empty();
+                });
+
+        // A failed original ends the race without waiting out the hedge delay
+        Mono<Attempt> second = Mono.delay(hedging.delay(config))
+                .takeUntilOther(primaryDone.asMono())
+                .flatMap(tick -> {
+                    if (!budget.tryWithdraw()) {
+                        hedging.budgetExhausted.increment();
+                        return Mono.empty();
+                    }
+                    hedging.hedged.increment();
+                    return chooseOther(balancer, primary)
+                            .flatMap(instance -> call(exchange, url, timeout, instance, true, hedging));
+                })
+                .onErrorResume(e -> {
+                    failure.compareAndSet(null, e);
+                    return Mono.empty();
+                });
+
+        return Mono.firstWithValue(first, second)
+                .onErrorMap(NoSuchElementException.class, e -> failure.get() != null ? failure.get() : e)
+                .doOnNext(winner -> {
+                    if (winner.hedge()) {
+                        hedging.hedgeWins.increment();
+                    }
+                });
+    }
+
+    private Mono<Attempt> call(ServerWebExchange exchange, URI url, Duration timeout, ServiceInstance instance,
+                               boolean hedge, RouteHedging hedging) {
+        String scheme = instance.isSecure() ? "https" : "http";
+        URI target = LoadBalancerUriTools.reconstructURI(new DelegatingServiceInstance(instance, scheme), url);
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(HttpHeadersFilter.filterRequest(headersFilters.get(), exchange));
+        headers.remove(HttpHeaders.HOST);
+        InstanceStats stats = instanceStats.stats(instance);
+        long start = System.nanoTime();
+        stats.start();
+
+        return webClient.get()
+                .uri(target)
+                .headers(h -> h.addAll(headers))
+                .httpRequest(request -> {
+                    if (timeout != null) {
+                        ((HttpClientRequest) request.getNativeRequest()).responseTimeout(timeout);
+                    }
+                })
+                .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(body -> new Attempt(response.statusCode(), response.headers().asHttpHeaders(), body, hedge)))
+                // Same exception as the routing filter, so the CircuitBreaker fallback still answers 504
+                .onErrorMap(e -> e.getCause() instanceof ReadTimeoutException,
+                        e -> new TimeoutException("Response took longer than timeout: " + timeout))
+                .doOnNext(attempt -> hedging.latencies.record(System.nanoTime() - start))
+                .doFinally(signal -> stats.complete(signal == SignalType.CANCEL ? -1 : System.nanoTime() - start,
+                        signal == SignalType.ON_ERROR));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, Attempt winner) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(HttpHeadersFilter.filter(headersFilters.get(), winner.headers(),
+                exchange, HttpHeadersFilter.Type.RESPONSE));
+        if (winner.hedge()) {
+            headers.set(HEDGED_HEADER, "true");
+        }
+        exchange.getResponse().setStatusCode(winner.status());
+        exchange.getAttributes().put(HedgedResponseWriteFilter.ATTRIBUTE,
+                new HedgedResponseWriteFilter.HedgedResponse(headers, winner.body()));
+        return Mono.empty();
+    }
+
+    private static Mono<ServiceInstance> choose(ReactiveLoadBalancer<ServiceInstance> balancer) {
+        return Mono.from(balancer.choose(ReactiveLoadBalancer.REQUEST))
+                .filter(Response::hasServer)
+                .map(Response::getServer);
+    }
+
+    // A few draws are enough with power-of-two-choices; with a single instance there is nothing to hedge to
+    private static Mono<ServiceInstance> chooseOther(ReactiveLoadBalancer<ServiceInstance> balancer, ServiceInstance primary) {
+        return choose(balancer)
+                .filter(instance -> !sameInstance(instance, primary))
+                .repeatWhenEmpty(2, attempts -> attempts)
+                .onErrorResume(IllegalStateException.class, e -> Mono.empty());
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private static boolean matches(List<PathPattern> paths, ServerWebExchange exchange) {
+        if (paths.isEmpty()) {
+            return true;
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        return paths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    // Same precedence as the routing filter: route metadata, a negative value disabling it, then the global setting
+    private Duration responseTimeout(Route route) {
+        Object timeout = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (timeout instanceof Number millis) {
+            return millis.longValue() < 0 ? null : Duration.ofMillis(millis.longValue());
+        }
+        return defaultResponseTimeout;
+    }
+
+    private record Attempt(HttpStatusCode status, HttpHeaders headers, byte[] body, boolean hedge) {
+    }
+
+    private final class RouteHedging {
+
+        private final LatencyReservoir latencies = new LatencyReservoir(RESERVOIR_SIZE, RESERVOIR_SIZE / 8);
+        private final LongAdder hedged = new LongAdder();
+        private final LongAdder hedgeWins = new LongAdder();
+        private final Counter budgetExhausted;
+
+        RouteHedging(String routeId) {
+            Gauge.builder("gateway.hedge.requests", hedged, LongAdder::sum)
+                    .description("Hedge requests sent")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.hedge.wins", hedgeWins, LongAdder::sum)
+                    .description("Hedge requests that answered before the original")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.hedge.win.ratio", this, RouteHedging::winRatio)
+                    .description("Share of hedge requests that answered first")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            budgetExhausted = Counter.builder("gateway.hedge.budget.exhausted")
+                    .description("Hedges skipped because the hedge budget was spent")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        Duration delay(Config config) {
+            long percentile = latencies.percentile(config.getPercentile(), MIN_SAMPLES);
+            if (percentile < 0) {
+                return config.getMaxDelay();
+            }
+            long bounded = Math.max(config.getMinDelay().toNanos(), Math.min(config.getMaxDelay().toNanos(), percentile));
+            return Duration.ofNanos(bounded);
+        }
+
+        double winRatio() {
+            long sent = hedged.sum();
+            return sent == 0 ? 0 : (double) hedgeWins.sum() / sent;
+        }
+    }
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "Setters store immutable copies")
+    public static class Config {
+
+        private List<String> paths = List.of();
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofMillis(500);
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public Config setPaths(List<String> paths) {
+            this.paths = List.copyOf(paths);
+            return this;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public Config setPercentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public Config setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public Config setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+    }
+}
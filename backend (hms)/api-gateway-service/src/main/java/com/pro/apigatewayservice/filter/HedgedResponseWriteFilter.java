@@ -0,0 +1,46 @@
+package com.pro.apigatewayservice.filter;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes the response a {@code Hedge} filter buffered, at the same point {@link NettyWriteResponseFilter}
+ * writes proxied ones. Until then only the status is set, so the route's CircuitBreaker and
+ * BudgetedRetry can still fall back or retry on a 5xx instead of finding the response committed.
+ */
+public class HedgedResponseWriteFilter implements GlobalFilter, Ordered {
+
+    static final String ATTRIBUTE = HedgedResponseWriteFilter.class.getName() + ".response";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).then(Mono.defer(() -> {
+            HedgedResponse hedged = (HedgedResponse) exchange.getAttributes().remove(ATTRIBUTE);
+            ServerHttpResponse response = exchange.getResponse();
+            // A fallback has already answered in its place
+            if (hedged == null || response.isCommitted()) {
+                return Mono.empty();
+            }
+            response.getHeaders().putAll(hedged.headers());
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+            response.getHeaders().setContentLength(hedged.body().length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(hedged.body())));
+        }));
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER;
+    }
+
+    @SuppressFBWarnings(value = {"EI_EXPOSE_REP", "EI_EXPOSE_REP2"}, justification = "Buffered once and written once")
+    record HedgedResponse(HttpHeaders headers, byte[] body) {
+    }
+}
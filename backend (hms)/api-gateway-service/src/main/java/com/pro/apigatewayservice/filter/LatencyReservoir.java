@@ -0,0 +1,54 @@
+package com.pro.apigatewayservice.filter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The most recent response latencies of one route, for percentile estimates. Writes are a single
+ * array store; the sorted snapshot behind {@link #percentile} is rebuilt every
+ * {@code refreshEvery} samples rather than per read.
+ */
+final class LatencyReservoir {
+
+    private final AtomicLongArray samples;
+    // A long so the count never wraps negative on a long-lived, busy route
+    private final AtomicLong recorded = new AtomicLong();
+    private final int refreshEvery;
+
+    private volatile long[] sorted = new long[0];
+    private volatile long sortedAt = -1;
+
+    LatencyReservoir(int capacity, int refreshEvery) {
+        this.samples = new AtomicLongArray(capacity);
+        this.refreshEvery = refreshEvery;
+    }
+
+    void record(long nanos) {
+        long index = recorded.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+    }
+
+    /**
+     * @return the latency at quantile {@code q} (0-1), or -1 with fewer than {@code minSamples}
+     */
+    long percentile(double q, int minSamples) {
+        long count = recorded.get();
+        if (count < minSamples) {
+            return -1;
+        }
+        long[] snapshot = sorted;
+        if (snapshot.length == 0 || count - sortedAt >= refreshEvery) {
+            int size = (int) Math.min(count, samples.length());
+            snapshot = new long[size];
+            for (int i = 0; i < size; i++) {
+                snapshot[i] = samples.get(i);
+            }
+            Arrays.sort(snapshot);
+            sorted = snapshot;
+            sortedAt = count;
+        }
+        int rank = (int) Math.ceil(q * snapshot.length) - 1;
+        return snapshot[Math.max(0, Math.min(rank, snapshot.length - 1))];
+    }
+}
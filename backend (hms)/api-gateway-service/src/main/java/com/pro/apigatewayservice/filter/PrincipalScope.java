@@ -0,0 +1,23 @@
+package com.pro.apigatewayservice.filter;
+
+import com.pro.apigatewayservice.security.RequestPrincipals;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Whose requests a filter may treat as interchangeable: every caller, callers with the same
+ * roles, or only the same user.
+ */
+public enum PrincipalScope {
+    NONE,
+    ROLES,
+    USER;
+
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return switch (this) {
+            case NONE -> Mono.just("*");
+            case ROLES -> RequestPrincipals.roleScope(exchange);
+            case USER -> RequestPrincipals.userScope(exchange);
+        };
+    }
+}
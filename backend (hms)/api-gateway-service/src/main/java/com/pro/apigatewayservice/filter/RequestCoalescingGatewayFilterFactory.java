@@ -0,0 +1,223 @@
+package com.pro.apigatewayservice.filter;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single-flight for idempotent reads: while a GET is in flight, identical GETs (same path, query,
+ * Accept header and principal scope) wait for it instead of going upstream, and every waiter
+ * receives a copy of its response. If the leading request fails or is cancelled, the waiters
+ * fall back to making their own call, so coalescing never changes what a client receives.
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestCoalescing
+ *     args:
+ *       scope: USER
+ * </pre>
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    public static final String COALESCED_HEADER = "X-Coalesced";
+
+    static final int ORDER = RouteResponseCacheGatewayFilterFactory.ORDER + 1;
+
+    private static final List<String> NOT_COPIED = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH);
+
+    private final Map<CoalesceKey, Sinks.One<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RouteMetrics> metrics = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The meter registry is a shared application bean")
+    public RequestCoalescingGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, Map::size)
+                .description("Distinct upstream requests currently shared by coalesced callers")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        return config.getScope().resolve(exchange).flatMap(scope -> {
+            CoalesceKey key = key(exchange, scope);
+            RouteMetrics routeMetrics = metrics(key.routeId());
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Sinks.One<SharedResponse> leader = inFlight.putIfAbsent(key, sink);
+            if (leader != null) {
+                routeMetrics.followers.increment();
+                return leader.asMono()
+                        .flatMap(shared -> write(exchange.getResponse(), shared))
+                        // The leading request failed or was cancelled: make our own call
+                        .onErrorResume(error -> chain.filter(exchange));
+            }
+            routeMetrics.leaders.increment();
+            SharingResponse response = new SharingResponse(exchange.getResponse(), key, sink);
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doFinally(signal -> response.abandon());
+        });
+    }
+
+    private static CoalesceKey key(ServerWebExchange exchange, String scope) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        String query = request.getURI().getRawQuery();
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return new CoalesceKey(route == null ? "" : route.getId(), request.getPath().value(),
+                query == null ? "" : query, accept == null ? "" : accept, scope);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        RouteResponseCacheGatewayFilterFactory.copyAbsent(shared.headers(), response.getHeaders());
+        response.getHeaders().set(COALESCED_HEADER, "true");
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private RouteMetrics metrics(String routeId) {
+        return metrics.computeIfAbsent(routeId, id -> new RouteMetrics(meterRegistry, id));
+    }
+
+    /** Buffers the leader's upstream response and publishes it to the waiting followers. */
+    private final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final CoalesceKey key;
+        private final Sinks.One<SharedResponse> sink;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private SharingResponse(ServerHttpResponse delegate, CoalesceKey key, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.key = key;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes -> {
+                        publish(bytes);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            publish(new byte[0]);
+            return super.setComplete();
+        }
+
+        private void publish(byte[] body) {
+            if (released.compareAndSet(false, true)) {
+                inFlight.remove(key, sink);
+                HttpHeaders headers = new HttpHeaders();
+                getHeaders().forEach((name, values) -> {
+                    if (!RouteResponseCacheGatewayFilterFactory.isPerCaller(name)
+                            && NOT_COPIED.stream().noneMatch(name::equalsIgnoreCase)) {
+                        headers.addAll(name, values);
+                    }
+                });
+                HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatusCode.valueOf(200);
+                sink.tryEmitValue(new SharedResponse(status, headers, body));
+            }
+        }
+
+        /** Called when the leader finishes; releases followers if no response was ever published. */
+        private void abandon() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.remove(key, sink);
+                sink.tryEmitError(new IllegalStateException("Coalesced request did not complete"));
+            }
+        }
+    }
+
+    private record CoalesceKey(String routeId, String path, String query, String accept, String scope) {
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    private static final class RouteMetrics {
+
+        private final Counter leaders;
+        private final Counter followers;
+
+        private RouteMetrics(MeterRegistry registry, String routeId) {
+            this.leaders = Counter.builder("gateway.coalescing.requests")
+                    .description("GET requests that went upstream (leader) or shared another's response (follower)")
+                    .tag("route", routeId)
+                    .tag("role", "leader")
+                    .register(registry);
+            this.followers = Counter.builder("gateway.coalescing.requests")
+                    .tag("route", routeId)
+                    .tag("role", "follower")
+                    .register(registry);
+            Gauge.builder("gateway.coalescing.ratio", this, RouteMetrics::ratio)
+                    .description("Share of GET requests answered from another in-flight request")
+                    .tag("route", routeId)
+                    .register(registry);
+        }
+
+        private double ratio() {
+            double total = leaders.count() + followers.count();
+            return total == 0 ? 0.0 : followers.count() / total;
+        }
+    }
+
+    public static class Config {
+
+        private PrincipalScope scope = PrincipalScope.USER;
+
+        public PrincipalScope getScope() {
+            return scope;
+        }
+
+        public void setScope(PrincipalScope scope) {
+            this.scope = scope;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.pro.apigatewayservice.filter;
+
+import com.pro.apigatewayservice.cache.CachedResponse;
+import com.pro.apigatewayservice.cache.ResponseCacheKey;
+import com.pro.apigatewayservice.cache.ResponseCacheStore;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Caches successful GET responses of a route for a short TTL and answers conditional requests
+ * with 304. Entries are keyed by path, query and the caller's scope ({@code varyBy}: USER, ROLES
+ * or NONE). A mutating request through the same gateway drops every entry under the first
+ * {@code invalidationSegments} path segments before its response is sent, so the caller never
+ * reads its own stale data back. A GET that was already in flight when the write invalidated its
+ * entries is not stored, as it may have read the data from before the write.
+ *
+ * <pre>
+ * filters:
+ *   - name: RouteResponseCache
+ *     args:
+ *       time-to-live: 30s
+ *       vary-by: USER
+ * </pre>
+ */
+@Component
+public class RouteResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RouteResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_HEADER = "X-Cache";
+
+    /** Outside request coalescing, so cache hits never wait on an in-flight request. */
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+
+    private static final Set<HttpMethod> MUTATING = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final List<String> NOT_STORED = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.SET_COOKIE, HttpHeaders.DATE, CACHE_HEADER);
+    private static final String CORS_HEADER_PREFIX = "Access-Control-";
+
+    private final ResponseCacheStore store;
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The store is a shared application bean")
+    public RouteResponseCacheGatewayFilterFactory(ResponseCacheStore store) {
+        super(Config.class);
+        this.store = store;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Must wrap the response before NettyWriteResponseFilter writes the upstream body
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (HttpMethod.GET.equals(request.getMethod())) {
+            return config.getVaryBy().resolve(exchange)
+                    .map(scope -> key(exchange, scope))
+                    .flatMap(key -> store.get(key)
+                            .map(cached -> serve(exchange, cached))
+                            .orElseGet(() -> chain.filter(exchange.mutate()
+                                    .response(new CapturingResponse(exchange, key, store.generation(key.path()), config))
+                                    .build())));
+        }
+        if (MUTATING.contains(request.getMethod())) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.beforeCommit(() -> {
+                HttpStatusCode status = response.getStatusCode();
+                if (status == null || !status.is4xxClientError()) {
+                    store.invalidatePrefix(prefix(request.getPath().value(), config.getInvalidationSegments()));
+                }
+                return Mono.empty();
+            });
+        }
+        return chain.filter(exchange);
+    }
+
+    private static ResponseCacheKey key(ServerWebExchange exchange, String scope) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        ServerHttpRequest request = exchange.getRequest();
+        String query = request.getURI().getRawQuery();
+        return new ResponseCacheKey(route == null ? "" : route.getId(), request.getPath().value(),
+                query == null ? "" : query, scope);
+    }
+
+    private static Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        copyAbsent(cached.headers(), response.getHeaders());
+        response.getHeaders().set(CACHE_HEADER, "HIT");
+        response.getHeaders().set(HttpHeaders.AGE,
+                Long.toString(Duration.between(cached.storedAt(), Instant.now()).toSeconds()));
+        if (matches(exchange.getRequest(), cached.etag())) {
+            return notModified(response);
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        response.getHeaders().setContentLength(cached.size());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Adds the stored headers this response does not already carry. Headers the gateway set for
+     * this request, such as the CORS filter's {@code Vary}, are kept as they are.
+     */
+    static void copyAbsent(HttpHeaders stored, HttpHeaders target) {
+        stored.forEach((name, values) -> {
+            if (!target.containsKey(name)) {
+                target.addAll(name, values);
+            }
+        });
+    }
+
+    /**
+     * Whether a header describes this caller rather than the resource: CORS response headers
+     * answer the caller's {@code Origin} and must not be replayed to another one.
+     */
+    static boolean isPerCaller(String name) {
+        return name.regionMatches(true, 0, CORS_HEADER_PREFIX, 0, CORS_HEADER_PREFIX.length());
+    }
+
+    private static Mono<Void> notModified(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        return response.setComplete();
+    }
+
+    private static boolean matches(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+    }
+
+    static String prefix(String path, int segments) {
+        int end = 0;
+        for (int i = 0; i < segments; i++) {
+            int next = path.indexOf('/', end + 1);
+            if (next < 0) {
+                return path;
+            }
+            end = next;
+        }
+        return path.substring(0, end);
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Buffers a cacheable upstream body, stores it and then writes it (or a 304) to the client. */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final ResponseCacheKey key;
+        private final long generation;
+        private final Config config;
+
+        private CapturingResponse(ServerWebExchange exchange, ResponseCacheKey key, long generation, Config config) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.generation = generation;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isCacheable()) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                HttpHeaders headers = getHeaders();
+                String etag = headers.getETag() != null ? headers.getETag() : etag(bytes);
+                headers.setETag(etag);
+                headers.set(CACHE_HEADER, "MISS");
+                if (bytes.length <= config.getMaxBodySize().toBytes()) {
+                    store.put(key, toCached(headers, bytes, etag), generation);
+                }
+                if (matches(exchange.getRequest(), etag)) {
+                    return notModified(getDelegate());
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        private boolean isCacheable() {
+            HttpHeaders headers = getHeaders();
+            String cacheControl = headers.getCacheControl();
+            return HttpStatus.OK.equals(getStatusCode())
+                    && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                    && (cacheControl == null || !cacheControl.contains("no-store"));
+        }
+
+        private CachedResponse toCached(HttpHeaders headers, byte[] body, String etag) {
+            HttpHeaders stored = new HttpHeaders();
+            headers.forEach((name, values) -> {
+                if (!isPerCaller(name) && NOT_STORED.stream().noneMatch(name::equalsIgnoreCase)) {
+                    stored.addAll(name, values);
+                }
+            });
+            Instant now = Instant.now();
+            return new CachedResponse(HttpStatus.OK.value(), stored, body, etag, now, now.plus(config.getTimeToLive()));
+        }
+    }
+
+    public static class Config {
+
+        private Duration timeToLive = Duration.ofSeconds(30);
+        private DataSize maxBodySize = DataSize.ofKilobytes(512);
+        private PrincipalScope varyBy = PrincipalScope.USER;
+        private int invalidationSegments = 1;
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        public PrincipalScope getVaryBy() {
+            return varyBy;
+        }
+
+        public void setVaryBy(PrincipalScope varyBy) {
+            this.varyBy = varyBy;
+        }
+
+        public int getInvalidationSegments() {
+            return invalidationSegments;
+        }
+
+        public void setInvalidationSegments(int invalidationSegments) {
+            this.invalidationSegments = invalidationSegments;
+        }
+    }
+}
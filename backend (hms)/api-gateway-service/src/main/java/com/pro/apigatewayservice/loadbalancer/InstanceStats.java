@@ -0,0 +1,86 @@
+package com.pro.apigatewayservice.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live view of one upstream instance: requests outstanding, a peak-sensitive EWMA of response
+ * latency and the run of consecutive failures that gets it ejected.
+ */
+public final class InstanceStats {
+
+    private static final double UNMEASURED_PENALTY = Double.MAX_VALUE / 2;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final InstanceStatsRegistry registry;
+
+    private double ewmaNanos;
+    private long lastUpdate;
+    private int consecutiveFailures;
+    private long ejectedUntil;
+
+    InstanceStats(InstanceStatsRegistry registry) {
+        this.registry = registry;
+        this.lastUpdate = registry.now();
+    }
+
+    public void start() {
+        outstanding.incrementAndGet();
+    }
+
+    /**
+     * Records a finished call.
+     *
+     * @param latencyNanos time until the response headers, or a negative value if the caller went
+     *                     away before the instance answered
+     * @param failed       server error, timeout or connection failure
+     */
+    public synchronized void complete(long latencyNanos, boolean failed) {
+        outstanding.decrementAndGet();
+        if (latencyNanos < 0) {
+            return;
+        }
+        long now = registry.now();
+        double current = decayed(now);
+        // A latency spike is taken at face value and decays away; smaller samples are averaged in
+        if (latencyNanos > current) {
+            ewmaNanos = latencyNanos;
+        } else {
+            double weight = Math.exp(-(double) (now - lastUpdate) / registry.decayNanos());
+            ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastUpdate = now;
+
+        if (!failed) {
+            consecutiveFailures = 0;
+        } else if (++consecutiveFailures >= registry.failureThreshold()) {
+            // Stays at the threshold, so a failure right after re-admission ejects it again
+            ejectedUntil = now + registry.ejectionNanos();
+        }
+    }
+
+    /**
+     * Expected wait on this instance: latency scaled by the queue a new request would join. An
+     * instance that has not answered yet is only sent one probe at a time, so a new but slow
+     * instance cannot soak up traffic before its first response reveals it.
+     */
+    synchronized double cost() {
+        int queued = outstanding.get();
+        if (ewmaNanos == 0) {
+            return queued == 0 ? 0 : UNMEASURED_PENALTY + queued;
+        }
+        return decayed(registry.now()) * (queued + 1);
+    }
+
+    // Without fresh samples the estimate drifts towards zero, so an instance that was slow once is tried again
+    private double decayed(long now) {
+        return ewmaNanos * Math.exp(-(double) Math.max(0, now - lastUpdate) / registry.decayNanos());
+    }
+
+    synchronized boolean isEjected() {
+        return registry.now() < ejectedUntil;
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+}
@@ -0,0 +1,55 @@
+package com.pro.apigatewayservice.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-instance statistics shared by every service's {@link LatencyAwareLoadBalancer}. Instances
+ * that stop receiving traffic (scaled down, redeployed on a new address) are forgotten after
+ * {@code idleTimeout}.
+ */
+public class InstanceStatsRegistry {
+
+    private final Cache<String, InstanceStats> stats;
+    private final LongSupplier clock;
+    private final long decayNanos;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+
+    public InstanceStatsRegistry(Duration decay, int failureThreshold, Duration ejection, Duration idleTimeout,
+                                 LongSupplier clock) {
+        this.stats = Caffeine.newBuilder().expireAfterAccess(idleTimeout).build();
+        this.clock = clock;
+        this.decayNanos = decay.toNanos();
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = ejection.toNanos();
+    }
+
+    public InstanceStats stats(ServiceInstance instance) {
+        return stats.get(key(instance), key -> new InstanceStats(this));
+    }
+
+    static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '|' + instance.getHost() + ':' + instance.getPort();
+    }
+
+    long now() {
+        return clock.getAsLong();
+    }
+
+    long decayNanos() {
+        return decayNanos;
+    }
+
+    int failureThreshold() {
+        return failureThreshold;
+    }
+
+    long ejectionNanos() {
+        return ejectionNanos;
+    }
+}
@@ -0,0 +1,81 @@
+package com.pro.apigatewayservice.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Power-of-two-choices over live latency: picks two instances at random and sends the request to
+ * the one with the lower {@link InstanceStats#cost()}. Sampling two instead of scanning all keeps
+ * a freshly fast instance from being stampeded by every gateway thread at once. Ejected instances
+ * are skipped unless every instance is ejected, in which case all are tried rather than none.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final InstanceStatsRegistry registry;
+    private final Supplier<RandomGenerator> random;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId,
+                                    InstanceStatsRegistry registry) {
+        this(suppliers, serviceId, registry, ThreadLocalRandom::current);
+    }
+
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId,
+                             InstanceStatsRegistry registry, Supplier<RandomGenerator> random) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.registry = registry;
+        this.random = random;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(() -> new NoopServiceInstanceListSupplier());
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        List<ServiceInstance> candidates = instances.stream()
+                .filter(instance -> !registry.stats(instance).isEjected())
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        RandomGenerator rng = random.get();
+        int first = rng.nextInt(candidates.size());
+        int second = rng.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(registry.stats(a).cost() <= registry.stats(b).cost() ? a : b);
+    }
+}
@@ -0,0 +1,33 @@
+package com.pro.apigatewayservice.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Replaces round-robin with {@link LatencyAwareLoadBalancer} for every {@code lb://} route.
+ * Disable with {@code gateway.load-balancer.latency-aware.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.latency-aware.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancingConfig {
+
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(
+            @Value("${gateway.load-balancer.latency-aware.decay:5s}") Duration decay,
+            @Value("${gateway.load-balancer.latency-aware.failure-threshold:5}") int failureThreshold,
+            @Value("${gateway.load-balancer.latency-aware.ejection:30s}") Duration ejection,
+            @Value("${gateway.load-balancer.latency-aware.idle-timeout:10m}") Duration idleTimeout) {
+        return new InstanceStatsRegistry(decay, failureThreshold, ejection, idleTimeout, System::nanoTime);
+    }
+
+    @Bean
+    public InstanceStatsFilter instanceStatsFilter(InstanceStatsRegistry instanceStatsRegistry) {
+        return new InstanceStatsFilter(instanceStatsRegistry);
+    }
+}
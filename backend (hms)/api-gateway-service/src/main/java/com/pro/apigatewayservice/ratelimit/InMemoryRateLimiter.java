@@ -0,0 +1,135 @@
+package com.pro.apigatewayservice.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Min;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket {@code RateLimiter} kept in gateway memory, so no Redis is needed. Limits are
+ * per gateway instance. Buckets live in a bounded Caffeine cache and are dropped after being idle
+ * for {@code idleTimeout}, which is no later than a full refill for any sensible rate.
+ *
+ * <pre>
+ * filters:
+ *   - name: RequestRateLimiter
+ *     args:
+ *       in-memory-rate-limiter.replenish-rate: 5
+ *       in-memory-rate-limiter.burst-capacity: 10
+ * </pre>
+ */
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final Config defaultConfig;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The meter registry is a shared application bean")
+    public InMemoryRateLimiter(ConfigurationService configurationService, Config defaultConfig,
+                               long maxBuckets, Duration idleTimeout, MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = defaultConfig;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        Gauge.builder("gateway.rate.limiter.buckets", buckets, Cache::estimatedSize)
+                .description("Rate limiter buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(routeId + '|' + id, key -> new TokenBucket(config.getBurstCapacity(), now));
+        TokenBucket.Result result = bucket.tryConsume(config.getRequestedTokens(), config.getReplenishRate(),
+                config.getBurstCapacity(), now);
+
+        counter(routeId, result.allowed()).increment();
+        return Mono.just(new Response(result.allowed(), headers(config, result)));
+    }
+
+    private static Map<String, String> headers(Config config, TokenBucket.Result result) {
+        double rate = config.getReplenishRate();
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(LIMIT_HEADER, Long.toString(config.getBurstCapacity()));
+        headers.put(REMAINING_HEADER, Long.toString((long) Math.floor(result.tokensLeft())));
+        headers.put(RESET_HEADER, Long.toString((long) Math.ceil((config.getBurstCapacity() - result.tokensLeft()) / rate)));
+        if (!result.allowed()) {
+            long retryAfter = (long) Math.ceil((config.getRequestedTokens() - result.tokensLeft()) / rate);
+            headers.put(RETRY_AFTER_HEADER, Long.toString(Math.max(1, retryAfter)));
+        }
+        return headers;
+    }
+
+    private Counter counter(String routeId, boolean allowed) {
+        return counters.computeIfAbsent(routeId + (allowed ? "|allowed" : "|denied"),
+                name -> Counter.builder("gateway.rate.limiter.requests")
+                        .description("Requests checked by the rate limiter")
+                        .tag("route", routeId)
+                        .tag("outcome", allowed ? "allowed" : "denied")
+                        .register(meterRegistry));
+    }
+
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate = 10;
+
+        @Min(1)
+        private long burstCapacity = 20;
+
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public long getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(long burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.pro.apigatewayservice.ratelimit;
+
+import com.pro.apigatewayservice.security.RequestPrincipals;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Objects;
+
+/**
+ * Rate-limit key: the user id from a token verified at the edge, otherwise the client address.
+ * Nothing the client sends unverified (claims, or the Authorization header itself) picks the
+ * bucket: public routes such as {@code /auth/login} let requests with junk tokens through, so a
+ * client could otherwise get a fresh bucket per attempt.
+ */
+public class PrincipalKeyResolver implements KeyResolver {
+
+    private final RemoteAddressResolver remoteAddressResolver;
+
+    public PrincipalKeyResolver(RemoteAddressResolver remoteAddressResolver) {
+        this.remoteAddressResolver = remoteAddressResolver;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return RequestPrincipals.verifiedJwt(exchange)
+                .mapNotNull(jwt -> {
+                    Object userId = jwt.getClaim("userId");
+                    return userId != null ? "user:" + userId : null;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> "ip:" + Objects.requireNonNullElse(clientAddress(exchange), "unknown")));
+    }
+
+    /**
+     * The caller's address, honouring X-Forwarded-For from the trusted proxies, or null if unknown.
+     */
+    public String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress address = remoteAddressResolver.resolve(exchange);
+        if (address == null) {
+            return null;
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.pro.apigatewayservice.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Defaults for the {@code RequestRateLimiter} filter. Routes set their own limits under
+ * {@code in-memory-rate-limiter.*}; routes without them use {@code gateway.rate-limit.default.*}.
+ */
+@Configuration
+public class RateLimiterConfig {
+
+    @Bean
+    public InMemoryRateLimiter inMemoryRateLimiter(
+            ConfigurationService configurationService,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.default.replenish-rate:10}") int replenishRate,
+            @Value("${gateway.rate-limit.default.burst-capacity:20}") long burstCapacity,
+            @Value("${gateway.rate-limit.max-buckets:100000}") long maxBuckets,
+            @Value("${gateway.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        InMemoryRateLimiter.Config defaults = new InMemoryRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity);
+        return new InMemoryRateLimiter(configurationService, defaults, maxBuckets, idleTimeout, meterRegistry);
+    }
+
+    /**
+     * With {@code trusted-proxies} above zero the client address is taken from X-Forwarded-For,
+     * trusting that many proxies in front of the gateway (the frontend's nginx by default);
+     * otherwise the socket address is used.
+     */
+    @Bean
+    public PrincipalKeyResolver principalKeyResolver(@Value("${gateway.rate-limit.trusted-proxies:1}") int trustedProxies) {
+        RemoteAddressResolver addresses = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() { };
+        return new PrincipalKeyResolver(addresses);
+    }
+}
@@ -0,0 +1,45 @@
+package com.pro.apigatewayservice.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A token bucket updated with compare-and-set, so concurrent requests for the same key never
+ * block each other. Tokens refill continuously at {@code replenishRate} per second up to
+ * {@code burstCapacity}.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final AtomicReference<State> state;
+
+    TokenBucket(double burstCapacity, long nowNanos) {
+        this.state = new AtomicReference<>(new State(burstCapacity, nowNanos));
+    }
+
+    /**
+     * Takes {@code requested} tokens if available.
+     *
+     * @return the outcome and the tokens left afterwards
+     */
+    Result tryConsume(long requested, double replenishRate, double burstCapacity, long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double elapsedSeconds = Math.max(0, nowNanos - current.updatedAt()) / NANOS_PER_SECOND;
+            double available = Math.min(burstCapacity, current.tokens() + elapsedSeconds * replenishRate);
+            boolean allowed = available >= requested;
+            // a racing thread may have stored a later clock; never move it backwards
+            State next = new State(allowed ? available - requested : available,
+                    Math.max(nowNanos, current.updatedAt()));
+            if (state.compareAndSet(current, next)) {
+                return new Result(allowed, next.tokens());
+            }
+        }
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+
+    record Result(boolean allowed, double tokensLeft) {
+    }
+}
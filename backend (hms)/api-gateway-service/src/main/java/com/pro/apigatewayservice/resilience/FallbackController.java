@@ -0,0 +1,65 @@
+package com.pro.apigatewayservice.resilience;
+
+import com.pro.apigatewayservice.dto.ApiError;
+import com.pro.apigatewayservice.shedding.LoadShedException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Target of {@code fallbackUri: forward:/fallback} on circuit-broken routes. Answers from the
+ * exchange attributes alone, so an open breaker costs no more than a header write: 504 when the
+ * upstream timed out, 503 otherwise. Requests shed by the gateway get a 503 with the shedder's
+ * shorter {@code Retry-After}.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    private final String retryAfterSeconds;
+
+    public FallbackController(@Value("${gateway.fallback.retry-after:5s}") Duration retryAfter) {
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @RequestMapping
+    public ResponseEntity<ApiError> fallback(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        String service = route != null ? route.getId() : "upstream service";
+
+        if (cause instanceof LoadShedException shed) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, shed.getRetryAfterSeconds())
+                    .body(new ApiError("OVERLOADED", "The gateway is shedding " + shed.getPriority()
+                            + " requests, please retry shortly"));
+        }
+        if (hasCause(cause, TimeoutException.class)) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(new ApiError("UPSTREAM_TIMEOUT", service + " did not respond in time"));
+        }
+        String code = cause instanceof CallNotPermittedException ? "CIRCUIT_OPEN" : "UPSTREAM_UNAVAILABLE";
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .body(new ApiError(code, service + " is temporarily unavailable"));
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.pro.apigatewayservice.resilience;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Gateway-wide allowance for extra upstream calls such as retries and hedges. Every eligible
+ * request deposits {@code ratio} of a token and every extra call spends a whole one, so extra calls
+ * add at most that fraction of load however many backends misbehave at once. A trickle of
+ * {@code minPerSecond} keeps them possible at low traffic.
+ */
+public class LoadBudget {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxBalance;
+    private final LongSupplier clock;
+    private final AtomicReference<State> state;
+
+    public LoadBudget(double ratio, double minPerSecond, double maxBalance, LongSupplier clock) {
+        if (ratio < 0 || minPerSecond < 0 || maxBalance < 1) {
+            throw new IllegalArgumentException("Load budget needs ratio >= 0, min rate >= 0 and max balance >= 1");
+        }
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.maxBalance = maxBalance;
+        this.clock = clock;
+        this.state = new AtomicReference<>(new State(maxBalance, clock.getAsLong()));
+    }
+
+    /**
+     * Credits the budget for a request that could be retried or hedged.
+     */
+    public void deposit() {
+        update(0);
+    }
+
+    /**
+     * Spends one token if available.
+     *
+     * @return whether the extra call may go ahead
+     */
+    public boolean tryWithdraw() {
+        return update(1);
+    }
+
+    public double balance() {
+        State current = state.get();
+        return refill(current, clock.getAsLong());
+    }
+
+    private boolean update(int withdraw) {
+        while (true) {
+            State current = state.get();
+            long now = clock.getAsLong();
+            double available = refill(current, now) + (withdraw == 0 ? ratio : 0);
+            if (available < withdraw) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(Math.min(maxBalance, available) - withdraw, now))) {
+                return true;
+            }
+        }
+    }
+
+    private double refill(State current, long now) {
+        double elapsed = Math.max(0, now - current.updatedAt()) / NANOS_PER_SECOND;
+        return Math.min(maxBalance, current.balance() + elapsed * minPerSecond);
+    }
+
+    private record State(double balance, long updatedAt) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.pro.apigatewayservice.resilience;
+
+import com.pro.apigatewayservice.filter.HedgedResponseWriteFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Shared budgets for {@code BudgetedRetry} and {@code Hedge} route filters, and the filter that
+ * writes hedged responses. Per-route circuit
+ * breakers are configured under {@code resilience4j.circuitbreaker.instances.<route>}.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public LoadBudget retryBudget(
+            @Value("${gateway.retry-budget.ratio:0.1}") double ratio,
+            @Value("${gateway.retry-budget.min-retries-per-second:5}") double minRetriesPerSecond,
+            @Value("${gateway.retry-budget.max-balance:50}") double maxBalance) {
+        return new LoadBudget(ratio, minRetriesPerSecond, maxBalance, System::nanoTime);
+    }
+
+    @Bean
+    public LoadBudget hedgeBudget(
+            @Value("${gateway.hedge-budget.ratio:0.05}") double ratio,
+            @Value("${gateway.hedge-budget.min-hedges-per-second:1}") double minHedgesPerSecond,
+            @Value("${gateway.hedge-budget.max-balance:20}") double maxBalance) {
+        return new LoadBudget(ratio, minHedgesPerSecond, maxBalance, System::nanoTime);
+    }
+
+    @Bean
+    public HedgedResponseWriteFilter hedgedResponseWriteFilter() {
+        return new HedgedResponseWriteFilter();
+    }
+}
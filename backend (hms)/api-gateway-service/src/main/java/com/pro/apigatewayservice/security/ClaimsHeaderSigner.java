@@ -0,0 +1,50 @@
+package com.pro.apigatewayservice.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs the verified-claims headers forwarded to downstream services. The signature is an
+ * HMAC-SHA256 over the header values joined by newlines, in the order user id, subject, roles,
+ * expiry, encoded as unpadded Base64url. Downstream services recompute it with the shared
+ * claims secret before trusting the headers.
+ */
+public final class ClaimsHeaderSigner {
+
+    public static final String USER_ID = "X-Auth-User-Id";
+    public static final String SUBJECT = "X-Auth-Subject";
+    public static final String ROLES = "X-Auth-Roles";
+    public static final String EXPIRES = "X-Auth-Expires";
+    public static final String SIGNATURE = "X-Auth-Signature";
+
+    /** Prefix of every header this gateway owns; clients may not send them. */
+    public static final String HEADER_PREFIX = "X-Auth-";
+
+    private final SecretKeySpec key;
+
+    public ClaimsHeaderSigner(byte[] secret) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Claims secret must be at least 256 bits");
+        }
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    public String sign(String userId, String subject, String roles, String expires) {
+        String payload = String.join("\n", nullToEmpty(userId), nullToEmpty(subject), nullToEmpty(roles), nullToEmpty(expires));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign claims headers", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
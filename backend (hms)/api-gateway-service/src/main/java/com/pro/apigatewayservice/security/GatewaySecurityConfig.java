@@ -1,41 +1,59 @@
 package com.pro.apigatewayservice.security;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
-import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.web.server.authentication.ServerBearerTokenAuthenticationConverter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.util.matcher.PathPatternParserServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import reactor.core.publisher.Mono;
 
-import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
 
 @Configuration
 @EnableWebFluxSecurity
 public class GatewaySecurityConfig {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    @Value("${gateway.edge-auth.public-paths:/auth/**,/actuator/health}")
+    private String[] publicPaths;
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http,
+                                                            ObjectProvider<ReactiveJwtDecoder> edgeJwtDecoder) {
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable);
+
+        ReactiveJwtDecoder decoder = edgeJwtDecoder.getIfAvailable();
+        if (decoder == null) {
+            // Edge authentication disabled: individual services authenticate every request themselves
+            http.authorizeExchange(exchanges -> exchanges.anyExchange().permitAll());
+            return http.build();
+        }
+
+        ServerWebExchangeMatcher publicExchanges = ServerWebExchangeMatchers.matchers(Arrays.stream(publicPaths)
+                .map(PathPatternParserServerWebExchangeMatcher::new)
+                .toArray(ServerWebExchangeMatcher[]::new));
+        ServerBearerTokenAuthenticationConverter bearerTokens = new ServerBearerTokenAuthenticationConverter();
+
         http
-                .csrf(ServerHttpSecurity.CsrfSpec::disable)
-                .authorizeExchange(exchanges ->
-                        exchanges
-                                .anyExchange().permitAll()  // Allow all requests to pass through to individual services
-                );
-                // Removed OAuth2 resource server configuration - let individual services handle authentication
+                .cors(Customizer.withDefaults())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(HttpMethod.OPTIONS).permitAll()
+                        .matchers(publicExchanges).permitAll()
+                        .anyExchange().authenticated())
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        // Public routes ignore any token so a stale one cannot block login
+                        .bearerTokenConverter(exchange -> publicExchanges.matches(exchange)
+                                .flatMap(match -> match.isMatch() ? Mono.empty() : bearerTokens.convert(exchange)))
+                        .jwt(jwt -> jwt.jwtDecoder(decoder)));
 
         return http.build();
     }
-
-    // Optional: Keep the JWT decoder bean in case it's needed for future use
-    // @Bean
-    // public ReactiveJwtDecoder jwtDecoder() {
-    //     byte[] keyBytes = jwtSecret.getBytes();
-    //     SecretKeySpec secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
-    //     return NimbusReactiveJwtDecoder.withSecretKey(secretKey).build();
-    // }
-}
\ No newline at end of file
+}
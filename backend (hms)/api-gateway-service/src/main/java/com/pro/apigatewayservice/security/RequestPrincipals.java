@@ -0,0 +1,65 @@
+package com.pro.apigatewayservice.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Who a request acts for, as far as the gateway can tell. Claims are only used when the token was
+ * verified at the edge; otherwise requests are told apart by a hash of their Authorization header.
+ */
+public final class RequestPrincipals {
+
+    public static final String ANONYMOUS = "anonymous";
+
+    private RequestPrincipals() {
+    }
+
+    public static Mono<Jwt> verifiedJwt(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> ((JwtAuthenticationToken) principal).getToken());
+    }
+
+    /** A key unique to the calling user. */
+    public static Mono<String> userScope(ServerWebExchange exchange) {
+        return verifiedJwt(exchange)
+                .map(jwt -> {
+                    Object userId = jwt.getClaim("userId");
+                    return userId != null ? "user:" + userId : "sub:" + jwt.getSubject();
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> credentialScope(exchange)));
+    }
+
+    /** A key shared by every user with the same roles. */
+    public static Mono<String> roleScope(ServerWebExchange exchange) {
+        return verifiedJwt(exchange)
+                .map(jwt -> {
+                    List<String> roles = jwt.getClaimAsStringList("roles");
+                    return "roles:" + (roles == null ? "" : String.join(",", roles.stream().sorted().toList()));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> credentialScope(exchange)));
+    }
+
+    private static String credentialScope(ServerWebExchange exchange) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return authorization == null ? ANONYMOUS : "credential:" + sha256(authorization);
+    }
+
+    public static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
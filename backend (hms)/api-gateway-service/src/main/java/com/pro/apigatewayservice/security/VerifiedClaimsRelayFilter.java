@@ -0,0 +1,72 @@
+package com.pro.apigatewayservice.security;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Replaces any client-supplied {@code X-Auth-*} headers with signed headers describing the
+ * token the gateway verified, so downstream services can authorize without parsing the JWT.
+ */
+public class VerifiedClaimsRelayFilter implements GlobalFilter, Ordered {
+
+    private final ClaimsHeaderSigner signer;
+
+    public VerifiedClaimsRelayFilter(ClaimsHeaderSigner signer) {
+        this.signer = signer;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> ((JwtAuthenticationToken) principal).getToken())
+                .map(jwt -> exchange.mutate().request(relay(exchange.getRequest(), jwt)).build())
+                .defaultIfEmpty(exchange.mutate().request(relay(exchange.getRequest(), null)).build())
+                .flatMap(chain::filter);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private ServerHttpRequest relay(ServerHttpRequest request, Jwt jwt) {
+        return request.mutate().headers(headers -> {
+            headers.keySet().removeIf(name -> name.regionMatches(true, 0, ClaimsHeaderSigner.HEADER_PREFIX, 0,
+                    ClaimsHeaderSigner.HEADER_PREFIX.length()));
+            if (jwt != null) {
+                addClaims(headers, jwt);
+            }
+        }).build();
+    }
+
+    private void addClaims(HttpHeaders headers, Jwt jwt) {
+        Object userIdClaim = jwt.getClaim("userId");
+        String userId = userIdClaim == null ? null : userIdClaim.toString();
+        String subject = jwt.getSubject();
+        List<String> roleList = jwt.getClaimAsStringList("roles");
+        String roles = roleList == null ? "" : String.join(",", roleList);
+        Instant expiresAt = jwt.getExpiresAt();
+        String expires = expiresAt == null ? "" : Long.toString(expiresAt.getEpochSecond());
+
+        if (userId != null) {
+            headers.set(ClaimsHeaderSigner.USER_ID, userId);
+        }
+        if (subject != null) {
+            headers.set(ClaimsHeaderSigner.SUBJECT, subject);
+        }
+        headers.set(ClaimsHeaderSigner.ROLES, roles);
+        headers.set(ClaimsHeaderSigner.EXPIRES, expires);
+        headers.set(ClaimsHeaderSigner.SIGNATURE, signer.sign(userId, subject, roles, expires));
+    }
+}
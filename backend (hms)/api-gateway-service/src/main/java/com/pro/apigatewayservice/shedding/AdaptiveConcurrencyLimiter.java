@@ -0,0 +1,91 @@
+package com.pro.apigatewayservice.shedding;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit for upstream calls. Every completed call is a sample: a call slower than
+ * {@code latencyThreshold} or failing with a server error shrinks the limit by
+ * {@code backoffRatio}; a healthy call while at least half the limit is in use grows it by one.
+ * The limit therefore settles just below the point where upstream latency starts to climb.
+ * <p>
+ * Below the initial limit each healthy call undoes one backoff step whatever the utilisation, so a
+ * dip recovers as quickly at low traffic as it came. Calls of priority classes that are slow by
+ * design (see {@link RoutePriority#isLatencySensitive()}) only count when they fail.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final double initialLimit;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, Duration latencyThreshold) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.limit = initialLimit;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+    }
+
+    /**
+     * Claims a slot if the priority's share of the limit is not used up. A successful call must be
+     * paired with {@link #release}.
+     */
+    public boolean tryAcquire(RoutePriority priority) {
+        int capacity = priority.capacity(limit);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees a slot and feeds the call's outcome into the limit.
+     *
+     * @param priority     class of the call, which decides whether its latency counts
+     * @param latencyNanos time the upstream took, or a negative value to release without a sample
+     * @param failed       whether the upstream was unavailable or answered with a server error
+     */
+    public void release(RoutePriority priority, long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos < 0) {
+            return;
+        }
+        boolean slow = priority.isLatencySensitive() && latencyNanos > latencyThresholdNanos;
+        synchronized (this) {
+            if (failed || slow) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (limit < initialLimit) {
+                limit = Math.min(initialLimit, limit / backoffRatio);
+            } else if (inFlightBefore * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
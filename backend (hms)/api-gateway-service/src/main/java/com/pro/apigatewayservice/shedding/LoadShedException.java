@@ -0,0 +1,30 @@
+package com.pro.apigatewayservice.shedding;
+
+/**
+ * Signals a request rejected by {@link LoadSheddingFilter}. Raised instead of writing the 503
+ * directly, so the response is produced outside the route's circuit breaker (by the
+ * {@code /fallback} handler) and the breaker, which ignores this exception, does not count the
+ * gateway's own back-pressure as an upstream failure. Carries no stack trace; under overload it
+ * is thrown once per rejected request.
+ */
+public class LoadShedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RoutePriority priority;
+    private final String retryAfterSeconds;
+
+    public LoadShedException(RoutePriority priority, String retryAfterSeconds) {
+        super(priority + " request shed", null, false, false);
+        this.priority = priority;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public RoutePriority getPriority() {
+        return priority;
+    }
+
+    public String getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,56 @@
+package com.pro.apigatewayservice.shedding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Adaptive load shedding for upstream calls; disable with {@code gateway.load-shedding.enabled=false}.
+ * Routes choose their class with {@code metadata.priority}; routes without it use
+ * {@code gateway.load-shedding.default-priority}. An unknown priority fails startup.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-shedding.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            @Value("${gateway.load-shedding.initial-limit:200}") int initialLimit,
+            @Value("${gateway.load-shedding.min-limit:20}") int minLimit,
+            @Value("${gateway.load-shedding.max-limit:1000}") int maxLimit,
+            @Value("${gateway.load-shedding.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${gateway.load-shedding.latency-threshold:2s}") Duration latencyThreshold) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold);
+    }
+
+    @Bean
+    public LoadSheddingFilter loadSheddingFilter(
+            AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter,
+            MeterRegistry meterRegistry,
+            GatewayProperties gatewayProperties,
+            @Value("${gateway.load-shedding.default-priority:NORMAL}") RoutePriority defaultPriority,
+            @Value("${gateway.load-shedding.retry-after:1s}") Duration retryAfter) {
+        validatePriorities(gatewayProperties);
+        return new LoadSheddingFilter(adaptiveConcurrencyLimiter, defaultPriority, retryAfter, meterRegistry);
+    }
+
+    private static void validatePriorities(GatewayProperties gatewayProperties) {
+        for (RouteDefinition route : gatewayProperties.getRoutes()) {
+            Object priority = route.getMetadata().get(RoutePriority.METADATA_KEY);
+            if (priority == null) {
+                continue;
+            }
+            try {
+                RoutePriority.parse(priority);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Route '" + route.getId() + "': " + e.getMessage(), e);
+            }
+        }
+    }
+}
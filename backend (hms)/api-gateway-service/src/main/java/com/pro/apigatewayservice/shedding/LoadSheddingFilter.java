@@ -0,0 +1,101 @@
+package com.pro.apigatewayservice.shedding;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects requests once their route's priority class has used up its share of the
+ * {@link AdaptiveConcurrencyLimiter}. Runs just before hedging and the load balancer, so
+ * responses served from the gateway cache or shared by coalescing never take a slot, and the
+ * latency sample covers only the upstream call up to its response headers.
+ * <p>
+ * A rejection fails the chain with {@link LoadShedException} rather than committing a response:
+ * this filter runs inside the route's {@code CircuitBreaker}, which is configured to ignore the
+ * exception and hands it to {@code /fallback}, where the 503 and {@code Retry-After} are written.
+ */
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 2;
+
+    /**
+     * Set on exchanges rejected here, so retry filters can tell a shed request from an upstream 503.
+     */
+    public static final String SHED_ATTR = LoadSheddingFilter.class.getName() + ".shed";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RoutePriority defaultPriority;
+    private final String retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The limiter and meter registry are shared application beans")
+    public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter, RoutePriority defaultPriority,
+                              Duration retryAfter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.defaultPriority = defaultPriority;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.load.shedding.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for upstream calls")
+                .register(meterRegistry);
+        Gauge.builder("gateway.load.shedding.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Upstream calls currently holding a concurrency slot")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        RoutePriority priority = RoutePriority.of(route, defaultPriority);
+        if (!limiter.tryAcquire(priority)) {
+            rejected(route != null ? route.getId() : "unknown", priority).increment();
+            exchange.getAttributes().put(SHED_ATTR, priority);
+            return Mono.error(new LoadShedException(priority, retryAfterSeconds));
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        limiter.release(priority, -1, false);
+                    } else {
+                        limiter.release(priority, System.nanoTime() - start, signal == SignalType.ON_ERROR
+                                || isServerError(exchange.getResponse().getStatusCode()));
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private static boolean isServerError(HttpStatusCode status) {
+        return status != null && status.is5xxServerError();
+    }
+
+    private Counter rejected(String routeId, RoutePriority priority) {
+        return rejections.computeIfAbsent(routeId + '|' + priority,
+                key -> Counter.builder("gateway.load.shedding.rejected")
+                        .description("Requests rejected because their priority class was over its share of the limit")
+                        .tag("route", routeId)
+                        .tag("priority", priority.name())
+                        .register(meterRegistry));
+    }
+}
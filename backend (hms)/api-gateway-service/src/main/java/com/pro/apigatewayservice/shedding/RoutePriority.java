@@ -0,0 +1,68 @@
+package com.pro.apigatewayservice.shedding;
+
+import org.springframework.cloud.gateway.route.Route;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Priority class of a route, set as route metadata ({@code metadata: priority: CRITICAL}). Each
+ * class may only use its share of the adaptive concurrency limit, so as the limit shrinks under
+ * overload bulk traffic is shed first and critical traffic keeps the headroom. Bulk routes (PDF
+ * rendering, exports) are slow by design, so their latency is not taken as a sign of overload.
+ */
+public enum RoutePriority {
+    CRITICAL(1.0, true),
+    NORMAL(0.8, true),
+    BULK(0.5, false);
+
+    public static final String METADATA_KEY = "priority";
+
+    private final double share;
+    private final boolean latencySensitive;
+
+    RoutePriority(double share, boolean latencySensitive) {
+        this.share = share;
+        this.latencySensitive = latencySensitive;
+    }
+
+    /**
+     * How many requests of this class may be in flight under the given overall limit.
+     */
+    int capacity(double limit) {
+        return Math.max(1, (int) Math.floor(limit * share));
+    }
+
+    /**
+     * Whether calls slower than the latency threshold shrink the concurrency limit.
+     */
+    boolean isLatencySensitive() {
+        return latencySensitive;
+    }
+
+    /**
+     * Priority of a request's route. Configured routes are checked by {@link #parse} at startup,
+     * so a value that still does not parse (a route added at runtime) falls back instead of failing
+     * every request.
+     */
+    static RoutePriority of(Route route, RoutePriority fallback) {
+        Object value = route != null ? route.getMetadata().get(METADATA_KEY) : null;
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return parse(value);
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    static RoutePriority parse(Object value) {
+        String name = value.toString().trim().toUpperCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(priority -> priority.name().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown route priority '" + value
+                        + "', expected one of " + Arrays.toString(values())));
+    }
+}
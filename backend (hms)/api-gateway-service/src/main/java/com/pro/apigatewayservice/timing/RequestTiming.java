@@ -0,0 +1,80 @@
+package com.pro.apigatewayservice.timing;
+
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+
+/**
+ * Checkpoints of one request on its way through the gateway, in {@link System#nanoTime()} units.
+ * A checkpoint that was never reached stays 0. Travels as an exchange attribute and in the Reactor
+ * context, where the upstream {@code HttpClient} hooks pick it up.
+ */
+public final class RequestTiming {
+
+    public static final String ATTRIBUTE = RequestTiming.class.getName();
+
+    private final long start;
+    private volatile long routed;
+    private volatile long requestStarted;
+    private volatile long responseStarted;
+    private volatile long responseCompleted;
+    private volatile String instance;
+
+    RequestTiming(long start) {
+        this.start = start;
+    }
+
+    static Optional<RequestTiming> from(ContextView context) {
+        return context.getOrEmpty(ATTRIBUTE);
+    }
+
+    long start() {
+        return start;
+    }
+
+    /** The routing filter is about to ask the connection pool for a connection. */
+    void routed(long now) {
+        routed = now;
+    }
+
+    /** A connection is held and the request is about to be written. */
+    void requestStarted(long now, String upstream) {
+        requestStarted = now;
+        instance = upstream;
+    }
+
+    /** Upstream response headers arrived. */
+    void responseStarted(long now) {
+        responseStarted = now;
+    }
+
+    /** The upstream response body has been read to the end. */
+    void responseCompleted(long now) {
+        responseCompleted = now;
+    }
+
+    String instance() {
+        return instance;
+    }
+
+    /** @return time to acquire an upstream connection, or -1 if unknown */
+    long connectNanos() {
+        long from = routed;
+        long to = requestStarted;
+        return from > 0 && to >= from ? to - from : -1;
+    }
+
+    /** @return time from writing the request to the upstream's first response byte, or -1 */
+    long firstByteNanos() {
+        long from = requestStarted;
+        long to = responseStarted;
+        return from > 0 && to >= from ? to - from : -1;
+    }
+
+    /** @return time to read the upstream response body, or -1 */
+    long bodyNanos() {
+        long from = responseStarted;
+        long to = responseCompleted;
+        return from > 0 && to >= from ? to - from : -1;
+    }
+}
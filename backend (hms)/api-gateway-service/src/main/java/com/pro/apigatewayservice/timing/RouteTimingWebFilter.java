@@ -0,0 +1,139 @@
+package com.pro.apigatewayservice.timing;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Times every routed request end to end and by phase: gateway overhead (security, filters and
+ * writing the response), upstream connection acquisition, upstream time to first byte and upstream
+ * body transfer. Both timers publish percentile histograms:
+ * <ul>
+ *     <li>{@code gateway.route.latency{route, method, status, instance}}</li>
+ *     <li>{@code gateway.route.phase{route, instance, phase}}</li>
+ * </ul>
+ * A {@code Server-Timing} header carries the phases known when the response headers are written,
+ * so browser devtools show them; body transfer happens after that and only reaches the metrics.
+ */
+public class RouteTimingWebFilter implements WebFilter, Ordered {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean serverTimingHeader;
+    private final LongSupplier clock;
+
+    @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "MeterRegistry is a shared application bean")
+    public RouteTimingWebFilter(MeterRegistry meterRegistry, boolean serverTimingHeader, LongSupplier clock) {
+        this.meterRegistry = meterRegistry;
+        this.serverTimingHeader = serverTimingHeader;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestTiming timing = new RequestTiming(clock.getAsLong());
+        exchange.getAttributes().put(RequestTiming.ATTRIBUTE, timing);
+        if (serverTimingHeader) {
+            exchange.getResponse().beforeCommit(() -> {
+                exchange.getResponse().getHeaders().add(SERVER_TIMING, serverTiming(timing, clock.getAsLong()));
+                return Mono.empty();
+            });
+        }
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestTiming.ATTRIBUTE, timing))
+                .doFinally(signal -> record(exchange, timing, signal));
+    }
+
+    @Override
+    public int getOrder() {
+        // Ahead of Spring Security, so token verification counts as gateway time
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    static String serverTiming(RequestTiming timing, long now) {
+        long connect = timing.connectNanos();
+        long firstByte = timing.firstByteNanos();
+        long gateway = now - timing.start() - Math.max(0, connect) - Math.max(0, firstByte);
+
+        StringJoiner header = new StringJoiner(", ");
+        header.add("gateway;dur=" + millis(gateway));
+        if (connect >= 0) {
+            header.add("connect;dur=" + millis(connect));
+        }
+        if (firstByte >= 0) {
+            header.add("upstream;dur=" + millis(firstByte));
+        }
+        return header.toString();
+    }
+
+    private void record(ServerWebExchange exchange, RequestTiming timing, SignalType signal) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return;
+        }
+        long total = clock.getAsLong() - timing.start();
+        String routeId = route.getId();
+        String instance = timing.instance() != null ? timing.instance() : "none";
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+
+        Timer.builder("gateway.route.latency")
+                .description("Routed requests from arrival to the last response byte")
+                .tag("route", routeId)
+                .tag("method", exchange.getRequest().getMethod().name())
+                .tag("status", status != null ? Integer.toString(status.value())
+                        : signal == SignalType.CANCEL ? "CANCELLED" : "UNKNOWN")
+                .tag("instance", instance)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry)
+                .record(total, TimeUnit.NANOSECONDS);
+
+        long connect = timing.connectNanos();
+        long firstByte = timing.firstByteNanos();
+        long body = timing.bodyNanos();
+        phase(routeId, instance, "connect", connect);
+        phase(routeId, instance, "first_byte", firstByte);
+        phase(routeId, instance, "body", body);
+        phase(routeId, instance, "gateway", total - Math.max(0, connect) - Math.max(0, firstByte) - Math.max(0, body));
+    }
+
+    private void phase(String routeId, String instance, String phase, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        Timer.builder("gateway.route.phase")
+                .description("Routed request time by phase")
+                .tag("route", routeId)
+                .tag("instance", instance)
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,51 @@
+package com.pro.apigatewayservice.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.Connection;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+
+/**
+ * Per-route latency histograms and the {@code Server-Timing} header. The upstream phases come from
+ * hooks on the gateway's {@code HttpClient}, which find their request's {@link RequestTiming} in
+ * the Reactor context, so they also cover calls made by the {@code Hedge} filter.
+ */
+@Configuration
+public class TimingConfig {
+
+    @Bean
+    public RouteTimingWebFilter routeTimingWebFilter(
+            MeterRegistry meterRegistry,
+            @Value("${gateway.timing.server-timing-header:true}") boolean serverTimingHeader) {
+        return new RouteTimingWebFilter(meterRegistry, serverTimingHeader, System::nanoTime);
+    }
+
+    @Bean
+    public UpstreamTimingFilter upstreamTimingFilter() {
+        return new UpstreamTimingFilter(System::nanoTime);
+    }
+
+    @Bean
+    public HttpClientCustomizer upstreamTimingHttpClientCustomizer() {
+        return httpClient -> httpClient
+                .doOnRequest((request, connection) -> RequestTiming.from(request.currentContextView())
+                        .ifPresent(timing -> timing.requestStarted(System.nanoTime(), upstream(connection))))
+                .doOnResponse((response, connection) -> RequestTiming.from(response.currentContextView())
+                        .ifPresent(timing -> timing.responseStarted(System.nanoTime())))
+                .doAfterResponseSuccess((response, connection) -> RequestTiming.from(response.currentContextView())
+                        .ifPresent(timing -> timing.responseCompleted(System.nanoTime())));
+    }
+
+    private static String upstream(Connection connection) {
+        SocketAddress address = connection.channel().remoteAddress();
+        if (address instanceof InetSocketAddress inet) {
+            return inet.getHostString() + ":" + inet.getPort();
+        }
+        return String.valueOf(address);
+    }
+}
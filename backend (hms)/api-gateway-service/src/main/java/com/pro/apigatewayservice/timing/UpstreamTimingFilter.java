@@ -0,0 +1,36 @@
+package com.pro.apigatewayservice.timing;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Marks the hand-over to the routing filter, where the wait for an upstream connection begins.
+ */
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final LongSupplier clock;
+
+    public UpstreamTimingFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestTiming timing = exchange.getAttribute(RequestTiming.ATTRIBUTE);
+        if (timing != null) {
+            timing.routed(clock.getAsLong());
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
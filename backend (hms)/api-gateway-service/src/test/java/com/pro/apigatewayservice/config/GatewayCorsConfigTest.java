@@ -45,6 +45,17 @@ class GatewayCorsConfigTest {
                 .expectHeader().valueEquals("Access-Control-Allow-Credentials", "true");
     }
 
+    @Test
+    void whenPatchPreflightFromAllowedOrigin_thenPatchIsAllowed() {
+        client.options().uri("/patients/1")
+                .header("Origin", "https://localhost:3000")
+                .header("Access-Control-Request-Method", "PATCH")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("Access-Control-Allow-Methods", methods -> org.assertj.core.api.Assertions
+                        .assertThat(methods).contains("PATCH"));
+    }
+
     @Test
     void whenOptionsFromNotAllowedOrigin_thenForbidden() {
         client.options().uri("/any-path")
@@ -0,0 +1,103 @@
+package com.pro.apigatewayservice.dashboard;
+
+import com.pro.apigatewayservice.dto.ApiError;
+import com.pro.apigatewayservice.dto.PatientDashboard;
+import com.pro.apigatewayservice.dto.PatientDashboard.UnavailableSection;
+import com.pro.apigatewayservice.ratelimit.RateLimiterConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatientDashboardServiceTest {
+
+    private final Map<String, String> authorizations = new ConcurrentHashMap<>();
+    private final Map<String, String> forwardedFor = new ConcurrentHashMap<>();
+    private DisposableServer upstream;
+    private PatientDashboardService service;
+
+    @BeforeEach
+    void setUp() {
+        upstream = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/patients/user/{id}", (request, response) -> {
+                            authorizations.put("patient", request.requestHeaders().get(HttpHeaders.AUTHORIZATION));
+                            forwardedFor.put("patient", request.requestHeaders().get("X-Forwarded-For"));
+                            return json(response, "{\"userId\":" + request.param("id") + "}", Duration.ZERO);
+                        })
+                        .get("/appointments/patient/{id}", (request, response) ->
+                                json(response, "[{\"patientId\":" + request.param("id") + "}]", Duration.ZERO))
+                        .get("/invoices/stats/user/{id}", (request, response) ->
+                                response.status(404).sendString(Mono.just("{\"code\":\"NOT_FOUND\"}")))
+                        .get("/invoices/user/{id}", (request, response) -> json(response, "[]", Duration.ZERO))
+                        // Pharmacy is stuck well past the section deadline
+                        .get("/pharmacy/prescriptions/patient/{id}", (request, response) ->
+                                json(response, "[]", Duration.ofSeconds(5))))
+                .bindNow();
+        service = new PatientDashboardService(WebClient.builder(), Duration.ofSeconds(1), new SimpleMeterRegistry(),
+                "http://127.0.0.1:" + upstream.port());
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.disposeNow();
+    }
+
+    @Test
+    void slowAndFailingSectionsDegradeToPartialData() {
+        long start = System.nanoTime();
+
+        PatientDashboard dashboard = service.dashboard(8L, 1L, "Bearer token", "203.0.113.7").block(Duration.ofSeconds(5));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(dashboard.patient().get("userId").asLong()).isEqualTo(8);
+        assertThat(dashboard.appointments().get(0).get("patientId").asLong()).isEqualTo(1);
+        assertThat(dashboard.invoices().isArray()).isTrue();
+        assertThat(dashboard.billingStats()).isNull();
+        assertThat(dashboard.prescriptions()).isNull();
+        assertThat(dashboard.partial()).isTrue();
+        assertThat(dashboard.unavailable()).containsExactly(
+                new UnavailableSection(PatientDashboardService.BILLING_STATS, 404, "NOT_FOUND"),
+                new UnavailableSection(PatientDashboardService.PRESCRIPTIONS, 504, "UPSTREAM_TIMEOUT"));
+        assertThat(authorizations).containsEntry("patient", "Bearer token");
+        assertThat(forwardedFor).containsEntry("patient", "203.0.113.7");
+    }
+
+    @Test
+    void theDashboardIsUnavailableOnlyWhenEverySectionFailed() {
+        PatientDashboardService down = new PatientDashboardService(WebClient.builder(), Duration.ofMillis(300),
+                new SimpleMeterRegistry(), "http://127.0.0.1:1");
+
+        ResponseEntity<Object> response = new PatientDashboardController(down, new RateLimiterConfig().principalKeyResolver(1))
+                .getPatientDashboard(8L, null, "Bearer token",
+                        MockServerWebExchange.from(MockServerHttpRequest.get("/dashboard/patients/8").build()))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).isEqualTo(
+                new ApiError("DASHBOARD_UNAVAILABLE", "Patient dashboard for user 8 is unavailable"));
+    }
+
+    private static Publisher<Void> json(HttpServerResponse response, String body, Duration delay) {
+        return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .sendString(Mono.just(body).delayElement(delay));
+    }
+}
@@ -0,0 +1,119 @@
+package com.pro.apigatewayservice.filter;
+
+import com.pro.apigatewayservice.resilience.LoadBudget;
+import com.pro.apigatewayservice.shedding.LoadSheddingFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BudgetedRetryGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private SimpleMeterRegistry registry;
+    private LoadBudget budget;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        budget = new LoadBudget(0.1, 0, 2, () -> 0L);
+        filter = new BudgetedRetryGatewayFilterFactory(budget, registry)
+                .apply(new BudgetedRetryGatewayFilterFactory.Config().setBackoff(Duration.ofMillis(1)));
+    }
+
+    @Test
+    void retriesAGatewayErrorUntilTheUpstreamRecovers() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/reports/1").build());
+
+        filter.filter(exchange, failing(2, HttpStatus.SERVICE_UNAVAILABLE)).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls.get()).isEqualTo(3);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(registry.get("gateway.retry.attempts").tag("outcome", "retried").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void connectionFailuresAreRetriedAndTheLastErrorIsPropagated() {
+        GatewayFilterChain refused = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.error(new ConnectException("Connection refused"));
+        };
+
+        assertThatThrownBy(() -> filter.filter(get(), refused).block(Duration.ofSeconds(5)))
+                .hasCauseInstanceOf(ConnectException.class);
+        assertThat(upstreamCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void anEmptyBudgetStopsRetries() {
+        filter.filter(get(), failing(10, HttpStatus.BAD_GATEWAY)).block(Duration.ofSeconds(5));
+        upstreamCalls.set(0);
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, failing(10, HttpStatus.BAD_GATEWAY)).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(registry.get("gateway.retry.attempts").tag("outcome", "budget_exhausted").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void nonIdempotentAndShedRequestsAreNotRetried() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/invoices").build()),
+                failing(1, HttpStatus.SERVICE_UNAVAILABLE)).block();
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+
+        MockServerWebExchange shed = get();
+        filter.filter(shed, exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getAttributes().put(LoadSheddingFilter.SHED_ATTR, true);
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return Mono.empty();
+        }).block();
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void budgetRefillsFromTrafficAndTheMinimumRate() {
+        long[] clock = {0};
+        LoadBudget empty = new LoadBudget(0.5, 1, 10, () -> clock[0]);
+        for (int i = 0; i < 10; i++) {
+            empty.tryWithdraw();
+        }
+        assertThat(empty.tryWithdraw()).isFalse();
+
+        empty.deposit();
+        empty.deposit();
+        assertThat(empty.tryWithdraw()).isTrue();
+        assertThat(empty.tryWithdraw()).isFalse();
+
+        clock[0] += Duration.ofSeconds(3).toNanos();
+        assertThat(empty.balance()).isEqualTo(3.0);
+    }
+
+    private GatewayFilterChain failing(int failures, HttpStatus status) {
+        return exchange -> {
+            int call = upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(call <= failures ? status : HttpStatus.OK);
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/reports/1").build());
+    }
+}
@@ -0,0 +1,197 @@
+package com.pro.apigatewayservice.filter;
+
+import com.pro.apigatewayservice.loadbalancer.InstanceStatsRegistry;
+import com.pro.apigatewayservice.resilience.LoadBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgeGatewayFilterFactoryTest {
+
+    private final AtomicInteger chosen = new AtomicInteger();
+    private DisposableServer slow;
+    private DisposableServer fast;
+    private List<DisposableServer> instances;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        slow = upstream("slow", Duration.ofSeconds(1));
+        fast = upstream("fast", Duration.ZERO);
+        instances = List.of(slow, fast);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slow.disposeNow();
+        fast.disposeNow();
+    }
+
+    @Test
+    void aSecondInstanceAnswersWhenTheFirstIsSlow() {
+        MockServerWebExchange exchange = exchange("/patients/1");
+        long start = System.nanoTime();
+
+        proxy(filter(new LoadBudget(0.05, 1, 20, System::nanoTime)), exchange).block(Duration.ofSeconds(5));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(800));
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HedgeGatewayFilterFactory.HEDGED_HEADER)).isEqualTo("true");
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("fast");
+        assertThat(registry.get("gateway.hedge.win.ratio").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void withoutBudgetTheRequestWaitsForTheFirstInstance() {
+        MockServerWebExchange exchange = exchange("/patients/1");
+
+        proxy(filter(spentBudget()), exchange).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("slow");
+        assertThat(exchange.getResponse().getHeaders().containsKey(HedgeGatewayFilterFactory.HEDGED_HEADER)).isFalse();
+        assertThat(registry.get("gateway.hedge.budget.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void pathsOutsideTheConfiguredPatternsAreProxiedNormally() {
+        MockServerWebExchange exchange = exchange("/patients/1/history");
+        AtomicInteger routed = new AtomicInteger();
+
+        filter(new LoadBudget(0.05, 1, 20, System::nanoTime))
+                .filter(exchange, e -> Mono.fromRunnable(routed::incrementAndGet))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(routed.get()).isEqualTo(1);
+        assertThat(chosen.get()).isZero();
+    }
+
+    @Test
+    void routesWithoutTheirOwnTimeoutUseTheGatewayWideOne() {
+        MockServerWebExchange exchange = exchange("/patients/1");
+
+        // Without the fallback the slow instance answers after a second
+        assertThatThrownBy(() -> proxy(filter(spentBudget(), Duration.ofMillis(200)), exchange).block(Duration.ofSeconds(5)))
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void serverErrorsAreLeftUncommittedForTheCircuitBreakerAndRetry() {
+        DisposableServer failing = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/patients/{id}", (request, response) ->
+                        response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).sendString(Mono.just("down"))))
+                .bindNow();
+        instances = List.of(failing);
+        MockServerWebExchange exchange = exchange("/patients/1");
+        try {
+            filter(spentBudget()).filter(exchange, unrouted()).block(Duration.ofSeconds(5));
+
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(exchange.getResponse().isCommitted()).isFalse();
+
+            new HedgedResponseWriteFilter().filter(exchange, e -> Mono.empty()).block(Duration.ofSeconds(5));
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("down");
+        } finally {
+            failing.disposeNow();
+        }
+    }
+
+    private static Mono<Void> proxy(GatewayFilter filter, MockServerWebExchange exchange) {
+        return new HedgedResponseWriteFilter().filter(exchange, e -> filter.filter(e, unrouted()));
+    }
+
+    private static LoadBudget spentBudget() {
+        LoadBudget spent = new LoadBudget(0, 0, 1, () -> 0L);
+        spent.tryWithdraw();
+        return spent;
+    }
+
+    private GatewayFilter filter(LoadBudget budget) {
+        return filter(budget, null);
+    }
+
+    private GatewayFilter filter(LoadBudget budget, Duration defaultResponseTimeout) {
+        InstanceStatsRegistry stats = new InstanceStatsRegistry(Duration.ofSeconds(5), 5, Duration.ofSeconds(30),
+                Duration.ofMinutes(10), System::nanoTime);
+        HedgeGatewayFilterFactory factory = new HedgeGatewayFilterFactory(new RoundRobin(), stats, budget, List::of,
+                HttpClient.create(), defaultResponseTimeout, registry);
+        return factory.apply(new HedgeGatewayFilterFactory.Config()
+                .setPaths(List.of("/patients/{patientId}"))
+                .setMaxDelay(Duration.ofMillis(50)));
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path).build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR,
+                URI.create("lb://patient-management-service" + path));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("patient-management-service")
+                .uri("lb://patient-management-service")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    private static GatewayFilterChain unrouted() {
+        return exchange -> Mono.error(new AssertionError("Hedged requests are proxied by the filter"));
+    }
+
+    private static DisposableServer upstream(String body, Duration delay) {
+        return HttpServer.create()
+                .port(0)
+                .route(routes -> routes.get("/patients/{id}", (request, response) ->
+                        response.sendString(Mono.just(body).delayElement(delay))))
+                .bindNow();
+    }
+
+    /** Hands out the instances in turn: by default the slow one first, then the fast one. */
+    private final class RoundRobin implements ReactiveLoadBalancer.Factory<ServiceInstance> {
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            return request -> Mono.fromSupplier(() -> {
+                DisposableServer server = instances.get(chosen.getAndIncrement() % instances.size());
+                return new DefaultResponse(new DefaultServiceInstance(serviceId + "-" + server.port(), serviceId,
+                        server.host(), server.port(), false));
+            });
+        }
+
+        @Override
+        public <X> Map<String, X> getInstances(String name, Class<X> type) {
+            return Map.of();
+        }
+
+        @Override
+        public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+            return null;
+        }
+    }
+}
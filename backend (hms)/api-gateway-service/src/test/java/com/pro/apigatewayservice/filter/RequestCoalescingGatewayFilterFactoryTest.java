@@ -0,0 +1,137 @@
+package com.pro.apigatewayservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private SimpleMeterRegistry registry;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new RequestCoalescingGatewayFilterFactory(registry)
+                .apply(new RequestCoalescingGatewayFilterFactory.Config());
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 20)
+                .mapToObj(i -> MockServerWebExchange.from(get("/appointments/doctor/7", "Bearer a")))
+                .toList();
+
+        Flux.fromIterable(exchanges)
+                .flatMap(exchange -> filter.filter(exchange, slowUpstream("[1,2,3]")))
+                .blockLast(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(exchanges).allSatisfy(exchange -> {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("[1,2,3]");
+        });
+        assertThat(registry.get("gateway.coalescing.ratio").gauge().value()).isEqualTo(19.0 / 20.0);
+    }
+
+    @Test
+    void differentScopesAreNotCoalesced() {
+        Flux.just(get("/doctors", "Bearer a"), get("/doctors", "Bearer b"))
+                .flatMap(request -> filter.filter(MockServerWebExchange.from(request), slowUpstream("[]")))
+                .blockLast(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void followersMakeTheirOwnCallWhenTheLeaderFails() {
+        AtomicInteger attempt = new AtomicInteger();
+        GatewayFilterChain flaky = exchange -> {
+            upstreamCalls.incrementAndGet();
+            if (attempt.getAndIncrement() == 0) {
+                return Mono.delay(Duration.ofMillis(100)).then(Mono.error(new IllegalStateException("connection reset")));
+            }
+            return write(exchange, "ok");
+        };
+        MockServerWebExchange leader = MockServerWebExchange.from(get("/doctors", "Bearer a"));
+        MockServerWebExchange follower = MockServerWebExchange.from(get("/doctors", "Bearer a"));
+
+        Mono<Void> leading = filter.filter(leader, flaky).onErrorResume(e -> Mono.empty());
+        Mono<Void> following = Mono.delay(Duration.ofMillis(20)).then(filter.filter(follower, flaky));
+        Flux.merge(leading, following).blockLast(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("ok");
+    }
+
+    @Test
+    void followersKeepTheCorsHeadersOfTheirOwnOrigin() {
+        MockServerWebExchange leader = fromOrigin("https://a.example");
+        MockServerWebExchange follower = fromOrigin("https://b.example");
+
+        Mono<Void> following = Mono.delay(Duration.ofMillis(20)).then(filter.filter(follower, slowUpstream("[]")));
+        Flux.merge(filter.filter(leader, slowUpstream("[]")), following).blockLast(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(follower.getResponse().getHeaders().getFirst(RequestCoalescingGatewayFilterFactory.COALESCED_HEADER))
+                .isEqualTo("true");
+        assertThat(leader.getResponse().getHeaders().getAccessControlAllowOrigin()).isEqualTo("https://a.example");
+        assertThat(follower.getResponse().getHeaders().getAccessControlAllowOrigin()).isEqualTo("https://b.example");
+        assertThat(follower.getResponse().getHeaders().get(HttpHeaders.VARY)).containsExactly(HttpHeaders.ORIGIN);
+    }
+
+    @Test
+    void sequentialRequestsAreNotCoalesced() {
+        filter.filter(MockServerWebExchange.from(get("/doctors", "Bearer a")), slowUpstream("[]")).block();
+        filter.filter(MockServerWebExchange.from(get("/doctors", "Bearer a")), slowUpstream("[]")).block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    private GatewayFilterChain slowUpstream(String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).then(write(exchange, body));
+        };
+    }
+
+    private static Mono<Void> write(org.springframework.web.server.ServerWebExchange exchange, String body) {
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /** Mimics the CORS filter, which answers each caller's Origin before the route runs. */
+    private static MockServerWebExchange fromOrigin(String origin) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/doctors")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer a")
+                .header(HttpHeaders.ORIGIN, origin)
+                .build());
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.setAccessControlAllowOrigin(origin);
+        headers.setAccessControlAllowCredentials(true);
+        headers.setVary(List.of(HttpHeaders.ORIGIN));
+        return exchange;
+    }
+
+    private static MockServerHttpRequest get(String path, String authorization) {
+        return MockServerHttpRequest.get(path).header(HttpHeaders.AUTHORIZATION, authorization).build();
+    }
+}
@@ -0,0 +1,169 @@
+package com.pro.apigatewayservice.filter;
+
+import com.pro.apigatewayservice.cache.CaffeineResponseCacheStore;
+import com.pro.apigatewayservice.filter.RouteResponseCacheGatewayFilterFactory.Config;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        Config config = new Config();
+        config.setTimeToLive(Duration.ofMinutes(1));
+        config.setVaryBy(PrincipalScope.USER);
+        filter = new RouteResponseCacheGatewayFilterFactory(new CaffeineResponseCacheStore(DataSize.ofMegabytes(1)))
+                .apply(config);
+    }
+
+    @Test
+    void repeatedGetIsServedFromCache() {
+        MockServerHttpResponse first = run(get("/doctors/5", "Bearer a"));
+        MockServerHttpResponse second = run(get("/doctors/5", "Bearer a"));
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(first.getHeaders().getFirst(RouteResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("MISS");
+        assertThat(second.getHeaders().getFirst(RouteResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("HIT");
+        assertThat(second.getBodyAsString().block()).isEqualTo("{\"id\":5}");
+        assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag()).isNotBlank();
+    }
+
+    @Test
+    void differentUsersDoNotShareEntries() {
+        run(get("/doctors/5", "Bearer a"));
+        run(get("/doctors/5", "Bearer b"));
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithNotModified() {
+        String etag = run(get("/doctors/5", "Bearer a")).getHeaders().getETag();
+
+        MockServerHttpResponse revalidated = run(MockServerHttpRequest.get("/doctors/5")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer a")
+                .ifNoneMatch(etag)
+                .build());
+
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.getBodyAsString().block()).isEmpty();
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void mutationUnderTheSamePrefixInvalidatesEntries() {
+        run(get("/doctors", "Bearer a"));
+        run(get("/doctors/5", "Bearer a"));
+
+        run(MockServerHttpRequest.put("/doctors/5").header(HttpHeaders.AUTHORIZATION, "Bearer a").build());
+        run(get("/doctors", "Bearer a"));
+        run(get("/doctors/5", "Bearer a"));
+
+        assertThat(upstreamCalls.get()).isEqualTo(5);
+    }
+
+    @Test
+    void getInFlightDuringAMutationIsNotStored() {
+        Sinks.Empty<Void> readDone = Sinks.empty();
+        MockServerWebExchange inFlight = MockServerWebExchange.from(get("/doctors/5", "Bearer a"));
+        GatewayFilterChain upstream = upstream();
+        // The read reaches the upstream before the write, but its response arrives after it
+        filter.filter(inFlight, exchange -> readDone.asMono().then(upstream.filter(exchange))).subscribe();
+
+        run(MockServerHttpRequest.put("/doctors/5").header(HttpHeaders.AUTHORIZATION, "Bearer a").build());
+        readDone.tryEmitEmpty();
+        MockServerHttpResponse next = run(get("/doctors/5", "Bearer a"));
+
+        assertThat(inFlight.getResponse().getHeaders().getFirst(RouteResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("MISS");
+        assertThat(next.getHeaders().getFirst(RouteResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("MISS");
+        assertThat(upstreamCalls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void errorResponsesAreNotCached() {
+        GatewayFilterChain failing = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return exchange.getResponse().setComplete();
+        };
+        filter.filter(MockServerWebExchange.from(get("/doctors/5", "Bearer a")), failing).block();
+        filter.filter(MockServerWebExchange.from(get("/doctors/5", "Bearer a")), failing).block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void cachedResponseCarriesTheCorsHeadersOfItsOwnCaller() {
+        MockServerHttpResponse first = runFrom("https://a.example");
+        MockServerHttpResponse second = runFrom("https://b.example");
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(second.getHeaders().getFirst(RouteResponseCacheGatewayFilterFactory.CACHE_HEADER)).isEqualTo("HIT");
+        assertThat(first.getHeaders().getAccessControlAllowOrigin()).isEqualTo("https://a.example");
+        assertThat(second.getHeaders().getAccessControlAllowOrigin()).isEqualTo("https://b.example");
+        assertThat(second.getHeaders().get(HttpHeaders.VARY)).containsExactly(HttpHeaders.ORIGIN);
+    }
+
+    @Test
+    void prefixKeepsTheConfiguredNumberOfSegments() {
+        assertThat(RouteResponseCacheGatewayFilterFactory.prefix("/doctors/5/schedule", 1)).isEqualTo("/doctors");
+        assertThat(RouteResponseCacheGatewayFilterFactory.prefix("/doctors/5/schedule", 2)).isEqualTo("/doctors/5");
+        assertThat(RouteResponseCacheGatewayFilterFactory.prefix("/doctors", 2)).isEqualTo("/doctors");
+    }
+
+    private MockServerHttpResponse run(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, upstream()).block();
+        return exchange.getResponse();
+    }
+
+    /** Mimics the CORS filter, which answers each caller's Origin before the route runs. */
+    private MockServerHttpResponse runFrom(String origin) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/doctors/5")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer a")
+                .header(HttpHeaders.ORIGIN, origin)
+                .build());
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.setAccessControlAllowOrigin(origin);
+        headers.setAccessControlAllowCredentials(true);
+        headers.setVary(List.of(HttpHeaders.ORIGIN));
+        filter.filter(exchange, upstream()).block();
+        return exchange.getResponse();
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            var response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] body = "{\"id\":5}".getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+
+    private static MockServerHttpRequest get(String path, String authorization) {
+        return MockServerHttpRequest.get(path).header(HttpHeaders.AUTHORIZATION, authorization).build();
+    }
+}
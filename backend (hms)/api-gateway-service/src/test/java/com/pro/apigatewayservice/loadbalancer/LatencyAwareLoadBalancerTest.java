@@ -0,0 +1,131 @@
+package com.pro.apigatewayservice.loadbalancer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Discrete-event simulation on a virtual clock: requests arrive at a fixed rate and each instance
+ * answers after a latency drawn from its own distribution.
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long[] clock = {0};
+    private InstanceStatsRegistry registry;
+    private LatencyAwareLoadBalancer balancer;
+    private List<ServiceInstance> instances;
+
+    @BeforeEach
+    void setUp() {
+        registry = new InstanceStatsRegistry(Duration.ofSeconds(5), 3, Duration.ofSeconds(30), Duration.ofMinutes(10),
+                () -> clock[0]);
+        Random random = new Random(42);
+        balancer = new LatencyAwareLoadBalancer(null, "patient-management-service", registry, () -> random);
+        instances = IntStream.range(0, 5)
+                .<ServiceInstance>mapToObj(i -> new DefaultServiceInstance("patient-" + i, "patient-management-service",
+                        "10.0.0." + i, 8080, false))
+                .toList();
+    }
+
+    @Test
+    void slowReplicaNoLongerDominatesTheTail() {
+        // Instance 0 is stuck in GC pauses or rendering PDFs; the others answer in 15-25 ms
+        Random latencies = new Random(7);
+        Function<ServiceInstance, Long> latency = instance -> instance == instances.get(0)
+                ? (400 + latencies.nextInt(100)) * MILLIS
+                : (15 + latencies.nextInt(10)) * MILLIS;
+
+        int[] next = {0};
+        long[] roundRobin = simulate(list -> list.get(next[0]++ % list.size()), latency);
+        clock[0] = 0;
+        setUp();
+        long[] latencyAware = simulate(list -> balancer.choose(list).getServer(), latency);
+
+        assertThat(percentile(roundRobin, 0.99)).isGreaterThanOrEqualTo(400 * MILLIS);
+        assertThat(percentile(latencyAware, 0.99)).isLessThan(50 * MILLIS);
+        assertThat(percentile(latencyAware, 0.999)).isLessThan(percentile(roundRobin, 0.999));
+    }
+
+    @Test
+    void failingInstanceIsEjectedThenReadmitted() {
+        ServiceInstance failing = instances.get(0);
+        for (int i = 0; i < 3; i++) {
+            InstanceStats stats = registry.stats(failing);
+            stats.start();
+            stats.complete(5 * MILLIS, true);
+        }
+
+        List<ServiceInstance> chosen = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            chosen.add(balancer.choose(instances).getServer());
+        }
+        assertThat(chosen).doesNotContain(failing);
+
+        clock[0] += TimeUnit.SECONDS.toNanos(31);
+        assertThat(registry.stats(failing).isEjected()).isFalse();
+
+        InstanceStats stats = registry.stats(failing);
+        stats.start();
+        stats.complete(5 * MILLIS, true);
+        assertThat(stats.isEjected()).isTrue();
+    }
+
+    @Test
+    void allEjectedFallsBackToEveryInstance() {
+        List<ServiceInstance> pair = List.of(instances.get(0), instances.get(1));
+        pair.forEach(instance -> {
+            for (int i = 0; i < 3; i++) {
+                registry.stats(instance).start();
+                registry.stats(instance).complete(MILLIS, true);
+            }
+        });
+
+        assertThat(balancer.choose(pair).hasServer()).isTrue();
+        assertThat(balancer.choose(List.of()).hasServer()).isFalse();
+    }
+
+    private long[] simulate(Function<List<ServiceInstance>, ServiceInstance> chooser,
+                            Function<ServiceInstance, Long> latency) {
+        record Completion(long at, InstanceStats stats, long latency) {
+        }
+        PriorityQueue<Completion> pending = new PriorityQueue<>((a, b) -> Long.compare(a.at(), b.at()));
+        int requests = 10_000;
+        long[] observed = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long now = i * 2 * MILLIS;
+            while (!pending.isEmpty() && pending.peek().at() <= now) {
+                Completion done = pending.poll();
+                clock[0] = done.at();
+                done.stats().complete(done.latency(), false);
+            }
+            clock[0] = now;
+            ServiceInstance instance = chooser.apply(instances);
+            InstanceStats stats = registry.stats(instance);
+            stats.start();
+            observed[i] = latency.apply(instance);
+            pending.add(new Completion(now + observed[i], stats, observed[i]));
+        }
+        return observed;
+    }
+
+    private static long percentile(long[] values, double p) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(p * sorted.length) - 1];
+    }
+}
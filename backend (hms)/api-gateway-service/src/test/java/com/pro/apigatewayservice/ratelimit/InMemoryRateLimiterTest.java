@@ -0,0 +1,91 @@
+package com.pro.apigatewayservice.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimiterTest {
+
+    private SimpleMeterRegistry registry;
+    private InMemoryRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        InMemoryRateLimiter.Config defaults = new InMemoryRateLimiter.Config()
+                .setReplenishRate(1)
+                .setBurstCapacity(3);
+        limiter = new InMemoryRateLimiter(null, defaults, 1_000, Duration.ofMinutes(10), registry);
+    }
+
+    @Test
+    void allowsTheBurstThenDeniesWithRetryAfter() {
+        IntStream.range(0, 3).forEach(i -> assertThat(check("user:7").isAllowed()).isTrue());
+
+        RateLimiter.Response denied = check("user:7");
+
+        assertThat(denied.isAllowed()).isFalse();
+        assertThat(denied.getHeaders())
+                .containsEntry(InMemoryRateLimiter.LIMIT_HEADER, "3")
+                .containsEntry(InMemoryRateLimiter.REMAINING_HEADER, "0")
+                .containsEntry(InMemoryRateLimiter.RETRY_AFTER_HEADER, "1");
+        assertThat(registry.get("gateway.rate.limiter.requests").tag("outcome", "denied").counter().count()).isEqualTo(1);
+        assertThat(registry.get("gateway.rate.limiter.requests").tag("outcome", "allowed").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void keysAndRoutesHaveSeparateBuckets() {
+        IntStream.range(0, 3).forEach(i -> check("user:7"));
+
+        assertThat(check("user:8").isAllowed()).isTrue();
+        assertThat(limiter.isAllowed("other-route", "user:7").block().isAllowed()).isTrue();
+        assertThat(registry.get("gateway.rate.limiter.buckets").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void routeConfigOverridesTheDefault() {
+        limiter.getConfig().put("login", new InMemoryRateLimiter.Config().setReplenishRate(1).setBurstCapacity(1));
+
+        assertThat(limiter.isAllowed("login", "ip:10.0.0.1").block().isAllowed()).isTrue();
+        assertThat(limiter.isAllowed("login", "ip:10.0.0.1").block().isAllowed()).isFalse();
+    }
+
+    @Test
+    void bucketRefillsAtTheReplenishRateUpToCapacity() {
+        long start = 0;
+        TokenBucket bucket = new TokenBucket(2, start);
+        assertThat(bucket.tryConsume(1, 2, 2, start).allowed()).isTrue();
+        assertThat(bucket.tryConsume(1, 2, 2, start).allowed()).isTrue();
+        assertThat(bucket.tryConsume(1, 2, 2, start).allowed()).isFalse();
+
+        long halfSecond = TimeUnit.MILLISECONDS.toNanos(500);
+        assertThat(bucket.tryConsume(1, 2, 2, halfSecond).allowed()).isTrue();
+
+        TokenBucket.Result afterIdle = bucket.tryConsume(1, 2, 2, TimeUnit.MINUTES.toNanos(1));
+        assertThat(afterIdle.allowed()).isTrue();
+        assertThat(afterIdle.tokensLeft()).isEqualTo(1.0);
+    }
+
+    @Test
+    void bucketClockNeverMovesBackwards() {
+        TokenBucket bucket = new TokenBucket(2, 0);
+        long tenSeconds = TimeUnit.SECONDS.toNanos(10);
+        assertThat(bucket.tryConsume(1, 2, 2, tenSeconds).allowed()).isTrue();
+        // a thread that read the clock earlier finishes after the one above
+        assertThat(bucket.tryConsume(1, 2, 2, TimeUnit.SECONDS.toNanos(5)).allowed()).isTrue();
+
+        // only a quarter second has passed since the latest refill: half a token, not a full bucket
+        assertThat(bucket.tryConsume(1, 2, 2, tenSeconds + TimeUnit.MILLISECONDS.toNanos(250)).allowed()).isFalse();
+    }
+
+    private RateLimiter.Response check(String key) {
+        return limiter.isAllowed("patients", key).block();
+    }
+}
@@ -0,0 +1,59 @@
+package com.pro.apigatewayservice.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalKeyResolverTest {
+
+    private static final InetSocketAddress NGINX = new InetSocketAddress("172.18.0.5", 41000);
+
+    private final PrincipalKeyResolver resolver = new RateLimiterConfig().principalKeyResolver(1);
+
+    @Test
+    void anonymousClientsBehindOneProxy_getTheirOwnKeys() {
+        String first = resolve(MockServerHttpRequest.get("/auth/login")
+                .remoteAddress(NGINX)
+                .header("X-Forwarded-For", "203.0.113.7"));
+        String second = resolve(MockServerHttpRequest.get("/auth/login")
+                .remoteAddress(NGINX)
+                .header("X-Forwarded-For", "198.51.100.23"));
+
+        assertThat(first).isEqualTo("ip:203.0.113.7");
+        assertThat(second).isEqualTo("ip:198.51.100.23");
+    }
+
+    @Test
+    void forwardedForBeyondTheTrustedProxy_isNotBelieved() {
+        // a client-supplied entry ahead of the one nginx appended is ignored
+        String key = resolve(MockServerHttpRequest.get("/auth/login")
+                .remoteAddress(NGINX)
+                .header("X-Forwarded-For", "10.9.9.9, 203.0.113.7"));
+
+        assertThat(key).isEqualTo("ip:203.0.113.7");
+    }
+
+    @Test
+    void unverifiedCredentials_doNotBuyAFreshBucket() {
+        // login is public, so junk tokens reach it unverified; each attempt must still share the client's bucket
+        String first = resolve(MockServerHttpRequest.post("/auth/login")
+                .remoteAddress(NGINX)
+                .header("X-Forwarded-For", "203.0.113.7")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer junk-1"));
+        String second = resolve(MockServerHttpRequest.post("/auth/login")
+                .remoteAddress(NGINX)
+                .header("X-Forwarded-For", "203.0.113.7")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer junk-2"));
+
+        assertThat(first).isEqualTo("ip:203.0.113.7").isEqualTo(second);
+    }
+
+    private String resolve(MockServerHttpRequest.BaseBuilder<?> request) {
+        return resolver.resolve(MockServerWebExchange.from(request)).block();
+    }
+}
@@ -0,0 +1,64 @@
+package com.pro.apigatewayservice.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.cloud.config.enabled=false",
+                "eureka.client.enabled=false",
+                "spring.cloud.circuitbreaker.resilience4j.disable-time-limiter=true",
+                "spring.cloud.gateway.routes[0].id=dead-service",
+                "spring.cloud.gateway.routes[0].uri=http://localhost:1",
+                "spring.cloud.gateway.routes[0].predicates[0]=Path=/dead/**",
+                "spring.cloud.gateway.default-filters[0].name=CircuitBreaker",
+                "spring.cloud.gateway.default-filters[0].args.fallbackUri=forward:/fallback",
+                "spring.cloud.gateway.default-filters[0].args.statusCodes=502,503,504",
+                "spring.cloud.gateway.default-filters[1].name=BudgetedRetry",
+                "spring.cloud.gateway.default-filters[1].args.backoff=1ms",
+                "resilience4j.circuitbreaker.instances.dead-service.sliding-window-size=2",
+                "resilience4j.circuitbreaker.instances.dead-service.minimum-number-of-calls=2",
+                "resilience4j.circuitbreaker.instances.dead-service.wait-duration-in-open-state=1m",
+                "management.endpoints.web.exposure.include=circuitbreakers"
+        }
+)
+@AutoConfigureWebTestClient
+class CircuitBreakerFallbackTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Test
+    void deadBackendGetsAFallbackThenTheBreakerOpens() {
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri("/dead/reports/1")
+                    .exchange()
+                    .expectStatus().isEqualTo(503)
+                    .expectHeader().exists(HttpHeaders.RETRY_AFTER)
+                    .expectBody().jsonPath("$.code").isEqualTo("UPSTREAM_UNAVAILABLE");
+        }
+
+        assertThat(circuitBreakerRegistry.circuitBreaker("dead-service").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        webTestClient.get().uri("/dead/reports/1")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody().jsonPath("$.code").isEqualTo("CIRCUIT_OPEN");
+
+        webTestClient.get().uri("/actuator/circuitbreakers")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.circuitBreakers.dead-service.state").isEqualTo("OPEN");
+    }
+}
@@ -0,0 +1,73 @@
+package com.pro.apigatewayservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingReactiveJwtDecoderTest {
+
+    @Test
+    void verifiedTokenIsDecodedOnlyOnce() {
+        AtomicInteger decodes = new AtomicInteger();
+        ReactiveJwtDecoder delegate = token -> {
+            decodes.incrementAndGet();
+            return Mono.just(jwt(token, Instant.now().plusSeconds(600)));
+        };
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 100, Duration.ofMinutes(15));
+
+        StepVerifier.create(decoder.decode("token-a")).expectNextCount(1).verifyComplete();
+        StepVerifier.create(decoder.decode("token-a")).expectNextCount(1).verifyComplete();
+
+        assertThat(decodes.get()).isEqualTo(1);
+        assertThat(decoder.size()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidTokensAreNotCached() {
+        AtomicInteger decodes = new AtomicInteger();
+        ReactiveJwtDecoder delegate = token -> {
+            decodes.incrementAndGet();
+            return Mono.error(new BadJwtException("bad signature"));
+        };
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 100, Duration.ofMinutes(15));
+
+        StepVerifier.create(decoder.decode("forged")).expectError(BadJwtException.class).verify();
+        StepVerifier.create(decoder.decode("forged")).expectError(BadJwtException.class).verify();
+
+        assertThat(decodes.get()).isEqualTo(2);
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void expiredEntriesAreVerifiedAgain() {
+        AtomicInteger decodes = new AtomicInteger();
+        ReactiveJwtDecoder delegate = token -> {
+            decodes.incrementAndGet();
+            return Mono.just(jwt(token, Instant.now().minusSeconds(1)));
+        };
+        CachingReactiveJwtDecoder decoder = new CachingReactiveJwtDecoder(delegate, 100, Duration.ofMinutes(15));
+
+        decoder.decode("token-b").block();
+        decoder.decode("token-b").block();
+
+        assertThat(decodes.get()).isEqualTo(2);
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("alice")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.pro.apigatewayservice.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.cloud.config.enabled=false",
+                "eureka.client.enabled=false",
+                "gateway.edge-auth.enabled=true",
+                EdgeAuthenticationTest.JWT_SECRET_PROPERTY,
+                "gateway.edge-auth.claims-secret=Y2xhaW1zLXNlY3JldC1jbGFpbXMtc2VjcmV0LWNsYWltcy0xMjM0NTY3OA=="
+        }
+)
+@AutoConfigureWebTestClient
+class EdgeAuthenticationTest {
+
+    static final String SECRET = "ZWRnZS1hdXRoLXRlc3Qtc2VjcmV0LWVkZ2UtYXV0aC10ZXN0LXNlY3JldCE=";
+    static final String JWT_SECRET_PROPERTY = "app.jwt.secret=" + SECRET;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void requestWithoutTokenIsRejectedAtTheEdge() {
+        webTestClient.get().uri("/patients/1")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void requestWithForgedTokenIsRejectedAtTheEdge() throws Exception {
+        webTestClient.get().uri("/patients/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(Base64.getEncoder().encodeToString(new byte[32])))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void requestWithValidTokenPassesTheEdge() throws Exception {
+        webTestClient.get().uri("/patients/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(SECRET))
+                .exchange()
+                .expectStatus().value(status -> org.assertj.core.api.Assertions.assertThat(status)
+                        .isNotEqualTo(HttpStatus.UNAUTHORIZED.value()));
+    }
+
+    @Test
+    void publicRoutesIgnoreStaleTokens() {
+        webTestClient.post().uri("/auth/login")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt")
+                .exchange()
+                .expectStatus().value(status -> org.assertj.core.api.Assertions.assertThat(status)
+                        .isNotEqualTo(HttpStatus.UNAUTHORIZED.value()));
+    }
+
+    private static String token(String base64Secret) throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), new JWTClaimsSet.Builder()
+                .subject("alice")
+                .claim("userId", 7)
+                .claim("roles", List.of("ROLE_PATIENT"))
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(600)))
+                .build());
+        jwt.sign(new MACSigner(Base64.getDecoder().decode(base64Secret)));
+        return jwt.serialize();
+    }
+}
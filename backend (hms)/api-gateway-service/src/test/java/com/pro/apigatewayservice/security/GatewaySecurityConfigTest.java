@@ -14,8 +14,14 @@ import reactor.core.publisher.Mono;
 
 import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.*;
 
+// Without edge authentication the gateway permits everything and leaves it to the services
 @SpringBootTest(
-        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "gateway.edge-auth.enabled=true",
+                EdgeAuthenticationTest.JWT_SECRET_PROPERTY,
+                "gateway.edge-auth.claims-secret=Y2xhaW1zLXNlY3JldC1jbGFpbXMtc2VjcmV0LWNsYWltcy0xMjM0NTY3OA=="
+        }
 )
 @AutoConfigureWebTestClient
 @Import({ GatewaySecurityConfigTest.TestController.class,  // <-- your nested controller
@@ -0,0 +1,71 @@
+package com.pro.apigatewayservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedClaimsRelayFilterTest {
+
+    private final ClaimsHeaderSigner signer =
+            new ClaimsHeaderSigner("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+    private final VerifiedClaimsRelayFilter filter = new VerifiedClaimsRelayFilter(signer);
+
+    @Test
+    void forwardsSignedClaimsOfTheVerifiedToken() {
+        Instant expiresAt = Instant.ofEpochSecond(1_900_000_000L);
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("dr.house")
+                .claim("userId", 42)
+                .claim("roles", List.of("ROLE_DOCTOR", "ROLE_ADMIN"))
+                .expiresAt(expiresAt)
+                .build();
+
+        HttpHeaders forwarded = relay(MockServerHttpRequest.get("/patients/1").build(), new JwtAuthenticationToken(jwt));
+
+        assertThat(forwarded.getFirst(ClaimsHeaderSigner.USER_ID)).isEqualTo("42");
+        assertThat(forwarded.getFirst(ClaimsHeaderSigner.SUBJECT)).isEqualTo("dr.house");
+        assertThat(forwarded.getFirst(ClaimsHeaderSigner.ROLES)).isEqualTo("ROLE_DOCTOR,ROLE_ADMIN");
+        assertThat(forwarded.getFirst(ClaimsHeaderSigner.EXPIRES)).isEqualTo("1900000000");
+        assertThat(forwarded.getFirst(ClaimsHeaderSigner.SIGNATURE))
+                .isEqualTo(signer.sign("42", "dr.house", "ROLE_DOCTOR,ROLE_ADMIN", "1900000000"));
+    }
+
+    @Test
+    void stripsClientSuppliedClaimHeaders() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/auth/login")
+                .header(ClaimsHeaderSigner.ROLES, "ROLE_ADMIN")
+                .header("x-auth-user-id", "1")
+                .build();
+
+        HttpHeaders forwarded = relay(request, null);
+
+        assertThat(forwarded.keySet()).noneMatch(name -> name.toLowerCase().startsWith("x-auth-"));
+    }
+
+    private HttpHeaders relay(MockServerHttpRequest request, Principal principal) {
+        ServerWebExchange exchange = MockServerWebExchange.from(request);
+        if (principal != null) {
+            exchange = exchange.mutate().principal(Mono.just(principal)).build();
+        }
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+        filter.filter(exchange, routed -> {
+            forwarded.set(routed.getRequest().getHeaders());
+            return Mono.empty();
+        }).block();
+        return forwarded.get();
+    }
+}
@@ -0,0 +1,106 @@
+package com.pro.apigatewayservice.shedding;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shed requests pass through the same default filters as real traffic (CircuitBreaker, then
+ * BudgetedRetry) and must leave the route's breaker untouched.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.cloud.config.enabled=false",
+                "eureka.client.enabled=false",
+                "spring.cloud.circuitbreaker.resilience4j.disable-time-limiter=true",
+                "spring.cloud.gateway.default-filters[0].name=CircuitBreaker",
+                "spring.cloud.gateway.default-filters[0].args.fallbackUri=forward:/fallback",
+                "spring.cloud.gateway.default-filters[0].args.statusCodes=502,503,504",
+                "spring.cloud.gateway.default-filters[1].name=BudgetedRetry",
+                "spring.cloud.gateway.default-filters[1].args.backoff=1ms",
+                "resilience4j.circuitbreaker.configs.default.ignore-exceptions[0]="
+                        + "com.pro.apigatewayservice.shedding.LoadShedException",
+                "resilience4j.circuitbreaker.instances.busy-service.sliding-window-size=4",
+                "resilience4j.circuitbreaker.instances.busy-service.minimum-number-of-calls=2",
+                "gateway.load-shedding.initial-limit=1",
+                "gateway.load-shedding.min-limit=1",
+                "gateway.load-shedding.max-limit=1",
+                "gateway.load-shedding.retry-after=1s"
+        }
+)
+@AutoConfigureWebTestClient(timeout = "10s")
+class LoadSheddingCircuitBreakerTest {
+
+    private static final DisposableServer UPSTREAM = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> response.sendString(
+                    Mono.just("done").delayElement(Duration.ofMillis(1500))))
+            .bindNow();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        // indexed route properties bind from a single source, so the whole route is declared here
+        registry.add("spring.cloud.gateway.routes[0].id", () -> "busy-service");
+        registry.add("spring.cloud.gateway.routes[0].predicates[0]", () -> "Path=/busy/**");
+        registry.add("spring.cloud.gateway.routes[0].uri", () -> "http://localhost:" + UPSTREAM.port());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        UPSTREAM.disposeNow();
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Test
+    void burstOfShedRequestsLeavesTheBreakerClosed() throws Exception {
+        CompletableFuture<Integer> admitted = CompletableFuture.supplyAsync(() -> webTestClient.get()
+                .uri("/busy/1").exchange().returnResult(String.class).getStatus().value());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getInFlight() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+
+        for (int i = 0; i < 10; i++) {
+            webTestClient.get().uri("/busy/1")
+                    .exchange()
+                    .expectStatus().isEqualTo(503)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                    .expectBody().jsonPath("$.code").isEqualTo("OVERLOADED");
+        }
+
+        CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker("busy-service");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+
+        assertThat(admitted.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+        assertThat(breaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,169 @@
+package com.pro.apigatewayservice.shedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadSheddingFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private AdaptiveConcurrencyLimiter limiter;
+    private LoadSheddingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 0.5, Duration.ofMillis(500));
+        filter = new LoadSheddingFilter(limiter, RoutePriority.NORMAL, Duration.ofSeconds(2), registry);
+    }
+
+    @Test
+    void bulkTrafficIsShedBeforeCriticalTraffic() {
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        GatewayFilterChain hanging = exchange -> upstream.asMono();
+        for (int i = 0; i < 5; i++) {
+            filter.filter(exchange("patients-bulk", RoutePriority.BULK), hanging).subscribe();
+        }
+
+        MockServerWebExchange bulk = exchange("patients-bulk", RoutePriority.BULK);
+        assertThatThrownBy(() -> filter.filter(bulk, hanging).block())
+                .isInstanceOfSatisfying(LoadShedException.class, shed -> {
+                    assertThat(shed.getPriority()).isEqualTo(RoutePriority.BULK);
+                    assertThat(shed.getRetryAfterSeconds()).isEqualTo("2");
+                });
+        MockServerWebExchange critical = exchange("appointments", RoutePriority.CRITICAL);
+        filter.filter(critical, ok()).block();
+
+        // the response is left to the fallback, outside the circuit breaker
+        assertThat(bulk.getResponse().isCommitted()).isFalse();
+        assertThat(bulk.getAttributes()).containsKey(LoadSheddingFilter.SHED_ATTR);
+        assertThat(critical.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(registry.get("gateway.load.shedding.rejected").tag("priority", "BULK").counter().count()).isEqualTo(1);
+
+        upstream.tryEmitEmpty();
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void serverErrorsShrinkTheLimitAndReleaseTheSlot() {
+        filter.filter(exchange("billing", RoutePriority.NORMAL), exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+            return Mono.empty();
+        }).block();
+
+        assertThat(limiter.getLimit()).isEqualTo(5.0);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void routesWithoutPriorityUseTheDefault() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/doctors").build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("doctors").uri("lb://doctor-management-service").predicate(e -> true).build());
+
+        filter.filter(exchange, ok()).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void slowResponsesBackOffAndBusyHealthyResponsesGrowTheLimit() {
+        long slow = TimeUnit.SECONDS.toNanos(1);
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+
+        limiter.tryAcquire(RoutePriority.CRITICAL);
+        limiter.release(RoutePriority.CRITICAL, slow, false);
+        assertThat(limiter.getLimit()).isEqualTo(5.0);
+
+        // below the initial limit a healthy call undoes a backoff step even when traffic is low
+        limiter.tryAcquire(RoutePriority.CRITICAL);
+        limiter.release(RoutePriority.CRITICAL, fast, false);
+        assertThat(limiter.getLimit()).isEqualTo(10.0);
+
+        limiter.tryAcquire(RoutePriority.CRITICAL);
+        limiter.release(RoutePriority.CRITICAL, fast, false);
+        assertThat(limiter.getLimit()).isEqualTo(10.0);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(RoutePriority.CRITICAL);
+        }
+        limiter.release(RoutePriority.CRITICAL, fast, false);
+        assertThat(limiter.getLimit()).isEqualTo(11.0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.release(RoutePriority.CRITICAL, slow, true);
+            limiter.tryAcquire(RoutePriority.CRITICAL);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+    }
+
+    @Test
+    void slowBulkCallsOnlyShrinkTheLimitWhenTheyFail() {
+        long slow = TimeUnit.SECONDS.toNanos(20);
+
+        limiter.tryAcquire(RoutePriority.BULK);
+        limiter.release(RoutePriority.BULK, slow, false);
+        assertThat(limiter.getLimit()).isEqualTo(10.0);
+
+        limiter.tryAcquire(RoutePriority.BULK);
+        limiter.release(RoutePriority.BULK, slow, true);
+        assertThat(limiter.getLimit()).isEqualTo(5.0);
+    }
+
+    @Test
+    void unknownPrioritiesFailStartupButNotRequests() {
+        RouteDefinition misconfigured = new RouteDefinition();
+        misconfigured.setId("invoices");
+        misconfigured.setMetadata(Map.of(RoutePriority.METADATA_KEY, "LOW"));
+        GatewayProperties properties = new GatewayProperties();
+        properties.setRoutes(List.of(misconfigured));
+
+        assertThatThrownBy(() -> new LoadSheddingConfig().loadSheddingFilter(limiter, registry, properties,
+                RoutePriority.NORMAL, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("invoices");
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/invoices").build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id("invoices").uri("lb://billing-invoicing-service").predicate(e -> true)
+                .metadata(Map.of(RoutePriority.METADATA_KEY, "LOW")).build());
+        filter.filter(exchange, ok()).block();
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    private static GatewayFilterChain ok() {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.empty();
+        };
+    }
+
+    private static MockServerWebExchange exchange(String routeId, RoutePriority priority) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/" + routeId).build());
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId)
+                .uri("lb://" + routeId)
+                .predicate(e -> true)
+                .metadata(Map.of(RoutePriority.METADATA_KEY, priority.name()))
+                .build());
+        return exchange;
+    }
+}
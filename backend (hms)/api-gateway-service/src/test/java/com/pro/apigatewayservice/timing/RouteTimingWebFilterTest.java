@@ -0,0 +1,89 @@
+package com.pro.apigatewayservice.timing;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteTimingWebFilterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long[] clock = {0};
+    private SimpleMeterRegistry registry;
+    private RouteTimingWebFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new RouteTimingWebFilter(registry, true, () -> clock[0]);
+    }
+
+    @Test
+    void splitsAProxiedCallIntoPhases() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/patients/1").build());
+        WebFilterChain upstream = e -> {
+            RequestTiming timing = e.getAttribute(RequestTiming.ATTRIBUTE);
+            e.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+            timing.routed(clock[0] += 3 * MILLIS);
+            timing.requestStarted(clock[0] += 2 * MILLIS, "10.0.0.7:8081");
+            timing.responseStarted(clock[0] += 40 * MILLIS);
+            e.getResponse().setStatusCode(HttpStatus.OK);
+            return e.getResponse().setComplete().doOnSuccess(done -> {
+                timing.responseCompleted(clock[0] += 10 * MILLIS);
+                clock[0] += MILLIS;
+            });
+        };
+
+        filter.filter(exchange, upstream).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(RouteTimingWebFilter.SERVER_TIMING))
+                .isEqualTo("gateway;dur=3.0, connect;dur=2.0, upstream;dur=40.0");
+        Timer latency = registry.get("gateway.route.latency")
+                .tags("route", "patient-management-service", "status", "200", "instance", "10.0.0.7:8081")
+                .timer();
+        assertThat(latency.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(56);
+        assertThat(phase("connect")).isEqualTo(2);
+        assertThat(phase("first_byte")).isEqualTo(40);
+        assertThat(phase("body")).isEqualTo(10);
+        assertThat(phase("gateway")).isEqualTo(4);
+    }
+
+    @Test
+    void responsesServedByTheGatewayHaveNoUpstreamPhases() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/doctors/1").build());
+
+        filter.filter(exchange, e -> {
+            e.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+            clock[0] += MILLIS;
+            return e.getResponse().setComplete();
+        }).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(RouteTimingWebFilter.SERVER_TIMING))
+                .isEqualTo("gateway;dur=1.0");
+        assertThat(registry.find("gateway.route.phase").tag("phase", "first_byte").timer()).isNull();
+        assertThat(registry.get("gateway.route.latency").tag("instance", "none").timer().count()).isEqualTo(1);
+    }
+
+    private double phase(String phase) {
+        return registry.get("gateway.route.phase").tag("phase", phase).timer().totalTime(TimeUnit.MILLISECONDS);
+    }
+
+    private static Route route() {
+        return Route.async()
+                .id("patient-management-service")
+                .uri("lb://patient-management-service")
+                .predicate(exchange -> true)
+                .build();
+    }
+}
@@ -48,19 +48,14 @@ public class AuthController {
                 System.out.println("AuthController: No role provided, denying login.");
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
             }
-            try {
-                JwtResponse resp = authSvc.login(req);
-                System.out.println("AuthController: Login successful for user: " + resp.getUsername());
-                System.out.println("AuthController: Token generated: " + (resp.getToken() != null ? "yes" : "no"));
-                System.out.println("AuthController: User roles: " + resp.getRoles());
-                return ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .body(resp);
-            } catch (Exception e) {
-                System.out.println("AuthController: Login failed: " + e.getMessage());
-                e.printStackTrace();
-                throw e;
-            }
+            // Failures, including the 429 for an overloaded hashing pool, are answered by GlobalExceptionHandler
+            JwtResponse resp = authSvc.login(req);
+            System.out.println("AuthController: Login successful for user: " + resp.getUsername());
+            System.out.println("AuthController: Token generated: " + (resp.getToken() != null ? "yes" : "no"));
+            System.out.println("AuthController: User roles: " + resp.getRoles());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(resp);
     }
 
     @PostMapping("/validate")
@@ -79,21 +74,14 @@ public class AuthController {
     public ResponseEntity<Map<String, Object>> getUserInfo(
             @RequestBody Map<String, String> request) {
         String token = request.get("token");
-        try {
-            TokenValidationResponse validation = authSvc.validateToken(token);
-            if (!validation.isValid()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-            }
-            
-            String username = authSvc.getUsernameFromToken(token);
-            Long userId = authSvc.getUserIdFromToken(token);
-            Map<String, Object> userInfo = new HashMap<>();
-            userInfo.put("userId", userId != null ? userId : username); // fallback to username if no userId
-            userInfo.put("username", username);
-            
-            return ResponseEntity.ok(userInfo);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+        return authSvc.verifyToken(token)
+                .map(verified -> {
+                    Map<String, Object> userInfo = new HashMap<>();
+                    // fallback to username if no userId
+                    userInfo.put("userId", verified.userId() != null ? verified.userId() : verified.username());
+                    userInfo.put("username", verified.username());
+                    return ResponseEntity.ok(userInfo);
+                })
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
     }
 }
@@ -63,6 +63,15 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<ApiError> handleHashingOverloaded(PasswordHashingOverloadedException ex) {
+        // shed quickly; the client should back off briefly rather than wait in line
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiError("AUTH_OVERLOADED", ex.getMessage()));
+    }
+
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Void> handleUnauthorized() {
         // maps BadCredentialsException → 401
@@ -0,0 +1,11 @@
+package com.pro.authenticationservice.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated and the request is shed instead of queued.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException() {
+        super("Too many concurrent sign-in attempts, please retry shortly");
+    }
+}
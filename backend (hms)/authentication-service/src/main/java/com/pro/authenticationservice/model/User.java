@@ -2,8 +2,10 @@ package com.pro.authenticationservice.model;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import jakarta.persistence.*;
+import org.springframework.data.domain.AbstractAggregateRoot;
 
 
+import java.util.Objects;
 import java.util.Set;
 
 @Entity
@@ -13,7 +15,7 @@ import java.util.Set;
         justification = "we reviewed this and it's safe"
 )
 
-public class User {
+public class User extends AbstractAggregateRoot<User> {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -21,7 +23,7 @@ public class User {
     private String username;
 
     @Column(nullable = false)
-    private String password;  // stored as BCrypt
+    private String password;  // "{id}hash", see PasswordEncoders; legacy rows are bare BCrypt
 
     @Column(nullable = false , unique = true)
     private String email;
@@ -81,6 +83,10 @@ public class User {
     }
 
     public void setRoles(Set<Role> roles) {
+        // Published by the repository on save, for caches holding the previous roles
+        if (id != null && !Objects.equals(this.roles, roles)) {
+            registerEvent(new UserRolesChangedEvent(username));
+        }
         this.roles = roles;
     }
 
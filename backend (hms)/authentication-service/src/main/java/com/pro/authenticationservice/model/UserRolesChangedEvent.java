@@ -0,0 +1,7 @@
+package com.pro.authenticationservice.model;
+
+/**
+ * Published when a saved user's roles are replaced, so cached views of the user can be dropped.
+ */
+public record UserRolesChangedEvent(String username) {
+}
@@ -4,9 +4,13 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -14,15 +18,21 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserStatusCache userStatusCache;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService,
+                                   UserStatusCache userStatusCache) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.userStatusCache = userStatusCache;
     }
 
     @Override
@@ -31,37 +41,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
-        System.out.println("JwtAuthenticationFilter: Processing request to " + request.getRequestURI());
         String authHeader = request.getHeader("Authorization");
-        System.out.println("Authorization header: " + (authHeader != null ? "present" : "not present"));
-
-        String token = null;
         if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            System.out.println("Token extracted from header");
-        } else {
-            System.out.println("No valid token found in header");
+            jwtUtils.verify(authHeader.substring(7)).ifPresent(verified -> authenticate(request, verified));
         }
+        filterChain.doFilter(request, response);
+    }
 
-        if (token != null && jwtUtils.validateToken(token)) {
-            System.out.println("Token is valid");
-            try {
-                String username = jwtUtils.getUsername(token);
-                System.out.println("Username from token: " + username);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                System.out.println("User details loaded: " + userDetails.getUsername());
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("Authentication set in SecurityContextHolder");
-            } catch (Exception e) {
-                System.out.println("Error during authentication: " + e.getMessage());
-                e.printStackTrace();
+    private void authenticate(HttpServletRequest request, VerifiedToken verified) {
+        try {
+            UserDetails userDetails = userStatusCache.isEnabled()
+                    ? fromClaims(verified)
+                    : userDetailsService.loadUserByUsername(verified.username());
+            if (userDetails == null) {
+                return;
             }
-        } else if (token != null) {
-            System.out.println("Token is not valid");
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        } catch (Exception e) {
+            log.warn("Could not authenticate {}: {}", verified.username(), e.getMessage());
         }
-        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * The principal as the token describes it, minus anything revoked since it was issued: no
+     * principal for a deleted user, and only the token roles the user still holds.
+     */
+    private UserDetails fromClaims(VerifiedToken verified) {
+        UserStatusCache.UserStatus status = userStatusCache.status(verified.username());
+        if (!status.active()) {
+            log.debug("Token for revoked user {} ignored", verified.username());
+            return null;
+        }
+        List<SimpleGrantedAuthority> authorities = verified.roles().stream()
+                .filter(status.roles()::contains)
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        return User.withUsername(verified.username())
+                .password("")
+                .authorities(authorities)
+                .build();
     }
 }
@@ -1,40 +1,53 @@
 package com.pro.authenticationservice.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 @Component
 public class JwtUtils {
+    private static final Logger log = LoggerFactory.getLogger(JwtUtils.class);
+
     private final SecretKey signingKey;
     private final long expirationMs;
+    // Immutable and thread-safe, so one parser serves every request
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtUtils(
             @Value("${app.jwt.secret}") String secret,
-            @Value("${app.jwt.expiration-ms:3600000}") long expirationMs
+            @Value("${app.jwt.expiration-ms:3600000}") long expirationMs,
+            @Value("${app.jwt.verified-cache.max-size:10000}") long verifiedCacheSize,
+            @Value("${app.jwt.verified-cache.ttl:5m}") Duration verifiedCacheTtl
     ) {
-        System.out.println("Initializing JwtUtils with secret length: " + (secret != null ? secret.length() : 0));
-        System.out.println("Expiration time: " + expirationMs + " ms");
-        try {
-            // Decode the Base64-encoded secret to get the actual key bytes
-            byte[] keyBytes = java.util.Base64.getDecoder().decode(secret);
-            System.out.println("Secret string length: " + secret.length());
-            System.out.println("Decoded key bytes length: " + keyBytes.length);
-            System.out.println("First 8 bytes of key: " + java.util.Arrays.toString(java.util.Arrays.copyOf(keyBytes, Math.min(8, keyBytes.length))));
-            this.signingKey = Keys.hmacShaKeyFor(keyBytes);
-            System.out.println("Signing key created successfully");
-        } catch (Exception e) {
-            System.out.println("Error creating signing key: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        // Decode the Base64-encoded secret to get the actual key bytes
+        byte[] keyBytes = Base64.getDecoder().decode(Objects.requireNonNull(secret, "app.jwt.secret is not set"));
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        log.info("JWT signing key loaded ({} bytes), tokens expire after {} ms", keyBytes.length, expirationMs);
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(new UntilExpiry(verifiedCacheTtl))
+                        .build()
+                : null;
     }
 
     public String generateToken(String username, Collection<String> roles) {
@@ -87,55 +100,92 @@ public class JwtUtils {
     }
 
     public boolean validateToken(String token) {
-        System.out.println("Validating token");
-        if (token == null) {
-            System.out.println("Token is null");
-            return false;
+        return verify(token).isPresent();
+    }
+
+    /**
+     * Verifies the signature and expiry of {@code token} and returns its claims. Recently verified
+     * tokens are answered from a bounded cache, never past their own expiry.
+     *
+     * @return the verified claims, or empty if the token is missing, malformed, forged or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        VerifiedToken cached = verifiedTokens != null ? verifiedTokens.getIfPresent(token) : null;
+        if (cached != null) {
+            return Optional.of(cached);
         }
         try {
-            parseClaims(token);
-            System.out.println("Token is valid");
-            return true;
+            VerifiedToken verified = toVerifiedToken(parseClaims(token).getPayload());
+            if (verifiedTokens != null) {
+                verifiedTokens.put(token, verified);
+            }
+            return Optional.of(verified);
         } catch (JwtException | IllegalArgumentException ex) {
-            System.out.println("Token validation failed: " + ex.getMessage());
-            ex.printStackTrace();
-            return false;
+            log.debug("Token validation failed: {}", ex.getMessage());
+            return Optional.empty();
         }
     }
 
     public Jws<Claims> parseClaims(String token) {
-        System.out.println("Parsing claims from token");
-        try {
-            Jws<Claims> claims = Jwts.parser()
-                    .verifyWith(signingKey)
-                    .build()
-                    .parseSignedClaims(token);
-            System.out.println("Claims parsed successfully");
-            System.out.println("Subject: " + claims.getPayload().getSubject());
-            System.out.println("User ID: " + claims.getPayload().get("userId"));
-            System.out.println("Roles: " + claims.getPayload().get("roles"));
-            return claims;
-        } catch (Exception e) {
-            System.out.println("Error parsing claims: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        return parser.parseSignedClaims(token);
     }
 
     public String getUsername(String token) {
-        return parseClaims(token).getPayload().getSubject();
+        return verify(token).map(VerifiedToken::username).orElseThrow(JwtUtils::invalid);
     }
 
     public Long getUserId(String token) {
-        Object userIdClaim = parseClaims(token).getPayload().get("userId");
-        if (userIdClaim instanceof Number) {
-            return ((Number) userIdClaim).longValue();
-        }
-        return null;
+        return verify(token).map(VerifiedToken::userId).orElse(null);
     }
 
-    @SuppressWarnings("unchecked")
     public List<String> getRoles(String token) {
-        return (List<String>) parseClaims(token).getPayload().get("roles");
+        return verify(token).map(VerifiedToken::roles).orElseThrow(JwtUtils::invalid);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        Object userIdClaim = claims.get("userId");
+        Long userId = userIdClaim instanceof Number number ? number.longValue() : null;
+        Object roles = claims.get("roles");
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(claims.getSubject(), userId,
+                roles instanceof List<?> list ? (List<String>) list : List.of(),
+                expiration != null ? expiration.toInstant() : null);
+    }
+
+    private static JwtException invalid() {
+        return new JwtException("Invalid or expired JWT");
+    }
+
+    /** Keeps a verified token no longer than the cache TTL and never beyond its own expiry. */
+    private static final class UntilExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long ttlNanos;
+
+        private UntilExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            if (verified.expiresAt() == null) {
+                return ttlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), verified.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,61 @@
+package com.pro.authenticationservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The configured password encoders, keyed by the id stored in front of each hash
+ * ({@code {bcrypt}$2a$...}). New hashes use {@code app.password-encoding.id-for-encode};
+ * hashes under any other id or weaker parameters still verify and are rewritten on the user's
+ * next successful login. Hashes stored before ids were introduced carry no prefix and are
+ * read as BCrypt.
+ */
+@Component
+public class PasswordEncoders {
+
+    private final String idForEncode;
+    private final Map<String, PasswordEncoder> byId;
+
+    public PasswordEncoders(@Value("${app.password-encoding.id-for-encode:bcrypt}") String idForEncode,
+                            @Value("${app.password-encoding.bcrypt.strength:10}") int bcryptStrength,
+                            @Value("${app.password-encoding.argon2.memory-kib:16384}") int argon2MemoryKib,
+                            @Value("${app.password-encoding.argon2.iterations:2}") int argon2Iterations,
+                            @Value("${app.password-encoding.pbkdf2.iterations:310000}") int pbkdf2Iterations) {
+        Map<String, PasswordEncoder> encoders = new LinkedHashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKib, argon2Iterations));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalArgumentException("Unknown password encoder id '" + idForEncode
+                    + "', expected one of " + encoders.keySet());
+        }
+        this.idForEncode = idForEncode;
+        this.byId = Collections.unmodifiableMap(encoders);
+    }
+
+    public String idForEncode() {
+        return idForEncode;
+    }
+
+    /** The bare encoders, without the id prefix; for benchmarking each one in isolation. */
+    public Map<String, PasswordEncoder> byId() {
+        return byId;
+    }
+
+    /** Encodes with {@link #idForEncode()} and verifies any known id, flagging other hashes for upgrade. */
+    public PasswordEncoder delegating() {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, byId);
+        delegating.setDefaultPasswordEncoderForMatches(byId.get("bcrypt"));
+        return delegating;
+    }
+}
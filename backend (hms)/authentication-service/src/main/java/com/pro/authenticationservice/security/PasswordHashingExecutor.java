@@ -0,0 +1,125 @@
+package com.pro.authenticationservice.security;
+
+import com.pro.authenticationservice.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a fixed pool sized to the cores, so a login burst
+ * costs at most that much CPU and leaves Tomcat threads free for the other endpoints. The queue
+ * in front of the pool is bounded; once it is full further work is rejected at once with
+ * {@link PasswordHashingOverloadedException} (a 429) rather than piling up behind BCrypt.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor pool;
+    private final Map<String, Timer> hashTimers;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    /**
+     * @param threads       worker threads; 0 means one per available core
+     * @param queueCapacity hashes allowed to wait for a worker; 0 means eight per worker
+     */
+    public PasswordHashingExecutor(@Value("${app.password-hashing.threads:0}") int threads,
+                                   @Value("${app.password-hashing.queue-capacity:0}") int queueCapacity,
+                                   MeterRegistry registry) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        int capacity = queueCapacity > 0 ? queueCapacity : workers * 8;
+        this.pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimers = Map.of(
+                "encode", hashTimer("encode", registry),
+                "matches", hashTimer("matches", registry));
+        this.queueWait = Timer.builder("auth.password.hashing.queue.wait")
+                .description("Time a hash waited for a free worker")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Hashes shed because the queue was full")
+                .register(registry);
+        Gauge.builder("auth.password.hashing.queue.depth", pool, p -> p.getQueue().size())
+                .description("Hashes waiting for a worker")
+                .register(registry);
+        Gauge.builder("auth.password.hashing.queue.capacity", pool,
+                        p -> p.getQueue().size() + p.getQueue().remainingCapacity())
+                .register(registry);
+        Gauge.builder("auth.password.hashing.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently hashing")
+                .register(registry);
+        log.info("Password hashing pool: {} workers, queue capacity {}", workers, capacity);
+    }
+
+    /**
+     * Runs {@code task} on the pool and waits for its result on the calling thread.
+     *
+     * @param operation metric tag naming the work, {@code encode} or {@code matches}
+     * @throws PasswordHashingOverloadedException if the queue is full
+     */
+    public <T> T execute(String operation, Supplier<T> task) {
+        Timer timer = hashTimers.get(operation);
+        if (timer == null) {
+            throw new IllegalArgumentException("Unknown hashing operation: " + operation);
+        }
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = pool.submit(() -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return timer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingOverloadedException();
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry registry) {
+        return Timer.builder("auth.password.hashing")
+                .description("Time spent hashing or verifying a password")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+}
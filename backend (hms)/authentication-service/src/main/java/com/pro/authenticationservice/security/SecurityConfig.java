@@ -13,7 +13,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.*;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.*;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -29,18 +28,23 @@ public class SecurityConfig {
     private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtFilter;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final PasswordEncoders passwordEncoders;
     /**
      * We suppress EI_EXPOSE_REP2 here because JwtAuthenticationFilter is
      * a Spring-managed singleton bean and we do not need to defensively copy it.
      */
     @SuppressFBWarnings(
             value = "EI_EXPOSE_REP2",
-            justification = "JwtAuthenticationFilter is a framework-managed singleton; safe to hold reference"
+            justification = "The injected filter, executor and encoders are framework-managed singletons; safe to hold references"
     )
 
-    public SecurityConfig(UserDetailsService uds, JwtAuthenticationFilter filter) {
+    public SecurityConfig(UserDetailsService uds, JwtAuthenticationFilter filter,
+                          PasswordHashingExecutor passwordHashingExecutor, PasswordEncoders passwordEncoders) {
         this.userDetailsService = uds;
         this.jwtFilter = filter;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.passwordEncoders = passwordEncoders;
     }
 
     @Bean
@@ -66,7 +70,7 @@ public class SecurityConfig {
         AuthenticationManagerBuilder authBuilder =
                 http.getSharedObject(AuthenticationManagerBuilder.class);
 
-        // configure it
+        // configure it; a UserDetailsPasswordService is picked up too, to rehash outdated passwords on login
         authBuilder
                 .userDetailsService(userDetailsService)
                 .passwordEncoder(passwordEncoder());
@@ -78,6 +82,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // BCrypt is deliberately slow; keep it off the request threads
+        return new OffloadedPasswordEncoder(passwordEncoders.delegating(), passwordHashingExecutor);
     }
 }
\ No newline at end of file
@@ -7,14 +7,16 @@ import com.pro.authenticationservice.repository.UserRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.stream.Collectors;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository repo;
 
     public UserDetailsServiceImpl(UserRepository repo) {
@@ -25,7 +27,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         System.out.println("Loading user details for username: " + username);
         try {
-            User u = repo.findByUsername(username)
+            User u = repo.findWithRolesByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found"));
             System.out.println("User found: " + u.getUsername());
             System.out.println("User roles: " + u.getRoles());
@@ -35,8 +37,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     .collect(Collectors.toList());
             System.out.println("Authorities: " + authorities);
 
-            UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                    u.getUsername(), u.getPassword(), authorities);
+            UserDetails userDetails = new AuthenticatedUser(
+                    u.getId(), u.getUsername(), u.getPassword(), authorities);
             System.out.println("UserDetails created successfully");
             return userDetails;
         } catch (Exception e) {
@@ -45,4 +47,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw e;
         }
     }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash uses an
+     * outdated encoder id or cost; the raw password has just been re-encoded with the current one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User u = repo.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        u.setPassword(newPassword);
+        repo.save(u);
+        return new AuthenticatedUser(u.getId(), user.getUsername(), newPassword, user.getAuthorities());
+    }
 }
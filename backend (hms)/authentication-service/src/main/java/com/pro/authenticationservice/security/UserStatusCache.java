@@ -0,0 +1,66 @@
+package com.pro.authenticationservice.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.pro.authenticationservice.model.Role;
+import com.pro.authenticationservice.model.UserRolesChangedEvent;
+import com.pro.authenticationservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived view of whether a user still exists and which roles they hold. With
+ * {@code app.jwt.stateless-principal.enabled} the JWT filter builds the principal from verified
+ * claims and only checks them against this cache, so authenticated requests cost one database
+ * lookup per user per TTL instead of one per request. Deleted users and removed roles take effect
+ * within the TTL; role changes saved through the repository take effect on commit.
+ */
+@Component
+public class UserStatusCache {
+
+    private final boolean enabled;
+    private final LoadingCache<String, UserStatus> statuses;
+
+    public UserStatusCache(UserRepository repo,
+                           @Value("${app.jwt.stateless-principal.enabled:false}") boolean enabled,
+                           @Value("${app.jwt.stateless-principal.status-ttl:30s}") Duration ttl,
+                           @Value("${app.jwt.stateless-principal.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(username -> repo.findWithRolesByUsername(username)
+                        .map(user -> new UserStatus(true, user.getRoles().stream()
+                                .map(Role::name)
+                                .collect(Collectors.toUnmodifiableSet())))
+                        .orElse(UserStatus.REVOKED));
+    }
+
+    /** Whether the principal should be built from token claims rather than loaded per request. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public UserStatus status(String username) {
+        return statuses.get(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRolesChanged(UserRolesChangedEvent event) {
+        statuses.invalidate(event.username());
+    }
+
+    public record UserStatus(boolean active, Set<String> roles) {
+
+        static final UserStatus REVOKED = new UserStatus(false, Set.of());
+
+        public UserStatus {
+            roles = Set.copyOf(roles);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.pro.authenticationservice.security;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a bearer token whose signature and expiry have been checked, as produced (and cached)
+ * by {@link JwtUtils#verify(String)}.
+ */
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "roles is an unmodifiable copy")
+public record VerifiedToken(
+        String username,
+        Long userId,
+        List<String> roles,
+        Instant expiresAt
+) {
+
+    public VerifiedToken {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+}
@@ -4,13 +4,16 @@ package com.pro.authenticationservice.service;
 
 import com.pro.authenticationservice.dto.LoginRequest;
 import com.pro.authenticationservice.dto.RegisterRequest;
+import com.pro.authenticationservice.exception.PasswordHashingOverloadedException;
 import com.pro.authenticationservice.exception.UsernameAlreadyExistsException;
 import com.pro.authenticationservice.model.JwtResponse;
 import com.pro.authenticationservice.model.Role;
 import com.pro.authenticationservice.model.TokenValidationResponse;
 import com.pro.authenticationservice.model.User;
 import com.pro.authenticationservice.repository.UserRepository;
+import com.pro.authenticationservice.security.AuthenticatedUser;
 import com.pro.authenticationservice.security.JwtUtils;
+import com.pro.authenticationservice.security.VerifiedToken;
 import jakarta.transaction.Transactional;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +28,7 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -101,38 +105,33 @@ public class AuthService {
             var authToken = new UsernamePasswordAuthenticationToken(
                     req.getUsername(), req.getPassword());
             System.out.println("Created authentication token");
+            // The one query of the login: user, hash and roles loaded together for the password check
             var auth = authManager.authenticate(authToken);
             System.out.println("Authentication successful");
 
-            var userDetails = (org.springframework.security.core.userdetails.User)
-                    auth.getPrincipal();
+            var userDetails = (AuthenticatedUser) auth.getPrincipal();
             System.out.println("User details retrieved: " + userDetails.getUsername());
 
-            // Check if the user has the requested role
-            String requestedRole = "ROLE_" + req.getRole().toUpperCase();
-            boolean hasRole = userDetails.getAuthorities().stream()
-                    .anyMatch(grantedAuthority -> grantedAuthority.getAuthority().equals(requestedRole));
-
-            if (!hasRole) {
-                throw new AccessDeniedException("User does not have the required role: " + req.getRole());
-            }
-
-            // Get the full user entity to access the ID
-            User user = userRepo.findByUsername(userDetails.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found after authentication"));
-            System.out.println("User entity retrieved: " + user.getUsername() + " with ID: " + user.getId());
-
             List<String> roles = userDetails.getAuthorities()
                     .stream()
                     .map(GrantedAuthority::getAuthority)
                     .collect(Collectors.toList());
             System.out.println("User roles: " + roles);
 
-            String token = jwtUtils.generateToken(userDetails.getUsername(), user.getId(), roles);
+            // Check if the user has the requested role
+            String requestedRole = "ROLE_" + req.getRole().toUpperCase();
+            if (!roles.contains(requestedRole)) {
+                throw new AccessDeniedException("User does not have the required role: " + req.getRole());
+            }
+
+            String token = jwtUtils.generateToken(userDetails.getUsername(), userDetails.getId(), roles);
             System.out.println("JWT token generated with userId");
 
             // JwtResponse(String token, String type, Long id, String username, List<String> roles)
-            return new JwtResponse(token, "Bearer", user.getId(), userDetails.getUsername(), roles);
+            return new JwtResponse(token, "Bearer", userDetails.getId(), userDetails.getUsername(), roles);
+        } catch (PasswordHashingOverloadedException e) {
+            // load shedding, not a failed login; no stack trace per rejected request
+            throw e;
         } catch (Exception e) {
             System.out.println("Authentication failed: " + e.getMessage());
             e.printStackTrace();
@@ -142,13 +141,16 @@ public class AuthService {
 
 
     public TokenValidationResponse validateToken(String token) {
-        boolean valid = jwtUtils.validateToken(token);
-
-        List<String> roles = valid
-                ? jwtUtils.getRoles(token)
-                : Collections.emptyList();
+        return jwtUtils.verify(token)
+                .map(verified -> new TokenValidationResponse(true, verified.roles()))
+                .orElseGet(() -> new TokenValidationResponse(false, Collections.emptyList()));
+    }
 
-        return new TokenValidationResponse(valid, roles);
+    /**
+     * @return the token's claims, parsed once for callers that need more than validity and roles
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        return jwtUtils.verify(token);
     }
 
     public String getUsernameFromToken(String token) {
@@ -0,0 +1,71 @@
+package com.pro.authenticationservice.benchmark;
+
+import com.pro.authenticationservice.security.JwtUtils;
+import com.pro.authenticationservice.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token. {@code perRequestParsing} is the previous
+ * pipeline: the filter validated and then read the username, and token validation read the roles,
+ * each time through a freshly built parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private SecretKey key;
+    private JwtUtils uncached;
+    private JwtUtils cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        byte[] keyBytes = "0123456789abcdef0123456789abcdef".getBytes();
+        String secret = Base64.getEncoder().encodeToString(keyBytes);
+        key = Keys.hmacShaKeyFor(keyBytes);
+        uncached = new JwtUtils(secret, 3_600_000, 0, Duration.ofMinutes(5));
+        cached = new JwtUtils(secret, 3_600_000, 10_000, Duration.ofMinutes(5));
+        token = uncached.generateToken("john.doe", 42L, List.of("ROLE_PATIENT"));
+    }
+
+    @Benchmark
+    public void perRequestParsing(Blackhole blackhole) {
+        for (int i = 0; i < 3; i++) {
+            Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+            blackhole.consume(claims);
+        }
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return uncached.verify(token).orElseThrow();
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerification() {
+        return cached.verify(token).orElseThrow();
+    }
+}
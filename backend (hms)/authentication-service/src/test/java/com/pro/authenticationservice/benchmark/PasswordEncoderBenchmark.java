@@ -0,0 +1,68 @@
+package com.pro.authenticationservice.benchmark;
+
+import com.pro.authenticationservice.security.PasswordEncoders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one login ({@code matches}) and one registration or rehash ({@code encode}) for each
+ * encoder in {@link PasswordEncoders}. Run it on the deployment hardware and pick the highest cost
+ * whose p99 fits the login latency budget, remembering that the hashing pool runs one hash per
+ * core at a time. Costs are JMH parameters, e.g.
+ * {@code -Dbenchmark="PasswordEncoderBenchmark -p encoder=bcrypt -p bcryptStrength=10,11,12"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"bcrypt", "argon2", "pbkdf2"})
+    public String encoder;
+
+    @Param("10")
+    public int bcryptStrength;
+
+    @Param("16384")
+    public int argon2MemoryKib;
+
+    @Param("2")
+    public int argon2Iterations;
+
+    @Param("310000")
+    public int pbkdf2Iterations;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new PasswordEncoders(encoder, bcryptStrength, argon2MemoryKib, argon2Iterations,
+                pbkdf2Iterations).byId().get(encoder);
+        hash = passwordEncoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("correct horse battery staple", hash);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode("correct horse battery staple");
+    }
+}
@@ -3,7 +3,11 @@ package com.pro.authenticationservice.config;
 
 
 import com.pro.authenticationservice.security.JwtAuthenticationFilter;
+import com.pro.authenticationservice.security.OffloadedPasswordEncoder;
+import com.pro.authenticationservice.security.PasswordEncoders;
+import com.pro.authenticationservice.security.PasswordHashingExecutor;
 import com.pro.authenticationservice.security.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,7 +23,6 @@ import org.springframework.security.config.annotation.web.configurers.SessionMan
 import org.springframework.security.config.annotation.web.configurers.AuthorizeHttpRequestsConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -36,6 +39,13 @@ class SecurityConfigTest {
     @Mock
     private JwtAuthenticationFilter jwtFilter;
 
+    @Spy
+    private PasswordHashingExecutor passwordHashingExecutor =
+            new PasswordHashingExecutor(1, 4, new SimpleMeterRegistry());
+
+    @Spy
+    private PasswordEncoders passwordEncoders = new PasswordEncoders("bcrypt", 4, 1024, 1, 1000);
+
     private  SecurityConfig config ;
 
     @Mock
@@ -86,7 +96,7 @@ class SecurityConfigTest {
     @BeforeEach
     void setUp() {
         // pass both required constructor args
-        config = new SecurityConfig(userDetailsService, jwtFilter);
+        config = new SecurityConfig(userDetailsService, jwtFilter, passwordHashingExecutor, passwordEncoders);
     }
 
     @Test
@@ -114,10 +124,10 @@ class SecurityConfigTest {
         // Verify userDetailsService(...) was called on the builder
         verify(authBuilder).userDetailsService(userDetailsService);
 
-        // Capture and assert that a BCryptPasswordEncoder was provided
+        // Capture and assert that the offloaded, id-delegating encoder was provided
         verify(daoConfigurer).passwordEncoder(encoderCaptor.capture());
         PasswordEncoder used = encoderCaptor.getValue();
-        assertInstanceOf(BCryptPasswordEncoder.class, used);
+        assertInstanceOf(OffloadedPasswordEncoder.class, used);
 
         // And finally build() must have been invoked
         verify(authBuilder).build();
@@ -178,9 +188,10 @@ class SecurityConfigTest {
         verify(httpSecurity).build();
     }
     @Test
-    void passwordEncoder_shouldBeBCryptPasswordEncoder() {
+    void passwordEncoder_shouldEncodeWithBCryptId() {
         PasswordEncoder encoder = config.passwordEncoder();
-        assertThat(encoder).isInstanceOf(BCryptPasswordEncoder.class);
+        assertThat(encoder).isInstanceOf(OffloadedPasswordEncoder.class);
+        assertThat(encoder.encode("mySecret123")).startsWith("{bcrypt}$2a$04$");
     }
 
     @Test
@@ -193,6 +204,10 @@ class SecurityConfigTest {
         assertThat(encoded).isNotEqualTo(raw);
         // It should successfully match the raw value against its hash
         assertThat(encoder.matches(raw, encoded)).isTrue();
+
+        // both ran on the hashing pool rather than the calling thread
+        verify(passwordHashingExecutor).execute(eq("encode"), any());
+        verify(passwordHashingExecutor).execute(eq("matches"), any());
     }
 
 }
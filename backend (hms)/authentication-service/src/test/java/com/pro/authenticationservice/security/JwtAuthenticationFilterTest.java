@@ -14,6 +14,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
@@ -21,6 +22,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetails;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -34,6 +38,9 @@ class JwtAuthenticationFilterTest {
     @Mock
     private UserDetailsServiceImpl userDetailsService;
 
+    @Mock
+    private UserStatusCache userStatusCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -61,8 +68,8 @@ class JwtAuthenticationFilterTest {
         String username = "john.doe";
 
         when(request.getHeader("Authorization")).thenReturn(header);
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getUsername(token)).thenReturn(username);
+        VerifiedToken verified = new VerifiedToken(username, 42L, List.of("ROLE_PATIENT"), null);
+        when(jwtUtils.verify(token)).thenReturn(Optional.of(verified));
 
         UserDetails userDetails = mock(UserDetails.class);
         when(userDetails.getAuthorities()).thenReturn(Collections.emptyList());
@@ -86,6 +93,10 @@ class JwtAuthenticationFilterTest {
         assertThat(auth.getAuthorities()).isEmpty();
         assertThat(auth.getDetails()).isInstanceOf(WebAuthenticationDetails.class);
 
+        // the token is parsed once
+        verify(jwtUtils).verify(token);
+        verifyNoMoreInteractions(jwtUtils);
+
     }
 
     @Test
@@ -95,7 +106,7 @@ class JwtAuthenticationFilterTest {
         String header = "Bearer " + token;
 
         when(request.getHeader("Authorization")).thenReturn(header);
-        when(jwtUtils.validateToken(token)).thenReturn(false);
+        when(jwtUtils.verify(token)).thenReturn(Optional.empty());
 
         // when
         filter.doFilterInternal(request, response, filterChain);
@@ -103,7 +114,6 @@ class JwtAuthenticationFilterTest {
         // then
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        verify(jwtUtils, never()).getUsername(anyString());
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
 
@@ -118,7 +128,53 @@ class JwtAuthenticationFilterTest {
         // then
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        verify(jwtUtils, never()).validateToken(anyString());
+        verify(jwtUtils, never()).verify(anyString());
         verify(userDetailsService, never()).loadUserByUsername(anyString());
     }
+
+    @Test
+    void doFilter_internal_statelessPrincipal_shouldAuthenticateFromClaimsWithoutLoadingUser()
+            throws ServletException, IOException {
+        // given a token carrying a role the user has since lost
+        String token = "valid-token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        VerifiedToken verified = new VerifiedToken("jane.doe", 7L, List.of("ROLE_ADMIN", "ROLE_DOCTOR"), null);
+        when(jwtUtils.verify(token)).thenReturn(Optional.of(verified));
+        when(userStatusCache.isEnabled()).thenReturn(true);
+        when(userStatusCache.status("jane.doe"))
+                .thenReturn(new UserStatusCache.UserStatus(true, Set.of("ROLE_DOCTOR")));
+
+        // when
+        filter.doFilterInternal(request, response, filterChain);
+
+        // then only the roles still held are granted, and no user row is read
+        verify(filterChain).doFilter(request, response);
+        UsernamePasswordAuthenticationToken auth =
+                (UsernamePasswordAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth).isNotNull();
+        assertThat(((UserDetails) auth.getPrincipal()).getUsername()).isEqualTo("jane.doe");
+        assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_DOCTOR");
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void doFilter_internal_statelessPrincipal_withRevokedUser_shouldNotAuthenticate()
+            throws ServletException, IOException {
+        // given
+        String token = "valid-token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        VerifiedToken verified = new VerifiedToken("gone", 9L, List.of("ROLE_PATIENT"), null);
+        when(jwtUtils.verify(token)).thenReturn(Optional.of(verified));
+        when(userStatusCache.isEnabled()).thenReturn(true);
+        when(userStatusCache.status("gone")).thenReturn(UserStatusCache.UserStatus.REVOKED);
+
+        // when
+        filter.doFilterInternal(request, response, filterChain);
+
+        // then
+        verify(filterChain).doFilter(request, response);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailsService);
+    }
 }
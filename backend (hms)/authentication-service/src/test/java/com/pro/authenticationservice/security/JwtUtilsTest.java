@@ -0,0 +1,65 @@
+package com.pro.authenticationservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes();
+    private static final String SECRET = Base64.getEncoder().encodeToString(KEY);
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRET, 60_000, 100, Duration.ofMinutes(5));
+
+    @Test
+    void verifyReturnsAllClaimsFromOneParse() {
+        String token = jwtUtils.generateToken("john.doe", 42L, List.of("ROLE_PATIENT"));
+
+        Optional<VerifiedToken> verified = jwtUtils.verify(token);
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().username()).isEqualTo("john.doe");
+        assertThat(verified.get().userId()).isEqualTo(42L);
+        assertThat(verified.get().roles()).containsExactly("ROLE_PATIENT");
+        assertThat(verified.get().expiresAt()).isNotNull();
+    }
+
+    @Test
+    void recentlyVerifiedTokensAreServedFromTheCache() {
+        String token = jwtUtils.generateToken("john.doe", 42L, List.of("ROLE_PATIENT"));
+
+        assertThat(jwtUtils.verify(token).get()).isSameAs(jwtUtils.verify(token).get());
+    }
+
+    @Test
+    void forgedMalformedAndExpiredTokensAreRejected() {
+        String token = jwtUtils.generateToken("john.doe", 42L, List.of("ROLE_PATIENT"));
+        String forged = token.substring(0, token.lastIndexOf('.') + 1) + "c2lnbmF0dXJl";
+        String expired = Jwts.builder()
+                .subject("john.doe")
+                .expiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(KEY), Jwts.SIG.HS256)
+                .compact();
+
+        assertThat(jwtUtils.verify(forged)).isEmpty();
+        assertThat(jwtUtils.verify("not-a-jwt")).isEmpty();
+        assertThat(jwtUtils.verify(expired)).isEmpty();
+        assertThat(jwtUtils.verify(null)).isEmpty();
+    }
+
+    @Test
+    void theCacheCanBeDisabled() {
+        JwtUtils uncached = new JwtUtils(SECRET, 60_000, 0, Duration.ofMinutes(5));
+        String token = uncached.generateToken("john.doe", 42L, List.of("ROLE_PATIENT"));
+
+        assertThat(uncached.verify(token).get()).isNotSameAs(uncached.verify(token).get());
+    }
+}
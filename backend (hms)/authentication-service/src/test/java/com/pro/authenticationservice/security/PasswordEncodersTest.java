@@ -0,0 +1,79 @@
+package com.pro.authenticationservice.security;
+
+import com.pro.authenticationservice.model.Role;
+import com.pro.authenticationservice.model.User;
+import com.pro.authenticationservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class PasswordEncodersTest {
+
+    private final PasswordEncoders encoders = new PasswordEncoders("bcrypt", 5, 1024, 1, 1000);
+    private final PasswordEncoder delegating = encoders.delegating();
+
+    @Test
+    void legacyBareBCryptHash_stillMatchesAndIsFlaggedForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+        assertThat(delegating.matches("password", legacy)).isTrue();
+        assertThat(delegating.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void currentHash_isNotUpgraded_butWeakerCostOrOtherAlgorithmIs() {
+        String current = delegating.encode("password");
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("password");
+        String pbkdf2 = "{pbkdf2}" + encoders.byId().get("pbkdf2").encode("password");
+
+        assertThat(current).startsWith("{bcrypt}$2a$05$");
+        assertThat(delegating.upgradeEncoding(current)).isFalse();
+        assertThat(delegating.upgradeEncoding(weaker)).isTrue();
+        assertThat(delegating.matches("password", pbkdf2)).isTrue();
+        assertThat(delegating.upgradeEncoding(pbkdf2)).isTrue();
+    }
+
+    @Test
+    void argon2_canBeSelectedForNewHashes() {
+        PasswordEncoder argon2 = new PasswordEncoders("argon2", 5, 1024, 1, 1000).delegating();
+
+        String hash = argon2.encode("password");
+
+        assertThat(hash).startsWith("{argon2}$argon2id$");
+        assertThat(argon2.matches("password", hash)).isTrue();
+    }
+
+    @Test
+    void unknownIdForEncode_isRejected() {
+        assertThatThrownBy(() -> new PasswordEncoders("md5", 10, 1024, 1, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void successfulLogin_rehashesOutdatedPassword() {
+        UserRepository repo = mock(UserRepository.class);
+        User user = new User("jane", new BCryptPasswordEncoder(4).encode("password"), "j@x.org",
+                Set.of(Role.ROLE_PATIENT));
+        when(repo.findWithRolesByUsername("jane")).thenReturn(Optional.of(user));
+        when(repo.findByUsername("jane")).thenReturn(Optional.of(user));
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(repo);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(delegating);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("jane", "password"));
+
+        verify(repo).save(user);
+        assertThat(user.getPassword()).startsWith("{bcrypt}$2a$05$");
+        assertThat(delegating.matches("password", user.getPassword())).isTrue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.pro.authenticationservice.security;
+
+import com.pro.authenticationservice.exception.PasswordHashingOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor(1, 1, registry);
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void execute_runsOnPoolAndRecordsLatency() {
+        String thread = executor.execute("encode", () -> Thread.currentThread().getName());
+
+        assertThat(thread).startsWith("password-hash-");
+        assertThat(registry.get("auth.password.hashing").tag("operation", "encode").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void execute_whenQueueIsFull_rejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(
+                () -> executor.execute("matches", () -> await(release)));
+        awaitGauge("auth.password.hashing.active", 1);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(
+                () -> executor.execute("matches", () -> true));
+        awaitGauge("auth.password.hashing.queue.depth", 1);
+
+        assertThatThrownBy(() -> executor.execute("matches", () -> true))
+                .isInstanceOf(PasswordHashingOverloadedException.class);
+        assertThat(registry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void execute_propagatesTaskFailure() {
+        assertThatThrownBy(() -> executor.execute("encode", () -> {
+            throw new IllegalArgumentException("rawPassword cannot be null");
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void awaitGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get(name).gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(registry.get(name).gauge().value()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,55 @@
+package com.pro.authenticationservice.security;
+
+import com.pro.authenticationservice.model.Role;
+import com.pro.authenticationservice.model.User;
+import com.pro.authenticationservice.model.UserRolesChangedEvent;
+import com.pro.authenticationservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class UserStatusCacheTest {
+
+    private final UserRepository repo = mock(UserRepository.class);
+    private final UserStatusCache cache = new UserStatusCache(repo, true, Duration.ofMinutes(1), 100);
+
+    @Test
+    void status_isLoadedOncePerTtl() {
+        User user = new User();
+        user.setUsername("jane");
+        user.setRoles(Set.of(Role.ROLE_DOCTOR));
+        when(repo.findWithRolesByUsername("jane")).thenReturn(Optional.of(user));
+
+        assertThat(cache.status("jane")).isEqualTo(new UserStatusCache.UserStatus(true, Set.of("ROLE_DOCTOR")));
+        assertThat(cache.status("jane").active()).isTrue();
+
+        verify(repo, times(1)).findWithRolesByUsername("jane");
+    }
+
+    @Test
+    void status_ofMissingUser_isRevoked() {
+        when(repo.findWithRolesByUsername("gone")).thenReturn(Optional.empty());
+
+        assertThat(cache.status("gone").active()).isFalse();
+    }
+
+    @Test
+    void onRolesChanged_dropsCachedStatus() {
+        User user = new User();
+        user.setUsername("jane");
+        user.setRoles(Set.of(Role.ROLE_ADMIN));
+        when(repo.findWithRolesByUsername("jane")).thenReturn(Optional.of(user));
+        assertThat(cache.status("jane").roles()).containsExactly("ROLE_ADMIN");
+
+        user.setRoles(Set.of(Role.ROLE_PATIENT));
+        cache.onRolesChanged(new UserRolesChangedEvent("jane"));
+
+        assertThat(cache.status("jane").roles()).containsExactly("ROLE_PATIENT");
+        verify(repo, times(2)).findWithRolesByUsername("jane");
+    }
+}
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 
@@ -16,7 +17,9 @@ import com.pro.authenticationservice.model.Role;
 import com.pro.authenticationservice.model.TokenValidationResponse;
 import com.pro.authenticationservice.model.User;
 import com.pro.authenticationservice.repository.UserRepository;
+import com.pro.authenticationservice.security.AuthenticatedUser;
 import com.pro.authenticationservice.security.JwtUtils;
+import com.pro.authenticationservice.security.VerifiedToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -134,16 +137,15 @@ class AuthServiceTest {
         req.setPassword(rawPassword);
         req.setRole("PATIENT");
 
-        // create a UserDetails principal
+        // the principal already carries the id loaded with the hash and roles
         GrantedAuthority auth = new SimpleGrantedAuthority("ROLE_PATIENT");
-        UserDetails principal = new org.springframework.security.core.userdetails.User(
-                username, encodedPassword, List.of(auth)
+        UserDetails principal = new AuthenticatedUser(
+                user.getId(), username, encodedPassword, List.of(auth)
         );
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 principal, rawPassword, List.of(auth)
         );
-        
-        when(userRepo.findByUsername(username)).thenReturn(java.util.Optional.of(user));
+
         when(authManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(jwtUtils.generateToken(username, user.getId(), roles)).thenReturn(token);
@@ -157,6 +159,10 @@ class AuthServiceTest {
         assertEquals("Bearer", resp.getType());
         assertEquals(username, resp.getUsername());
         assertEquals(roles, resp.getRoles());
+        assertEquals(user.getId(), resp.getId());
+
+        // no second lookup of the user after authentication
+        verifyNoInteractions(userRepo);
     }
 
     @Test
@@ -176,8 +182,7 @@ class AuthServiceTest {
     @Test
     void validateToken_valid() {
         // given
-        when(jwtUtils.validateToken(token)).thenReturn(true);
-        when(jwtUtils.getRoles(token)).thenReturn(roles);
+        when(jwtUtils.verify(token)).thenReturn(Optional.of(new VerifiedToken(username, 1L, roles, null)));
 
         // when
         TokenValidationResponse resp = authService.validateToken(token);
@@ -185,12 +190,15 @@ class AuthServiceTest {
         // then
         assertTrue(resp.isValid());
         assertEquals(roles, resp.getRoles());
+        // one verification yields both validity and roles
+        verify(jwtUtils).verify(token);
+        verifyNoMoreInteractions(jwtUtils);
     }
 
     @Test
     void validateToken_invalid() {
         // given
-        when(jwtUtils.validateToken(token)).thenReturn(false);
+        when(jwtUtils.verify(token)).thenReturn(Optional.empty());
 
         // when
         TokenValidationResponse resp = authService.validateToken(token);
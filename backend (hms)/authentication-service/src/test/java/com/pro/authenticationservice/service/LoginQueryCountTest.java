@@ -0,0 +1,94 @@
+package com.pro.authenticationservice.service;
+
+import com.pro.authenticationservice.dto.LoginRequest;
+import com.pro.authenticationservice.model.JwtResponse;
+import com.pro.authenticationservice.model.Role;
+import com.pro.authenticationservice.model.User;
+import com.pro.authenticationservice.repository.UserRepository;
+import com.pro.authenticationservice.security.JwtUtils;
+import com.pro.authenticationservice.security.PasswordEncoders;
+import com.pro.authenticationservice.security.UserDetailsServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Counts the statements a successful login sends to the database, against the real JPA mapping.
+ */
+@DataJpaTest
+@Import(UserDetailsServiceImpl.class)
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.flyway.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:logindb;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+class LoginQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    private AuthService authService;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        // cheapest BCrypt cost that is still current, so the login does not trigger a rehash
+        PasswordEncoder encoder = new PasswordEncoders("bcrypt", 4, 1024, 1, 1000).delegating();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        String secret = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+        JwtUtils jwtUtils = new JwtUtils(secret, 3_600_000, 0, Duration.ofMinutes(5));
+        authService = new AuthService(userRepo, encoder, new ProviderManager(provider), jwtUtils,
+                mock(WebClient.Builder.class));
+
+        User user = new User("jane", encoder.encode("password"), "jane@example.org",
+                Set.of(Role.ROLE_PATIENT, Role.ROLE_DOCTOR));
+        userId = entityManager.persistAndFlush(user).getId();
+        entityManager.clear();
+    }
+
+    @Test
+    void successfulLogin_takesExactlyOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JwtResponse response = authService.login(new LoginRequest("jane", "password", "doctor"));
+
+        assertThat(response.getId()).isEqualTo(userId);
+        assertThat(response.getRoles()).containsExactlyInAnyOrder("ROLE_PATIENT", "ROLE_DOCTOR");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -5,9 +5,11 @@ import com.pro.authenticationservice.controller.AuthController;
 import com.pro.authenticationservice.dto.LoginRequest;
 import com.pro.authenticationservice.dto.RegisterRequest;
 import com.pro.authenticationservice.exception.GlobalExceptionHandler;
+import com.pro.authenticationservice.exception.PasswordHashingOverloadedException;
 import com.pro.authenticationservice.model.JwtResponse;
 import com.pro.authenticationservice.security.JwtUtils;
 import com.pro.authenticationservice.security.UserDetailsServiceImpl; // Import UserDetailsServiceImpl
+import com.pro.authenticationservice.security.UserStatusCache;
 import com.pro.authenticationservice.service.AuthService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,6 +53,9 @@ class AuthControllerTest {
     @MockitoBean
     private UserDetailsServiceImpl userDetailsService; // ADD THIS MOCK
 
+    @MockitoBean
+    private UserStatusCache userStatusCache;
+
     private final ObjectMapper om = new ObjectMapper();
 
     @TestConfiguration
@@ -105,6 +110,22 @@ class AuthControllerTest {
     }
 
 
+    @Test
+    void loginShouldReturnTooManyRequestsWhenHashingPoolIsSaturated() throws Exception {
+        var req = new LoginRequest("user", "pass", "PATIENT");
+
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new PasswordHashingOverloadedException());
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value("AUTH_OVERLOADED"));
+    }
+
+
     @Test
     void registerShouldCreateUserWhenValid() throws Exception {
         var req = new RegisterRequest("newUser", "secretChase", "new@example.com");
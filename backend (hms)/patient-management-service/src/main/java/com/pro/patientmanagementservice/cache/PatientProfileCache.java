@@ -0,0 +1,148 @@
+package com.pro.patientmanagementservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pro.patientmanagementservice.dto.CacheStatsDTO;
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of assembled {@link PatientProfileDTO}s, keyed by patient id and by user id.
+ * The local tier is a bounded Caffeine (W-TinyLFU) cache; the shared tier is optional.
+ */
+@Component
+@Slf4j
+public class PatientProfileCache {
+
+    private static final String PATIENT_KEY = "patient-profile:patient:";
+    private static final String USER_KEY = "patient-profile:user:";
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Cache<String, PatientProfileDTO> localCache;
+    private final SharedProfileCache sharedCache;
+
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+
+    public PatientProfileCache(Optional<SharedProfileCache> sharedCache,
+                               @Value("${patient.cache.enabled:true}") boolean enabled,
+                               @Value("${patient.cache.max-size:10000}") long maxSize,
+                               @Value("${patient.cache.ttl:5m}") Duration ttl) {
+        this.sharedCache = sharedCache.orElse(null);
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public PatientProfileDTO getByPatientId(Long patientId, Supplier<PatientProfileDTO> loader) {
+        return get(PATIENT_KEY + patientId, loader);
+    }
+
+    public PatientProfileDTO getByUserId(Long userId, Supplier<PatientProfileDTO> loader) {
+        return get(USER_KEY + userId, loader);
+    }
+
+    /**
+     * Evicts both tiers now and again once the surrounding transaction commits, so a
+     * concurrent read cannot repopulate the cache with the pre-commit state.
+     */
+    public void invalidate(Long patientId, Long userId) {
+        if (!enabled) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(2);
+        if (patientId != null) {
+            keys.add(PATIENT_KEY + patientId);
+        }
+        if (userId != null) {
+            keys.add(USER_KEY + userId);
+        }
+        evict(keys);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(keys);
+                }
+            });
+        }
+    }
+
+    public CacheStatsDTO stats() {
+        // Run pending maintenance so size and eviction counts are current
+        localCache.cleanUp();
+        CacheStats stats = localCache.stats();
+        return CacheStatsDTO.builder()
+                .name("patient-profile")
+                .size(localCache.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .sharedHits(sharedHits.sum())
+                .sharedMisses(sharedMisses.sum())
+                .build();
+    }
+
+    private PatientProfileDTO get(String key, Supplier<PatientProfileDTO> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return localCache.get(key, k -> loadThroughSharedCache(k, loader));
+    }
+
+    private PatientProfileDTO loadThroughSharedCache(String key, Supplier<PatientProfileDTO> loader) {
+        if (sharedCache == null) {
+            return loader.get();
+        }
+
+        Optional<PatientProfileDTO> shared = Optional.empty();
+        try {
+            shared = sharedCache.get(key);
+        } catch (RuntimeException e) {
+            log.warn("Shared profile cache read failed for {}: {}", key, e.getMessage());
+        }
+        if (shared.isPresent()) {
+            sharedHits.increment();
+            return shared.get();
+        }
+        sharedMisses.increment();
+
+        PatientProfileDTO profile = loader.get();
+        try {
+            sharedCache.put(key, profile, ttl);
+        } catch (RuntimeException e) {
+            log.warn("Shared profile cache write failed for {}: {}", key, e.getMessage());
+        }
+        return profile;
+    }
+
+    private void evict(List<String> keys) {
+        localCache.invalidateAll(keys);
+        if (sharedCache != null) {
+            try {
+                sharedCache.evict(keys);
+            } catch (RuntimeException e) {
+                log.warn("Shared profile cache eviction failed for {}: {}", keys, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.pro.patientmanagementservice.cache;
+
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Optional second cache tier shared between service instances (e.g. Redis).
+ * When no implementation is registered only the in-process tier is used.
+ */
+public interface SharedProfileCache {
+
+    Optional<PatientProfileDTO> get(String key);
+
+    void put(String key, PatientProfileDTO profile, Duration ttl);
+
+    void evict(Collection<String> keys);
+}
@@ -0,0 +1,162 @@
+package com.pro.patientmanagementservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pro.patientmanagementservice.dto.CacheStatsDTO;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of stroke predictions keyed by model version and a SHA-256 of the normalized
+ * request. The model is called with that same normalized request, so a cached prediction is
+ * exactly what the call would have returned. When a prediction reports a different model version
+ * than the one cached results came from, every entry is dropped.
+ */
+@Component
+@Slf4j
+public class StrokePredictionCache {
+
+    static final String UNVERSIONED = "unversioned";
+
+    private final boolean enabled;
+    private final Cache<String, StrokePredictionResponse> cache;
+    private final LongAdder versionChanges = new LongAdder();
+    private volatile String modelVersion;
+
+    public StrokePredictionCache(@Value("${stroke.prediction.cache.enabled:true}") boolean enabled,
+                                 @Value("${stroke.prediction.cache.max-size:10000}") long maxSize,
+                                 @Value("${stroke.prediction.cache.ttl:10m}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a copy of the cached prediction for an equivalent request under the current model
+     * version, stamped with the time it was served, otherwise calls the loader with the normalized
+     * request and caches its result. Failures are not cached.
+     */
+    public StrokePredictionResponse get(StrokePredictionRequest request,
+                                        Function<StrokePredictionRequest, StrokePredictionResponse> loader) {
+        StrokePredictionRequest normalized = normalize(request);
+        if (!enabled) {
+            return loader.apply(normalized);
+        }
+        String fingerprint = fingerprint(normalized);
+        String current = modelVersion;
+        if (current != null) {
+            StrokePredictionResponse cached = cache.getIfPresent(current + ":" + fingerprint);
+            if (cached != null) {
+                return copy(cached, LocalDateTime.now(ZoneOffset.UTC).toString());
+            }
+        }
+
+        StrokePredictionResponse prediction = loader.apply(normalized);
+        String version = prediction.getModelVersion() != null ? prediction.getModelVersion() : UNVERSIONED;
+        observeModelVersion(version);
+        // Callers own the returned object, so the entry must not be it
+        cache.put(version + ":" + fingerprint, copy(prediction, prediction.getPredictionTimestamp()));
+        return prediction;
+    }
+
+    public CacheStatsDTO stats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        return CacheStatsDTO.builder()
+                .name("stroke-prediction")
+                .size(cache.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .modelVersion(modelVersion)
+                .invalidations(versionChanges.sum())
+                .build();
+    }
+
+    private synchronized void observeModelVersion(String version) {
+        if (version.equals(modelVersion)) {
+            return;
+        }
+        if (modelVersion != null) {
+            log.info("Stroke model changed from {} to {}; dropping {} cached predictions",
+                    modelVersion, version, cache.estimatedSize());
+            cache.invalidateAll();
+            versionChanges.increment();
+        }
+        modelVersion = version;
+    }
+
+    /**
+     * Strings trimmed and -0.0 folded into 0.0, so requests that the model scores identically
+     * share an entry. Category case is kept because the model's encoders are case-sensitive.
+     */
+    static StrokePredictionRequest normalize(StrokePredictionRequest request) {
+        return new StrokePredictionRequest(
+                trim(request.getGender()),
+                normalize(request.getAge()),
+                request.getHypertension(),
+                request.getHeartDisease(),
+                trim(request.getEverMarried()),
+                trim(request.getWorkType()),
+                trim(request.getResidenceType()),
+                normalize(request.getAvgGlucoseLevel()),
+                normalize(request.getBmi()),
+                trim(request.getSmokingStatus()));
+    }
+
+    /** Fields of a normalized request in a fixed order. */
+    static String fingerprint(StrokePredictionRequest request) {
+        String canonical = String.join("\u001f",
+                Objects.toString(request.getGender(), ""),
+                Double.toString(request.getAge()),
+                Integer.toString(request.getHypertension()),
+                Integer.toString(request.getHeartDisease()),
+                Objects.toString(request.getEverMarried(), ""),
+                Objects.toString(request.getWorkType(), ""),
+                Objects.toString(request.getResidenceType(), ""),
+                Double.toString(request.getAvgGlucoseLevel()),
+                Double.toString(request.getBmi()),
+                Objects.toString(request.getSmokingStatus(), ""));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static double normalize(double value) {
+        // 0.0 and -0.0 score identically
+        return value == 0.0 ? 0.0 : value;
+    }
+
+    private static StrokePredictionResponse copy(StrokePredictionResponse prediction, String predictionTimestamp) {
+        StrokePredictionResponse copy = new StrokePredictionResponse(prediction.getStrokeRisk(),
+                prediction.getProbability(), prediction.getRiskLevel(), prediction.getPatientId(), predictionTimestamp);
+        copy.setModelVersion(prediction.getModelVersion());
+        return copy;
+    }
+}
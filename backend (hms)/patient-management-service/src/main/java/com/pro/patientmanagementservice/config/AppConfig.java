@@ -1,15 +1,21 @@
 package com.pro.patientmanagementservice.config;
 
-import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
 
 @Configuration
 public class AppConfig {
 
+    /**
+     * Resolves {@code http://<service-id>} URLs through Spring Cloud LoadBalancer, which
+     * round-robins over a cached copy of the Eureka instance list instead of querying
+     * discovery on every request.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @LoadBalanced
+    public RestClient.Builder loadBalancedRestClientBuilder() {
+        return RestClient.builder();
     }
-} 
\ No newline at end of file
+}
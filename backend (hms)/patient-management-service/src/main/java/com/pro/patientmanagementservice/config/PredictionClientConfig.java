@@ -0,0 +1,138 @@
+package com.pro.patientmanagementservice.config;
+
+import com.pro.patientmanagementservice.prediction.RemoteRiskModel;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Clients for the Python prediction models. All models share one connection pool; each gets its
+ * own response timeout, circuit breaker and bulkhead ({@code resilience4j.*.instances.<model>Prediction}),
+ * so a slow model cannot take connections or threads from the others.
+ */
+@Configuration
+@Slf4j
+public class PredictionClientConfig {
+
+    public static final String DIABETES_PREDICTION = "diabetesPrediction";
+    public static final String LIVER_DISEASE_PREDICTION = "liverDiseasePrediction";
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient predictionHttpClient(
+            @Value("${prediction.client.max-connections:100}") int maxConnections,
+            @Value("${prediction.client.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${prediction.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${prediction.client.read-timeout:5s}") Duration readTimeout,
+            @Value("${prediction.client.pool-acquire-timeout:1s}") Duration poolAcquireTimeout) {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnectionsPerRoute)
+                        .setDefaultConnectionConfig(connectionConfig)
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public RemoteRiskModel diabetesRiskModel(
+            @Qualifier("predictionHttpClient") CloseableHttpClient httpClient,
+            @LoadBalanced RestClient.Builder loadBalancedBuilder,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            @Value("${diabetes.prediction.use.discovery:false}") boolean useServiceDiscovery,
+            @Value("${diabetes.prediction.service.id:diabetes-prediction-service}") String serviceId,
+            @Value("${diabetes.prediction.service.url:http://localhost:8088}") String serviceUrl,
+            @Value("${diabetes.prediction.read-timeout:3s}") Duration readTimeout) {
+        return new RemoteRiskModel("diabetes",
+                restClient(httpClient, loadBalancedBuilder, useServiceDiscovery, serviceId, serviceUrl, readTimeout),
+                "/diabetes-prediction/predict",
+                "diabetes_risk",
+                circuitBreakerRegistry.circuitBreaker(DIABETES_PREDICTION),
+                bulkheadRegistry.bulkhead(DIABETES_PREDICTION));
+    }
+
+    @Bean
+    public RemoteRiskModel liverDiseaseRiskModel(
+            @Qualifier("predictionHttpClient") CloseableHttpClient httpClient,
+            @LoadBalanced RestClient.Builder loadBalancedBuilder,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            @Value("${liver.prediction.use.discovery:false}") boolean useServiceDiscovery,
+            @Value("${liver.prediction.service.id:liver-disease-prediction-service}") String serviceId,
+            @Value("${liver.prediction.service.url:http://localhost:8091}") String serviceUrl,
+            @Value("${liver.prediction.read-timeout:3s}") Duration readTimeout) {
+        return new RemoteRiskModel("liver",
+                restClient(httpClient, loadBalancedBuilder, useServiceDiscovery, serviceId, serviceUrl, readTimeout),
+                "/liver-disease-prediction/predict",
+                "liver_disease_risk",
+                circuitBreakerRegistry.circuitBreaker(LIVER_DISEASE_PREDICTION),
+                bulkheadRegistry.bulkhead(LIVER_DISEASE_PREDICTION));
+    }
+
+    /**
+     * Runs the per-model calls of a risk panel. Rejects instead of queueing without bound, so an
+     * overloaded panel fails fast rather than stacking request threads behind it.
+     */
+    @Bean(name = "predictionPanelExecutor")
+    public ThreadPoolTaskExecutor predictionPanelExecutor(@Value("${prediction.panel.threads:16}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("prediction-panel-");
+        return executor;
+    }
+
+    /**
+     * Builds a client for one model on the shared pool. Discovery resolves the logical service id
+     * per request; the direct URL must bypass the load balancer.
+     */
+    static RestClient restClient(CloseableHttpClient httpClient,
+                                 RestClient.Builder loadBalancedBuilder,
+                                 boolean useServiceDiscovery,
+                                 String serviceId,
+                                 String serviceUrl,
+                                 Duration readTimeout) {
+        RestClient.Builder builder = useServiceDiscovery ? loadBalancedBuilder.clone() : RestClient.builder();
+        String baseUrl = useServiceDiscovery ? "http://" + serviceId : serviceUrl;
+        log.info("Prediction client for {} targets {} (discovery: {})", serviceId, baseUrl, useServiceDiscovery);
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return builder
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+}
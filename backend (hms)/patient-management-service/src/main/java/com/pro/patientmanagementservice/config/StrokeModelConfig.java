@@ -0,0 +1,33 @@
+package com.pro.patientmanagementservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pro.patientmanagementservice.inference.StrokeModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads the exported stroke model when {@code stroke.prediction.mode=local}; in the default
+ * {@code remote} mode predictions keep going to stroke-prediction-service.
+ */
+@Configuration
+@Slf4j
+public class StrokeModelConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "stroke.prediction.mode", havingValue = "local")
+    public StrokeModel strokeModel(@Value("${stroke.prediction.local.model:classpath:models/stroke-model.json}") Resource model,
+                                   ObjectMapper objectMapper) throws IOException {
+        try (InputStream in = model.getInputStream()) {
+            StrokeModel strokeModel = StrokeModel.load(in, objectMapper);
+            log.info("Scoring stroke predictions in-process with model {} from {}", strokeModel.version(), model);
+            return strokeModel;
+        }
+    }
+}
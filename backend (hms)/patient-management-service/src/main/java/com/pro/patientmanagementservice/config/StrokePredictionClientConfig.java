@@ -0,0 +1,64 @@
+package com.pro.patientmanagementservice.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * HTTP client for the stroke prediction model, on the connection pool shared by all prediction
+ * models. The circuit breaker and bulkhead are configured under
+ * {@code resilience4j.*.instances.strokePrediction}.
+ */
+@Configuration
+public class StrokePredictionClientConfig {
+
+    public static final String STROKE_PREDICTION = "strokePrediction";
+
+    @Bean
+    public RestClient strokePredictionRestClient(
+            @Qualifier("predictionHttpClient") CloseableHttpClient httpClient,
+            @LoadBalanced RestClient.Builder loadBalancedBuilder,
+            @Value("${stroke.prediction.use.discovery:false}") boolean useServiceDiscovery,
+            @Value("${stroke.prediction.service.id:stroke-prediction-service}") String serviceId,
+            @Value("${stroke.prediction.service.url:http://localhost:8090}") String serviceUrl,
+            @Value("${stroke.prediction.read-timeout:5s}") Duration readTimeout) {
+        return PredictionClientConfig.restClient(httpClient, loadBalancedBuilder, useServiceDiscovery, serviceId, serviceUrl, readTimeout);
+    }
+
+    /**
+     * Shared pool for batch scoring chunks. Each batch request additionally caps its own
+     * in-flight chunks, so one large cohort cannot occupy every thread.
+     */
+    @Bean(name = "strokeBatchExecutor")
+    public ThreadPoolTaskExecutor strokeBatchExecutor(@Value("${stroke.prediction.batch.threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 16);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("stroke-batch-");
+        return executor;
+    }
+
+    @Bean
+    public CircuitBreaker strokePredictionCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return circuitBreakerRegistry.circuitBreaker(STROKE_PREDICTION);
+    }
+
+    @Bean
+    public Bulkhead strokePredictionBulkhead(BulkheadRegistry bulkheadRegistry) {
+        return bulkheadRegistry.bulkhead(STROKE_PREDICTION);
+    }
+}
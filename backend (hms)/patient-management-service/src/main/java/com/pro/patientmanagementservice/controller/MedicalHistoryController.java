@@ -0,0 +1,141 @@
+package com.pro.patientmanagementservice.controller;
+
+import com.pro.patientmanagementservice.dto.HistoryEntryDTO;
+import com.pro.patientmanagementservice.dto.MedicalHistoryDTO;
+import com.pro.patientmanagementservice.dto.UpdateMedicalHistoryDTO;
+import com.pro.patientmanagementservice.exception.InvalidIfMatchException;
+import com.pro.patientmanagementservice.model.Medication;
+import com.pro.patientmanagementservice.model.Surgery;
+import com.pro.patientmanagementservice.service.MedicalHistoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Element-level updates to a patient's medical history. Send the last seen version in
+ * {@code If-Match} to have the write rejected with 412 if someone else changed the history first.
+ */
+@RestController
+@RequestMapping("/patients/{patientId}/history")
+@RequiredArgsConstructor
+public class MedicalHistoryController {
+
+    private final MedicalHistoryService medicalHistoryService;
+
+    @PatchMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> patchMedicalHistory(@PathVariable Long patientId,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                 @RequestBody UpdateMedicalHistoryDTO updateMedicalHistoryDTO) {
+        return withETag(medicalHistoryService.patchMedicalHistory(patientId, updateMedicalHistoryDTO, parseVersion(ifMatch)));
+    }
+
+    @PostMapping("/medications")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> addMedication(@PathVariable Long patientId,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @RequestBody Medication medication) {
+        return withETag(medicalHistoryService.addMedication(patientId, medication, parseVersion(ifMatch)));
+    }
+
+    @PutMapping("/medications/{index}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> updateMedication(@PathVariable Long patientId,
+                                                              @PathVariable int index,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                              @RequestBody Medication medication) {
+        return withETag(medicalHistoryService.updateMedication(patientId, index, medication, parseVersion(ifMatch)));
+    }
+
+    @DeleteMapping("/medications")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> removeMedication(@PathVariable Long patientId,
+                                                              @RequestParam String medication,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(medicalHistoryService.removeMedication(patientId, medication, parseVersion(ifMatch)));
+    }
+
+    @PostMapping("/surgeries")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> addSurgery(@PathVariable Long patientId,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @RequestBody Surgery surgery) {
+        return withETag(medicalHistoryService.addSurgery(patientId, surgery, parseVersion(ifMatch)));
+    }
+
+    @PutMapping("/surgeries/{index}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> updateSurgery(@PathVariable Long patientId,
+                                                           @PathVariable int index,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @RequestBody Surgery surgery) {
+        return withETag(medicalHistoryService.updateSurgery(patientId, index, surgery, parseVersion(ifMatch)));
+    }
+
+    @DeleteMapping("/surgeries")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> removeSurgery(@PathVariable Long patientId,
+                                                           @RequestParam String surgery,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(medicalHistoryService.removeSurgery(patientId, surgery, parseVersion(ifMatch)));
+    }
+
+    @PostMapping("/allergies")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> addAllergy(@PathVariable Long patientId,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @Valid @RequestBody HistoryEntryDTO allergy) {
+        return withETag(medicalHistoryService.addAllergy(patientId, allergy.getValue(), parseVersion(ifMatch)));
+    }
+
+    @DeleteMapping("/allergies/{allergy}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> removeAllergy(@PathVariable Long patientId,
+                                                           @PathVariable String allergy,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(medicalHistoryService.removeAllergy(patientId, allergy, parseVersion(ifMatch)));
+    }
+
+    @PostMapping("/past-conditions")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> addPastCondition(@PathVariable Long patientId,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                              @Valid @RequestBody HistoryEntryDTO condition) {
+        return withETag(medicalHistoryService.addPastCondition(patientId, condition.getValue(), parseVersion(ifMatch)));
+    }
+
+    @DeleteMapping("/past-conditions/{condition}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<MedicalHistoryDTO> removePastCondition(@PathVariable Long patientId,
+                                                                 @PathVariable String condition,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(medicalHistoryService.removePastCondition(patientId, condition, parseVersion(ifMatch)));
+    }
+
+    private ResponseEntity<MedicalHistoryDTO> withETag(MedicalHistoryDTO medicalHistory) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (medicalHistory.getVersion() != null) {
+            response.eTag(String.valueOf(medicalHistory.getVersion()));
+        }
+        return response.body(medicalHistory);
+    }
+
+    // Accepts 3, "3" and W/"3"
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new InvalidIfMatchException("Invalid If-Match version: " + ifMatch);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.pro.patientmanagementservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pro.patientmanagementservice.dto.*;
 import com.pro.patientmanagementservice.service.PatientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/patients")
@@ -18,6 +25,7 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'PATIENT')")  // Add a PATIENT role
@@ -31,13 +39,26 @@ public class PatientController {
         }
     }
 
-    @GetMapping
+    @GetMapping(params = {"!limit", "!cursor"})
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
     public ResponseEntity<List<PatientProfileDTO>> getAllPatients() {
         List<PatientProfileDTO> patients = patientService.getAllPatients();
         return ResponseEntity.ok(patients);
     }
 
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<PatientPageDTO> getAllPatientsPage(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(patientService.getAllPatients(cursor, limit));
+    }
+
+    @GetMapping(params = {"!limit", "!cursor"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<StreamingResponseBody> streamAllPatients() {
+        return ndjson(out -> patientService.streamAllPatients(writeLine(out)));
+    }
+
     @GetMapping("/{patientId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR') or (hasRole('PATIENT') and @jwtUtils.getUserIdFromAuthentication(authentication) == #patientId)")
     public ResponseEntity<PatientProfileDTO> getPatientById(@PathVariable Long patientId) {
@@ -59,21 +80,49 @@ public class PatientController {
         return ResponseEntity.ok(patientDetails);
     }
 
-    @GetMapping("/status/{status}")
+    @GetMapping(value = "/status/{status}", params = {"!limit", "!cursor"})
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'DOCTOR')")
     public ResponseEntity<List<PatientProfileDTO>> getPatientsByStatus(@PathVariable String status) {
         List<PatientProfileDTO> patients = patientService.getPatientsByStatus(status);
         return ResponseEntity.ok(patients);
     }
 
+    @GetMapping("/status/{status}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'DOCTOR')")
+    public ResponseEntity<PatientPageDTO> getPatientsByStatusPage(@PathVariable String status,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(patientService.getPatientsByStatus(status, cursor, limit));
+    }
 
-    @GetMapping("/doctor/{doctorId}")
+    @GetMapping(value = "/status/{status}", params = {"!limit", "!cursor"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'DOCTOR')")
+    public ResponseEntity<StreamingResponseBody> streamPatientsByStatus(@PathVariable String status) {
+        return ndjson(out -> patientService.streamPatientsByStatus(status, writeLine(out)));
+    }
+
+
+    @GetMapping(value = "/doctor/{doctorId}", params = {"!limit", "!cursor"})
     @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCTOR') and @jwtUtils.getUserIdFromAuthentication(authentication) == #doctorId)")
     public ResponseEntity<List<PatientProfileDTO>> getPatientsByDoctor(@PathVariable Long doctorId) {
         List<PatientProfileDTO> patients = patientService.getPatientsByDoctor(doctorId);
         return ResponseEntity.ok(patients);
     }
 
+    @GetMapping("/doctor/{doctorId}")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCTOR') and @jwtUtils.getUserIdFromAuthentication(authentication) == #doctorId)")
+    public ResponseEntity<PatientPageDTO> getPatientsByDoctorPage(@PathVariable Long doctorId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(patientService.getPatientsByDoctor(doctorId, cursor, limit));
+    }
+
+    @GetMapping(value = "/doctor/{doctorId}", params = {"!limit", "!cursor"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCTOR') and @jwtUtils.getUserIdFromAuthentication(authentication) == #doctorId)")
+    public ResponseEntity<StreamingResponseBody> streamPatientsByDoctor(@PathVariable Long doctorId) {
+        return ndjson(out -> patientService.streamPatientsByDoctor(doctorId, writeLine(out)));
+    }
+
 
 
     @GetMapping("/blood-group/{bloodGroup}")
@@ -97,6 +146,12 @@ public class PatientController {
         return ResponseEntity.ok(deletedPatient);
     }
 
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsDTO> getProfileCacheStats() {
+        return ResponseEntity.ok(patientService.getProfileCacheStats());
+    }
+
     @GetMapping("/{patientId}/history")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'DOCTOR') or (hasRole('PATIENT') and @jwtUtils.getUserIdFromAuthentication(authentication) == #patientId)")
     public ResponseEntity<MedicalHistoryDTO> getMedicalHistory(@PathVariable Long patientId) {
@@ -104,4 +159,21 @@ public class PatientController {
         return ResponseEntity.ok(medicalHistory);
     }
 
-} 
\ No newline at end of file
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Writes one JSON document per line as rows come off each keyset batch
+    private Consumer<PatientProfileDTO> writeLine(OutputStream out) {
+        return profile -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(profile));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
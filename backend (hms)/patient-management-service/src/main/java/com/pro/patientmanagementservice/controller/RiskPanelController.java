@@ -0,0 +1,38 @@
+package com.pro.patientmanagementservice.controller;
+
+import com.pro.patientmanagementservice.dto.PredictionModelStatsDTO;
+import com.pro.patientmanagementservice.dto.RiskPanelDTO;
+import com.pro.patientmanagementservice.dto.RiskPanelRequestDTO;
+import com.pro.patientmanagementservice.prediction.PredictionClient;
+import com.pro.patientmanagementservice.service.RiskPanelService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Full risk panel across the stroke, diabetes and liver-disease models. The panel always answers
+ * 200 within its deadline; per-model statuses tell which predictions are missing and why.
+ */
+@RestController
+@RequestMapping("/patients")
+@RequiredArgsConstructor
+public class RiskPanelController {
+
+    private final RiskPanelService riskPanelService;
+    private final PredictionClient predictionClient;
+
+    @PostMapping("/risk-panel")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<RiskPanelDTO> assessRiskPanel(@RequestBody RiskPanelRequestDTO request) {
+        return ResponseEntity.ok(riskPanelService.assess(request));
+    }
+
+    @GetMapping("/predictions/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PredictionModelStatsDTO>> getPredictionStats() {
+        return ResponseEntity.ok(predictionClient.stats());
+    }
+}
@@ -1,16 +1,27 @@
 package com.pro.patientmanagementservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pro.patientmanagementservice.dto.CacheStatsDTO;
+import com.pro.patientmanagementservice.dto.StrokeBatchRequestDTO;
+import com.pro.patientmanagementservice.exception.StrokePredictionUnavailableException;
+import com.pro.patientmanagementservice.service.StrokeBatchService;
 import com.pro.patientmanagementservice.service.StrokePredictionService;
 import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
 import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 @RestController
 @RequestMapping("/patients")
 @RequiredArgsConstructor
@@ -19,6 +30,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class StrokeAssessmentController {
 
     private final StrokePredictionService strokePredictionService;
+    private final StrokeBatchService strokeBatchService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/stroke-assessment")
     public ResponseEntity<StrokePredictionResponse> assessStrokeRisk(
@@ -37,12 +50,41 @@ public class StrokeAssessmentController {
             
             return ResponseEntity.ok(response);
             
+        } catch (StrokePredictionUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error during stroke assessment", e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Scores a list of feature vectors or a doctor's / status cohort, streaming one NDJSON line
+     * per patient as each chunk completes.
+     */
+    @PostMapping(value = "/stroke-assessment/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
+    public ResponseEntity<StreamingResponseBody> assessStrokeRiskBatch(@RequestBody StrokeBatchRequestDTO request) {
+        strokeBatchService.validate(request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> strokeBatchService.scoreBatch(request, result -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(result));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+    }
+
+    @GetMapping("/stroke-assessment/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsDTO> getPredictionCacheStats() {
+        return ResponseEntity.ok(strokePredictionService.getPredictionCacheStats());
+    }
+
     @GetMapping("/stroke-assessment/health")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Stroke Assessment Service is running");
@@ -0,0 +1,27 @@
+package com.pro.patientmanagementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+
+    // Shared tier; zero when no shared cache is configured
+    private long sharedHits;
+    private long sharedMisses;
+
+    // Prediction caches only: model version of the cached entries and how often a new version flushed them
+    private String modelVersion;
+    private long invalidations;
+}
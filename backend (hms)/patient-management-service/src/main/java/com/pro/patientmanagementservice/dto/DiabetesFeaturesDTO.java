@@ -0,0 +1,33 @@
+package com.pro.patientmanagementservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Input of diabetes-prediction-service; property names match the model's training columns.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiabetesFeaturesDTO {
+    @JsonProperty("Pregnancies")
+    private int pregnancies;
+    @JsonProperty("Glucose")
+    private int glucose;
+    @JsonProperty("BloodPressure")
+    private int bloodPressure;
+    @JsonProperty("SkinThickness")
+    private int skinThickness;
+    @JsonProperty("Insulin")
+    private int insulin;
+    @JsonProperty("BMI")
+    private double bmi;
+    @JsonProperty("DiabetesPedigreeFunction")
+    private double diabetesPedigreeFunction;
+    @JsonProperty("Age")
+    private int age;
+}
@@ -0,0 +1,15 @@
+package com.pro.patientmanagementservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A single allergy or past condition
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryEntryDTO {
+    @NotBlank
+    private String value;
+}
@@ -0,0 +1,38 @@
+package com.pro.patientmanagementservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Input of liver-disease-prediction-service; property names match the model's training columns,
+ * including their original spelling.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiverFeaturesDTO {
+    @JsonProperty("Age")
+    private int age;
+    @JsonProperty("Gender")
+    private String gender;
+    @JsonProperty("Total_Bilirubin")
+    private double totalBilirubin;
+    @JsonProperty("Direct_Bilirubin")
+    private double directBilirubin;
+    @JsonProperty("Alkaline_Phosphotase")
+    private double alkalinePhosphotase;
+    @JsonProperty("Alamine_Aminotransferase")
+    private double alamineAminotransferase;
+    @JsonProperty("Aspartate_Aminotransferase")
+    private double aspartateAminotransferase;
+    @JsonProperty("Total_Protiens")
+    private double totalProtiens;
+    @JsonProperty("Albumin")
+    private double albumin;
+    @JsonProperty("Albumin_and_Globulin_Ratio")
+    private double albuminAndGlobulinRatio;
+}
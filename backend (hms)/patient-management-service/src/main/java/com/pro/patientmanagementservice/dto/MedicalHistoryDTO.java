@@ -19,4 +19,5 @@ public class MedicalHistoryDTO {
     private List<Medication> medications;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.pro.patientmanagementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientPageDTO {
+    private List<PatientProfileDTO> content;
+    // Opaque continuation token; null when there are no more rows
+    private String nextCursor;
+    private boolean hasMore;
+}
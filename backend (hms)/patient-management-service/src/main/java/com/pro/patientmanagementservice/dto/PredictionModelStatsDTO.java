@@ -0,0 +1,24 @@
+package com.pro.patientmanagementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PredictionModelStatsDTO {
+    private String model;
+    private long calls;
+    private long successes;
+    private long failures;
+
+    // Calls refused by the model's bulkhead or open circuit breaker without reaching it
+    private long rejections;
+    private double averageLatencyMs;
+    private long maxLatencyMs;
+    private String circuitBreakerState;
+    private int availableConcurrentCalls;
+}
@@ -0,0 +1,22 @@
+package com.pro.patientmanagementservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Result of a risk panel keyed by model name. {@code complete} is false when at least one
+ * requested model did not answer successfully before the deadline.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskPanelDTO {
+    private Map<String, RiskPredictionDTO> results;
+    private boolean complete;
+    private long elapsedMs;
+}
@@ -0,0 +1,15 @@
+package com.pro.patientmanagementservice.dto;
+
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import lombok.Data;
+
+/**
+ * Features for a full risk panel. Each model is scored when its features are present; at least
+ * one must be.
+ */
+@Data
+public class RiskPanelRequestDTO {
+    private StrokePredictionRequest stroke;
+    private DiabetesFeaturesDTO diabetes;
+    private LiverFeaturesDTO liver;
+}
@@ -0,0 +1,34 @@
+package com.pro.patientmanagementservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One model's answer in a risk panel, in the same shape for every model. Only {@code OK}
+ * results carry a prediction; the other statuses explain why it is missing.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RiskPredictionDTO {
+
+    public static final String OK = "OK";
+    public static final String SKIPPED = "SKIPPED";
+    public static final String TIMEOUT = "TIMEOUT";
+    public static final String UNAVAILABLE = "UNAVAILABLE";
+    public static final String ERROR = "ERROR";
+
+    private String model;
+    private String status;
+    private Integer risk;
+    private Double probability;
+    private String riskLevel;
+    private String modelVersion;
+    private String predictionTimestamp;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.pro.patientmanagementservice.dto;
+
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Either explicit feature vectors in {@code patients}, or a cohort selected by {@code doctorId}
+ * or {@code status}. For a cohort, features the patient record does not hold (work type,
+ * residence, glucose, smoking status, and anything missing from the history) come from
+ * {@code defaults}.
+ */
+@Data
+public class StrokeBatchRequestDTO {
+    private List<StrokePredictionRequest> patients;
+    private Long doctorId;
+    private String status;
+    private StrokePredictionRequest defaults;
+}
@@ -0,0 +1,25 @@
+package com.pro.patientmanagementservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a batch scoring stream. {@code index} refers to the position in an explicit
+ * request list, {@code userId} to a cohort member; exactly one of prediction and error is set.
+ * A line with neither index nor user id reports that the cohort was truncated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StrokeBatchResultDTO {
+    private Integer index;
+    private Long userId;
+    private StrokePredictionResponse prediction;
+    private String error;
+}
@@ -27,6 +27,54 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(MedicalHistoryVersionConflictException.class)
+    public ResponseEntity<ApiError> handleVersionConflict(MedicalHistoryVersionConflictException ex) {
+        ApiError error = new ApiError("VERSION_CONFLICT", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(InvalidIfMatchException.class)
+    public ResponseEntity<ApiError> handleInvalidIfMatch(InvalidIfMatchException ex) {
+        ApiError error = new ApiError("INVALID_IF_MATCH", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidCursor(InvalidCursorException ex) {
+        ApiError error = new ApiError("INVALID_CURSOR", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidBatchRequestException.class)
+    public ResponseEntity<ApiError> handleInvalidBatchRequest(InvalidBatchRequestException ex) {
+        ApiError error = new ApiError("INVALID_BATCH_REQUEST", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(StrokePredictionUnavailableException.class)
+    public ResponseEntity<ApiError> handleStrokePredictionUnavailable(StrokePredictionUnavailableException ex) {
+        ApiError error = new ApiError("STROKE_PREDICTION_UNAVAILABLE", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(InvalidStrokePredictionRequestException.class)
+    public ResponseEntity<ApiError> handleInvalidStrokePredictionRequest(InvalidStrokePredictionRequestException ex) {
+        ApiError error = new ApiError("INVALID_PREDICTION_REQUEST", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PredictionUnavailableException.class)
+    public ResponseEntity<ApiError> handlePredictionUnavailable(PredictionUnavailableException ex) {
+        ApiError error = new ApiError("PREDICTION_UNAVAILABLE", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(InvalidRiskPanelRequestException.class)
+    public ResponseEntity<ApiError> handleInvalidRiskPanelRequest(InvalidRiskPanelRequestException ex) {
+        ApiError error = new ApiError("INVALID_RISK_PANEL_REQUEST", ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex, WebRequest req) {
         List<String> errors = ex.getBindingResult()
@@ -0,0 +1,11 @@
+package com.pro.patientmanagementservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIfMatchException extends RuntimeException {
+    public InvalidIfMatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.pro.patientmanagementservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRiskPanelRequestException extends RuntimeException {
+    public InvalidRiskPanelRequestException(String message) {
+        super(message);
+    }
+}
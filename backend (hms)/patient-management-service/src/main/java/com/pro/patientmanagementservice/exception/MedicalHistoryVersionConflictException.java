@@ -0,0 +1,11 @@
+package com.pro.patientmanagementservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class MedicalHistoryVersionConflictException extends RuntimeException {
+    public MedicalHistoryVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.pro.patientmanagementservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PredictionUnavailableException extends RuntimeException {
+    public PredictionUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,204 @@
+package com.pro.patientmanagementservice.inference;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-process scorer for the stroke model exported by
+ * {@code stroke-prediction-service/scripts/export_model.py}. The exported pipeline is a
+ * logistic regression over raw numeric columns, one ordinal-encoded and several one-hot
+ * encoded categoricals, so scoring is a dot product and a sigmoid with no allocation beyond
+ * the response.
+ */
+public final class StrokeModel {
+
+    static final String FORMAT = "hms-linear-model/1";
+
+    private static final Map<String, ToDoubleFunction<StrokePredictionRequest>> NUMERIC_FIELDS = Map.of(
+            "age", StrokePredictionRequest::getAge,
+            "hypertension", StrokePredictionRequest::getHypertension,
+            "heart_disease", StrokePredictionRequest::getHeartDisease,
+            "avg_glucose_level", StrokePredictionRequest::getAvgGlucoseLevel,
+            "bmi", StrokePredictionRequest::getBmi);
+
+    private static final Map<String, Function<StrokePredictionRequest, String>> CATEGORICAL_FIELDS = Map.of(
+            "gender", StrokePredictionRequest::getGender,
+            "ever_married", StrokePredictionRequest::getEverMarried,
+            "work_type", StrokePredictionRequest::getWorkType,
+            "Residence_type", StrokePredictionRequest::getResidenceType,
+            "smoking_status", StrokePredictionRequest::getSmokingStatus);
+
+    private final String version;
+    private final double intercept;
+    private final double threshold;
+    private final List<ToDoubleFunction<StrokePredictionRequest>> numericValues;
+    private final double[] numericCoefficients;
+    private final List<Function<StrokePredictionRequest, String>> categoricalValues;
+    private final List<String> categoricalNames;
+    private final List<Map<String, Double>> categoricalContributions;
+    // Ordinal encoders reject unseen categories, one-hot encoders ignore them (contribute zero)
+    private final boolean[] rejectUnknown;
+
+    private StrokeModel(Definition definition) {
+        if (!FORMAT.equals(definition.getFormat())) {
+            throw new IllegalArgumentException("Unsupported stroke model format: " + definition.getFormat());
+        }
+        this.version = definition.getVersion();
+        this.intercept = definition.getIntercept();
+        this.threshold = definition.getThreshold();
+
+        this.numericValues = new ArrayList<>();
+        this.numericCoefficients = new double[definition.getNumeric().size()];
+        for (int i = 0; i < definition.getNumeric().size(); i++) {
+            NumericFeature feature = definition.getNumeric().get(i);
+            numericValues.add(field(NUMERIC_FIELDS, feature.getField()));
+            numericCoefficients[i] = feature.getCoefficient();
+        }
+
+        this.categoricalValues = new ArrayList<>();
+        this.categoricalNames = new ArrayList<>();
+        this.categoricalContributions = new ArrayList<>();
+        List<Boolean> reject = new ArrayList<>();
+        for (OrdinalFeature feature : definition.getOrdinal()) {
+            Map<String, Double> contributions = new HashMap<>();
+            for (int i = 0; i < feature.getCategories().size(); i++) {
+                contributions.put(feature.getCategories().get(i), i * feature.getCoefficient());
+            }
+            addCategorical(feature.getField(), contributions);
+            reject.add(true);
+        }
+        for (OneHotFeature feature : definition.getOneHot()) {
+            addCategorical(feature.getField(), new HashMap<>(feature.getCoefficients()));
+            reject.add(false);
+        }
+        this.rejectUnknown = new boolean[reject.size()];
+        for (int i = 0; i < reject.size(); i++) {
+            rejectUnknown[i] = reject.get(i);
+        }
+    }
+
+    public static StrokeModel load(InputStream json, ObjectMapper objectMapper) throws IOException {
+        return new StrokeModel(objectMapper.readValue(json, Definition.class));
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public double probability(StrokePredictionRequest request) {
+        validate(request);
+        double z = intercept;
+        for (int i = 0; i < numericCoefficients.length; i++) {
+            z += numericCoefficients[i] * numericValues.get(i).applyAsDouble(request);
+        }
+        for (int i = 0; i < categoricalValues.size(); i++) {
+            String value = categoricalValues.get(i).apply(request);
+            Double contribution = value == null ? null : categoricalContributions.get(i).get(value);
+            if (contribution != null) {
+                z += contribution;
+            } else if (rejectUnknown[i]) {
+                throw new IllegalArgumentException("Unknown " + categoricalNames.get(i) + ": " + value);
+            }
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    public StrokePredictionResponse predict(StrokePredictionRequest request) {
+        double probability = probability(request);
+        StrokePredictionResponse response = new StrokePredictionResponse(
+                probability > threshold ? 1 : 0,
+                probability,
+                riskLevel(probability),
+                null,
+                LocalDateTime.now(ZoneOffset.UTC).toString());
+        response.setModelVersion(version);
+        return response;
+    }
+
+    // Same bands as prediction_service.get_risk_level
+    static String riskLevel(double probability) {
+        if (probability >= 0.7) {
+            return "High Risk";
+        }
+        if (probability >= 0.3) {
+            return "Medium Risk";
+        }
+        return "Low Risk";
+    }
+
+    // Same bounds the FastAPI schema enforces, so both modes reject the same input
+    private static void validate(StrokePredictionRequest request) {
+        if (request.getAge() < 0 || request.getAge() > 120) {
+            throw new IllegalArgumentException("age must be between 0 and 120");
+        }
+        if (request.getHypertension() < 0 || request.getHypertension() > 1) {
+            throw new IllegalArgumentException("hypertension must be 0 or 1");
+        }
+        if (request.getHeartDisease() < 0 || request.getHeartDisease() > 1) {
+            throw new IllegalArgumentException("heart_disease must be 0 or 1");
+        }
+        if (request.getAvgGlucoseLevel() < 0 || request.getBmi() < 0) {
+            throw new IllegalArgumentException("avg_glucose_level and bmi must not be negative");
+        }
+    }
+
+    private void addCategorical(String name, Map<String, Double> contributions) {
+        categoricalValues.add(field(CATEGORICAL_FIELDS, name));
+        categoricalNames.add(name);
+        categoricalContributions.add(contributions);
+    }
+
+    private static <T> T field(Map<String, T> fields, String name) {
+        T accessor = fields.get(name);
+        if (accessor == null) {
+            throw new IllegalArgumentException("Stroke model uses unknown feature: " + name);
+        }
+        return accessor;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Definition {
+        private String format;
+        private String version;
+        private double intercept;
+        private double threshold = 0.5;
+        private List<NumericFeature> numeric = new ArrayList<>();
+        private List<OrdinalFeature> ordinal = new ArrayList<>();
+        private List<OneHotFeature> oneHot = new ArrayList<>();
+    }
+
+    @Data
+    static class NumericFeature {
+        private String field;
+        private double coefficient;
+    }
+
+    @Data
+    static class OrdinalFeature {
+        private String field;
+        private List<String> categories = new ArrayList<>();
+        private double coefficient;
+    }
+
+    @Data
+    static class OneHotFeature {
+        private String field;
+        private Map<String, Double> coefficients = new LinkedHashMap<>();
+    }
+}
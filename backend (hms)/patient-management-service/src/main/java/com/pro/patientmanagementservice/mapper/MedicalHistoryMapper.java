@@ -15,6 +15,8 @@ public interface MedicalHistoryMapper {
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "patientId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     void updateMedicalHistoryFromDto(UpdateMedicalHistoryDTO dto, @MappingTarget MedicalHistory entity);
@@ -0,0 +1,92 @@
+package com.pro.patientmanagementservice.migration;
+
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import com.pro.patientmanagementservice.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * One-off job that creates the missing medicalHistory documents for existing patients in bulk.
+ * Enable it for a single start-up with {@code patient.medical-history.backfill.enabled=true};
+ * it is idempotent, so running it again only fills new gaps.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.medical-history.backfill.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MedicalHistoryBackfillRunner implements ApplicationRunner {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final PatientRepository patientRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Starting medical history backfill");
+        long created = backfill();
+        log.info("Medical history backfill finished, created {} documents", created);
+    }
+
+    public long backfill() {
+        long created = 0;
+        long afterId = 0L;
+        List<Long> patientIds;
+        do {
+            patientIds = patientRepository.findIdsAfter(afterId, Limit.of(BATCH_SIZE));
+            if (patientIds.isEmpty()) {
+                break;
+            }
+            created += createMissing(patientIds);
+            afterId = patientIds.get(patientIds.size() - 1);
+        } while (patientIds.size() == BATCH_SIZE);
+        return created;
+    }
+
+    private long createMissing(List<Long> patientIds) {
+        Query existingQuery = Query.query(Criteria.where("patientId").in(patientIds));
+        existingQuery.fields().include("patientId");
+        Set<Long> existing = mongoTemplate.find(existingQuery, MedicalHistory.class).stream()
+                .map(MedicalHistory::getPatientId)
+                .collect(Collectors.toSet());
+
+        Instant now = Instant.now();
+        List<MedicalHistory> missing = patientIds.stream()
+                .filter(patientId -> !existing.contains(patientId))
+                .map(patientId -> MedicalHistory.builder()
+                        .patientId(patientId)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MedicalHistory.class)
+                    .insert(missing)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            // Documents created concurrently by a first write hit the unique patient_id index; skip them
+            log.warn("Skipped {} medical histories that already existed", e.getErrors().size());
+            return e.getResult().getInsertedCount();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -45,4 +46,7 @@ public class MedicalHistory {
 
     @Field("updated_at")
     private Instant updatedAt;
+
+    @Version
+    private Long version; // Incremented on every write; used for optimistic concurrency on partial updates
 } 
\ No newline at end of file
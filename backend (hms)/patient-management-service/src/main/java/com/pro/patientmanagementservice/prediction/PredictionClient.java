@@ -0,0 +1,94 @@
+package com.pro.patientmanagementservice.prediction;
+
+import com.pro.patientmanagementservice.dto.PredictionModelStatsDTO;
+import com.pro.patientmanagementservice.dto.RiskPredictionDTO;
+import com.pro.patientmanagementservice.exception.PredictionUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single entry point to every {@link RiskModel}. Records calls, outcomes and latency per model;
+ * resilience is left to each model's own breaker and bulkhead.
+ */
+@Component
+public class PredictionClient {
+
+    private final Map<String, RiskModel> models = new LinkedHashMap<>();
+    private final Map<String, Metrics> metrics = new LinkedHashMap<>();
+
+    public PredictionClient(List<RiskModel> riskModels) {
+        for (RiskModel model : riskModels) {
+            if (models.putIfAbsent(model.name(), model) != null) {
+                throw new IllegalStateException("Duplicate prediction model: " + model.name());
+            }
+            metrics.put(model.name(), new Metrics());
+        }
+    }
+
+    public List<String> modelNames() {
+        return List.copyOf(models.keySet());
+    }
+
+    public RiskPredictionDTO predict(String model, Object features) {
+        RiskModel riskModel = models.get(model);
+        if (riskModel == null) {
+            throw new IllegalArgumentException("Unknown prediction model: " + model);
+        }
+        Metrics m = metrics.get(model);
+        m.calls.increment();
+        long start = System.nanoTime();
+        try {
+            RiskPredictionDTO result = riskModel.predict(features);
+            m.successes.increment();
+            return result;
+        } catch (PredictionUnavailableException e) {
+            if (e.getCause() instanceof BulkheadFullException || e.getCause() instanceof CallNotPermittedException) {
+                m.rejections.increment();
+            } else {
+                m.failures.increment();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            m.failures.increment();
+            throw e;
+        } finally {
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            m.totalLatencyMs.add(elapsedMs);
+            m.maxLatencyMs.accumulate(elapsedMs);
+        }
+    }
+
+    public List<PredictionModelStatsDTO> stats() {
+        return models.values().stream().map(model -> {
+            Metrics m = metrics.get(model.name());
+            long calls = m.calls.sum();
+            return PredictionModelStatsDTO.builder()
+                    .model(model.name())
+                    .calls(calls)
+                    .successes(m.successes.sum())
+                    .failures(m.failures.sum())
+                    .rejections(m.rejections.sum())
+                    .averageLatencyMs(calls == 0 ? 0.0 : (double) m.totalLatencyMs.sum() / calls)
+                    .maxLatencyMs(m.maxLatencyMs.get())
+                    .circuitBreakerState(model.circuitBreaker().getState().name())
+                    .availableConcurrentCalls(model.bulkhead().getMetrics().getAvailableConcurrentCalls())
+                    .build();
+        }).toList();
+    }
+
+    private static final class Metrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder rejections = new LongAdder();
+        private final LongAdder totalLatencyMs = new LongAdder();
+        private final LongAccumulator maxLatencyMs = new LongAccumulator(Math::max, 0);
+    }
+}
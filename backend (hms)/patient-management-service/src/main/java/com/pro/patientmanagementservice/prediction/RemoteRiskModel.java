@@ -0,0 +1,95 @@
+package com.pro.patientmanagementservice.prediction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pro.patientmanagementservice.dto.RiskPredictionDTO;
+import com.pro.patientmanagementservice.exception.PredictionUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.util.function.Supplier;
+
+/**
+ * A FastAPI prediction service. The services share one response shape apart from the name of
+ * the binary risk field, which is configured per model.
+ */
+@Slf4j
+public class RemoteRiskModel implements RiskModel {
+
+    private final String name;
+    private final RestClient restClient;
+    private final String path;
+    private final String riskField;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public RemoteRiskModel(String name, RestClient restClient, String path, String riskField,
+                           CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.name = name;
+        this.restClient = restClient;
+        this.path = path;
+        this.riskField = riskField;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public RiskPredictionDTO predict(Object features) {
+        Supplier<JsonNode> call = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, () -> post(features)));
+        try {
+            return toPrediction(call.get());
+        } catch (BulkheadFullException | CallNotPermittedException e) {
+            log.warn("{} prediction rejected: {}", name, e.getMessage());
+            throw new PredictionUnavailableException(name + " prediction service is busy or unavailable", e);
+        } catch (ResourceAccessException e) {
+            log.error("{} prediction service unreachable or timed out", name, e);
+            throw new PredictionUnavailableException(name + " prediction service did not respond in time", e);
+        }
+    }
+
+    private JsonNode post(Object features) {
+        JsonNode result = restClient.post()
+                .uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(features)
+                .retrieve()
+                .body(JsonNode.class);
+        if (result == null || !result.hasNonNull(riskField)) {
+            throw new IllegalStateException("Unexpected response from " + name + " prediction service");
+        }
+        return result;
+    }
+
+    private RiskPredictionDTO toPrediction(JsonNode node) {
+        return RiskPredictionDTO.builder()
+                .model(name)
+                .status(RiskPredictionDTO.OK)
+                .risk(node.get(riskField).asInt())
+                .probability(node.hasNonNull("probability") ? node.get("probability").asDouble() : null)
+                .riskLevel(node.path("risk_level").asText(null))
+                .modelVersion(node.path("model_version").asText(null))
+                .predictionTimestamp(node.path("prediction_timestamp").asText(null))
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.pro.patientmanagementservice.prediction;
+
+import com.pro.patientmanagementservice.dto.RiskPredictionDTO;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+/**
+ * A prediction model behind its own circuit breaker and bulkhead. Implementations throw
+ * {@link com.pro.patientmanagementservice.exception.PredictionUnavailableException} when the
+ * model is rejecting calls or did not answer in time.
+ */
+public interface RiskModel {
+
+    /** Key of the model in risk panels and metrics. */
+    String name();
+
+    /** Scores one patient; the features are the model-specific request DTO. */
+    RiskPredictionDTO predict(Object features);
+
+    CircuitBreaker circuitBreaker();
+
+    Bulkhead bulkhead();
+}
@@ -0,0 +1,59 @@
+package com.pro.patientmanagementservice.prediction;
+
+import com.pro.patientmanagementservice.dto.RiskPredictionDTO;
+import com.pro.patientmanagementservice.service.StrokePredictionService;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stroke model in the panel, going through {@link StrokePredictionService} so panel requests
+ * share its prediction cache and in-process scoring mode.
+ */
+@Component
+public class StrokeRiskModel implements RiskModel {
+
+    private final StrokePredictionService strokePredictionService;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public StrokeRiskModel(StrokePredictionService strokePredictionService,
+                           @Qualifier("strokePredictionCircuitBreaker") CircuitBreaker circuitBreaker,
+                           @Qualifier("strokePredictionBulkhead") Bulkhead bulkhead) {
+        this.strokePredictionService = strokePredictionService;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public String name() {
+        return "stroke";
+    }
+
+    @Override
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public RiskPredictionDTO predict(Object features) {
+        StrokePredictionResponse response = strokePredictionService.predictStroke((StrokePredictionRequest) features);
+        return RiskPredictionDTO.builder()
+                .model(name())
+                .status(RiskPredictionDTO.OK)
+                .risk(response.getStrokeRisk())
+                .probability(response.getProbability())
+                .riskLevel(response.getRiskLevel())
+                .modelVersion(response.getModelVersion())
+                .predictionTimestamp(response.getPredictionTimestamp())
+                .build();
+    }
+}
@@ -4,10 +4,13 @@ import com.pro.patientmanagementservice.model.MedicalHistory;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MedicalHistoryRepository extends MongoRepository<MedicalHistory, String> {
+public interface MedicalHistoryRepository extends MongoRepository<MedicalHistory, String>, MedicalHistoryRepositoryCustom {
     Optional<MedicalHistory> findByPatientId(Long patientId);
     boolean existsByPatientId(Long patientId);
+    List<MedicalHistory> findByPatientIdIn(Collection<Long> patientIds);
 } 
\ No newline at end of file
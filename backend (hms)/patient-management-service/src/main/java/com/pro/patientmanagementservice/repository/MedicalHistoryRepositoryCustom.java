@@ -0,0 +1,19 @@
+package com.pro.patientmanagementservice.repository;
+
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+public interface MedicalHistoryRepositoryCustom {
+
+    /**
+     * Applies the update to the patient's medical history, creating the document if it does not exist yet.
+     */
+    MedicalHistory upsertByPatientId(Long patientId, Update update);
+
+    /**
+     * Applies the update only if the document exists, is at {@code expectedVersion} (when given) and
+     * matches {@code precondition} (when given). Returns the updated document, or null if nothing matched.
+     */
+    MedicalHistory updateByPatientId(Long patientId, Long expectedVersion, Criteria precondition, Update update);
+}
@@ -0,0 +1,52 @@
+package com.pro.patientmanagementservice.repository;
+
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+@RequiredArgsConstructor
+public class MedicalHistoryRepositoryImpl implements MedicalHistoryRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public MedicalHistory upsertByPatientId(Long patientId, Update update) {
+        Query query = Query.query(Criteria.where("patientId").is(patientId));
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        stampWrite(update);
+        try {
+            return mongoTemplate.findAndModify(query, update, options, MedicalHistory.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent first write created the document between our match and insert; it exists now
+            return mongoTemplate.findAndModify(query, update, options, MedicalHistory.class);
+        }
+    }
+
+    @Override
+    public MedicalHistory updateByPatientId(Long patientId, Long expectedVersion, Criteria precondition, Update update) {
+        Criteria criteria = Criteria.where("patientId").is(patientId);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+        Query query = Query.query(criteria);
+        if (precondition != null) {
+            query.addCriteria(precondition);
+        }
+        stampWrite(update);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), MedicalHistory.class);
+    }
+
+    private static void stampWrite(Update update) {
+        Instant now = Instant.now();
+        update.inc("version", 1)
+                .set("updatedAt", now)
+                .setOnInsert("createdAt", now);
+    }
+}
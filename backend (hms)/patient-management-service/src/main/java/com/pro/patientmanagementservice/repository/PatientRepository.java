@@ -1,7 +1,10 @@
 package com.pro.patientmanagementservice.repository;
 
 import com.pro.patientmanagementservice.model.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +19,12 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByMobile(String mobile);
     Optional<Patient> findByUserId(Long userId);
     boolean existsByMobile(String mobile);
+
+    // Keyset pagination on patients.id
+    List<Patient> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    List<Patient> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long id, Limit limit);
+    List<Patient> findByDoctorIdAndIdGreaterThanOrderByIdAsc(Long doctorId, Long id, Limit limit);
+
+    @Query("select p.id from Patient p where p.id > :afterId order by p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 } 
\ No newline at end of file
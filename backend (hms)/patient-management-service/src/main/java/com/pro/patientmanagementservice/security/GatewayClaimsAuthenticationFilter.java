@@ -0,0 +1,131 @@
+package com.pro.patientmanagementservice.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Authenticates requests from the claim headers the API gateway adds after verifying the JWT at
+ * the edge, so the token is not decoded again here. Headers whose HMAC does not match the shared
+ * claims secret, or that are past the token's expiry, are ignored and the request falls back to
+ * normal bearer token authentication.
+ */
+@Slf4j
+public class GatewayClaimsAuthenticationFilter extends OncePerRequestFilter {
+
+    static final String USER_ID = "X-Auth-User-Id";
+    static final String SUBJECT = "X-Auth-Subject";
+    static final String ROLES = "X-Auth-Roles";
+    static final String EXPIRES = "X-Auth-Expires";
+    static final String SIGNATURE = "X-Auth-Signature";
+
+    /** Request attribute marking requests already authenticated from gateway claims. */
+    static final String AUTHENTICATED = GatewayClaimsAuthenticationFilter.class.getName() + ".AUTHENTICATED";
+
+    private final SecretKeySpec key;
+
+    public GatewayClaimsAuthenticationFilter(byte[] secret) {
+        if (secret.length < 32) {
+            throw new IllegalArgumentException("Gateway claims secret must be at least 256 bits");
+        }
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String signature = request.getHeader(SIGNATURE);
+        if (signature != null) {
+            JwtAuthenticationToken authentication = authenticate(request, signature);
+            if (authentication != null) {
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+                request.setAttribute(AUTHENTICATED, Boolean.TRUE);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private JwtAuthenticationToken authenticate(HttpServletRequest request, String signature) {
+        String userId = request.getHeader(USER_ID);
+        String subject = request.getHeader(SUBJECT);
+        String roles = request.getHeader(ROLES);
+        String expires = request.getHeader(EXPIRES);
+
+        if (!MessageDigest.isEqual(sign(userId, subject, roles, expires).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII))) {
+            log.warn("Ignoring gateway claim headers with an invalid signature");
+            return null;
+        }
+        try {
+            return toAuthentication(userId, subject, roles, expires);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed gateway claim headers: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static JwtAuthenticationToken toAuthentication(String userId, String subject, String roles, String expires) {
+        Instant expiresAt = expires == null || expires.isEmpty() ? null : Instant.ofEpochSecond(Long.parseLong(expires));
+        if (expiresAt != null && !expiresAt.isAfter(Instant.now())) {
+            return null;
+        }
+
+        List<String> roleList = roles == null || roles.isEmpty() ? List.of() : Arrays.asList(roles.split(","));
+        // Same claims as the original token, so JwtUtils and @PreAuthorize work unchanged
+        Jwt.Builder jwt = Jwt.withTokenValue("gateway-verified")
+                .header("alg", "HS256")
+                .claim("roles", roleList);
+        if (subject != null) {
+            jwt.subject(subject);
+        }
+        if (userId != null && !userId.isEmpty()) {
+            jwt.claim("userId", Long.parseLong(userId));
+        }
+        if (expiresAt != null) {
+            jwt.expiresAt(expiresAt);
+        }
+        List<GrantedAuthority> authorities = roleList.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+        return new JwtAuthenticationToken(jwt.build(), authorities, subject);
+    }
+
+    // Must match the API gateway's ClaimsHeaderSigner
+    private String sign(String userId, String subject, String roles, String expires) {
+        String payload = String.join("\n", nullToEmpty(userId), nullToEmpty(subject), nullToEmpty(roles), nullToEmpty(expires));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to verify gateway claims", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -11,6 +11,9 @@ import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.crypto.spec.SecretKeySpec;
@@ -23,6 +26,12 @@ public class SecurityConfig {
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
+    @Value("${app.gateway-claims.enabled:false}")
+    private boolean gatewayClaimsEnabled;
+
+    @Value("${app.gateway-claims.secret:}")
+    private String gatewayClaimsSecret;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -40,6 +49,7 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
+                .bearerTokenResolver(bearerTokenResolver())
                 .jwt(jwt -> jwt
                     .decoder(jwtDecoder())
                     .jwtAuthenticationConverter(jwtAuthenticationConverter())
@@ -54,9 +64,25 @@ public class SecurityConfig {
                 )
             );
 
+        if (gatewayClaimsEnabled) {
+            http.addFilterBefore(new GatewayClaimsAuthenticationFilter(java.util.Base64.getDecoder().decode(gatewayClaimsSecret)),
+                    BearerTokenAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
+    /**
+     * Skips the bearer token when the request was already authenticated from gateway claims, so
+     * the JWT is not decoded a second time.
+     */
+    private BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver delegate = new DefaultBearerTokenResolver();
+        return request -> request.getAttribute(GatewayClaimsAuthenticationFilter.AUTHENTICATED) != null
+                ? null
+                : delegate.resolve(request);
+    }
+
     @Bean
     public JwtDecoder jwtDecoder() {
         // Decode the Base64-encoded secret to match authentication service
@@ -0,0 +1,126 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.cache.PatientProfileCache;
+import com.pro.patientmanagementservice.dto.MedicalHistoryDTO;
+import com.pro.patientmanagementservice.dto.UpdateMedicalHistoryDTO;
+import com.pro.patientmanagementservice.exception.MedicalHistoryVersionConflictException;
+import com.pro.patientmanagementservice.exception.ResourceNotFoundException;
+import com.pro.patientmanagementservice.mapper.MedicalHistoryMapper;
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import com.pro.patientmanagementservice.model.Medication;
+import com.pro.patientmanagementservice.model.Patient;
+import com.pro.patientmanagementservice.model.Surgery;
+import com.pro.patientmanagementservice.repository.MedicalHistoryRepository;
+import com.pro.patientmanagementservice.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Partial updates to a patient's medical history. Each change is a single atomic Mongo update
+ * ($set, $push, $addToSet, $pull) on the matching array element or field instead of a rewrite
+ * of the whole document. Every write bumps the document version; callers may pass the version
+ * they last read to reject concurrent modifications.
+ */
+@Service
+@RequiredArgsConstructor
+public class MedicalHistoryService {
+
+    private final PatientRepository patientRepository;
+    private final MedicalHistoryRepository medicalHistoryRepository;
+    private final MedicalHistoryMapper medicalHistoryMapper;
+    private final PatientProfileCache patientProfileCache;
+
+    public MedicalHistoryDTO patchMedicalHistory(Long patientId, UpdateMedicalHistoryDTO dto, Long expectedVersion) {
+        Update update = new Update();
+        setIfPresent(update, "height", dto.getHeight());
+        setIfPresent(update, "weight", dto.getWeight());
+        setIfPresent(update, "allergies", dto.getAllergies());
+        setIfPresent(update, "pastConditions", dto.getPastConditions());
+        setIfPresent(update, "surgeries", dto.getSurgeries());
+        setIfPresent(update, "medications", dto.getMedications());
+        return apply(patientId, expectedVersion, null, update);
+    }
+
+    public MedicalHistoryDTO addMedication(Long patientId, Medication medication, Long expectedVersion) {
+        return apply(patientId, expectedVersion, null, new Update().push("medications", medication));
+    }
+
+    public MedicalHistoryDTO updateMedication(Long patientId, int index, Medication medication, Long expectedVersion) {
+        String path = "medications." + index;
+        return apply(patientId, expectedVersion, Criteria.where(path).exists(true), new Update().set(path, medication));
+    }
+
+    public MedicalHistoryDTO removeMedication(Long patientId, String medication, Long expectedVersion) {
+        Update update = new Update().pull("medications", new Document("medication", medication));
+        return apply(patientId, expectedVersion, Criteria.where("medications.medication").is(medication), update);
+    }
+
+    public MedicalHistoryDTO addSurgery(Long patientId, Surgery surgery, Long expectedVersion) {
+        return apply(patientId, expectedVersion, null, new Update().push("surgeries", surgery));
+    }
+
+    public MedicalHistoryDTO updateSurgery(Long patientId, int index, Surgery surgery, Long expectedVersion) {
+        String path = "surgeries." + index;
+        return apply(patientId, expectedVersion, Criteria.where(path).exists(true), new Update().set(path, surgery));
+    }
+
+    public MedicalHistoryDTO removeSurgery(Long patientId, String surgery, Long expectedVersion) {
+        Update update = new Update().pull("surgeries", new Document("surgery", surgery));
+        return apply(patientId, expectedVersion, Criteria.where("surgeries.surgery").is(surgery), update);
+    }
+
+    public MedicalHistoryDTO addAllergy(Long patientId, String allergy, Long expectedVersion) {
+        return apply(patientId, expectedVersion, null, new Update().addToSet("allergies", allergy));
+    }
+
+    public MedicalHistoryDTO removeAllergy(Long patientId, String allergy, Long expectedVersion) {
+        return apply(patientId, expectedVersion, Criteria.where("allergies").is(allergy), new Update().pull("allergies", allergy));
+    }
+
+    public MedicalHistoryDTO addPastCondition(Long patientId, String condition, Long expectedVersion) {
+        return apply(patientId, expectedVersion, null, new Update().addToSet("pastConditions", condition));
+    }
+
+    public MedicalHistoryDTO removePastCondition(Long patientId, String condition, Long expectedVersion) {
+        return apply(patientId, expectedVersion, Criteria.where("pastConditions").is(condition), new Update().pull("pastConditions", condition));
+    }
+
+    private MedicalHistoryDTO apply(Long patientId, Long expectedVersion, Criteria precondition, Update update) {
+        Patient patient = patientRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
+
+        // Unguarded appends may create the document; guarded writes need an existing one to compare against
+        MedicalHistory updated = expectedVersion == null && precondition == null
+                ? medicalHistoryRepository.upsertByPatientId(patientId, update)
+                : medicalHistoryRepository.updateByPatientId(patientId, expectedVersion, precondition, update);
+
+        if (updated == null) {
+            throw rejection(patientId, expectedVersion);
+        }
+
+        patientProfileCache.invalidate(patientId, patient.getUserId());
+        return medicalHistoryMapper.toMedicalHistoryDTO(updated);
+    }
+
+    // Only runs after a guarded write matched nothing, to tell the caller why
+    private RuntimeException rejection(Long patientId, Long expectedVersion) {
+        MedicalHistory current = medicalHistoryRepository.findByPatientId(patientId).orElse(null);
+        if (current == null) {
+            return new ResourceNotFoundException("Medical history not found for patient id: " + patientId);
+        }
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            return new MedicalHistoryVersionConflictException("Medical history for patient id " + patientId
+                    + " is at version " + current.getVersion() + ", expected " + expectedVersion);
+        }
+        return new ResourceNotFoundException("Medical history entry not found for patient id: " + patientId);
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset position (last seen {@code patients.id}) as an opaque continuation token.
+ */
+final class PatientCursor {
+
+    private static final String PREFIX = "p1:";
+
+    private PatientCursor() {
+    }
+
+    static String encode(Long lastPatientId) {
+        String raw = PREFIX + lastPatientId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the id to continue after, or 0 for the first page.
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.pro.patientmanagementservice.service;
 
+import com.pro.patientmanagementservice.cache.PatientProfileCache;
 import com.pro.patientmanagementservice.dto.*;
 import com.pro.patientmanagementservice.exception.MobileAlreadyExistsException;
 import com.pro.patientmanagementservice.exception.ResourceNotFoundException;
@@ -10,38 +11,83 @@ import com.pro.patientmanagementservice.model.Patient;
 import com.pro.patientmanagementservice.repository.MedicalHistoryRepository;
 import com.pro.patientmanagementservice.repository.PatientRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PatientService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int STREAM_BATCH_SIZE = 500;
+
     private final PatientRepository patientRepository;
     private final MedicalHistoryRepository medicalHistoryRepository;
     private final PatientMapper patientMapper;
     private final MedicalHistoryMapper medicalHistoryMapper;
+    private final PatientProfileCache patientProfileCache;
 
     public PatientProfileDTO getPatientProfile(Long patientId) {
-        Patient patient = patientRepository.findById(patientId)
-                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
+        return patientProfileCache.getByPatientId(patientId, () -> {
+            Patient patient = patientRepository.findById(patientId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
+            return loadPatientProfile(patient);
+        });
+    }
 
+    private PatientProfileDTO loadPatientProfile(Patient patient) {
+        Long patientId = patient.getId();
         MedicalHistory medicalHistory = medicalHistoryRepository.findByPatientId(patientId)
-                .orElseGet(() -> {
-                    // Create a new medical history if it doesn't exist
-                    MedicalHistory newHistory = MedicalHistory.builder()
-                            .patientId(patientId)
-                            .createdAt(Instant.now())
-                            .updatedAt(Instant.now())
-                            .build();
-                    return medicalHistoryRepository.save(newHistory);
-                });
+                .orElseGet(() -> emptyMedicalHistory(patientId));
+
+        return toPatientProfileDTO(patient, medicalHistory);
+    }
+
+    /**
+     * Assembles profiles for a batch of patients with a single {@code $in} lookup on
+     * {@code patient_id} instead of one Postgres and one Mongo round trip per row.
+     */
+    private List<PatientProfileDTO> toPatientProfiles(List<Patient> patients) {
+        if (patients.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> patientIds = patients.stream()
+                .map(Patient::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, MedicalHistory> historiesByPatientId = medicalHistoryRepository.findByPatientIdIn(patientIds).stream()
+                .collect(Collectors.toMap(MedicalHistory::getPatientId, Function.identity(), (first, second) -> first));
+
+        return patients.stream()
+                .map(patient -> toPatientProfileDTO(patient, historiesByPatientId.computeIfAbsent(
+                        patient.getId(), PatientService::emptyMedicalHistory)))
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Stands in for a medical history document that has not been written yet. Reads never
+     * create the document; the first write upserts it.
+     */
+    private static MedicalHistory emptyMedicalHistory(Long patientId) {
+        return MedicalHistory.builder()
+                .patientId(patientId)
+                .build();
+    }
+
+    private PatientProfileDTO toPatientProfileDTO(Patient patient, MedicalHistory medicalHistory) {
         return PatientProfileDTO.builder()
                 .userId(patient.getUserId())
                 .firstName(patient.getFirstName())
@@ -113,10 +159,15 @@ public class PatientService {
     }
 
     public List<PatientProfileDTO> getAllPatients() {
-        List<Patient> patients = patientRepository.findAll();
-        return patients.stream()
-                .map(patient -> getPatientProfile(patient.getId()))
-                .collect(Collectors.toList());
+        return toPatientProfiles(patientRepository.findAll());
+    }
+
+    public PatientPageDTO getAllPatients(String cursor, Integer limit) {
+        return getPatientPage(cursor, limit, patientRepository::findByIdGreaterThanOrderByIdAsc);
+    }
+
+    public void streamAllPatients(Consumer<PatientProfileDTO> sink) {
+        streamPatients(sink, Integer.MAX_VALUE, patientRepository::findByIdGreaterThanOrderByIdAsc);
     }
 
     public PatientProfileDTO getPatientById(Long patientId) {
@@ -124,9 +175,15 @@ public class PatientService {
     }
 
     public PatientProfileDTO getPatientByUserId(Long userId) {
-        Patient patient = patientRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with user id: " + userId));
-        return getPatientProfile(patient.getId());
+        return patientProfileCache.getByUserId(userId, () -> {
+            Patient patient = patientRepository.findByUserId(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Patient not found with user id: " + userId));
+            return loadPatientProfile(patient);
+        });
+    }
+
+    public CacheStatsDTO getProfileCacheStats() {
+        return patientProfileCache.stats();
     }
 
     public PatientDetailsDTO getPatientDetailsById(Long patientId) {
@@ -134,15 +191,7 @@ public class PatientService {
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with id: " + patientId));
 
         MedicalHistory medicalHistory = medicalHistoryRepository.findByPatientId(patientId)
-                .orElseGet(() -> {
-                    // Create a new medical history if it doesn't exist
-                    MedicalHistory newHistory = MedicalHistory.builder()
-                            .patientId(patientId)
-                            .createdAt(Instant.now())
-                            .updatedAt(Instant.now())
-                            .build();
-                    return medicalHistoryRepository.save(newHistory);
-                });
+                .orElseGet(() -> emptyMedicalHistory(patientId));
 
         return new PatientDetailsDTO(
                 patientMapper.toPatientDTO(patient),
@@ -151,15 +200,86 @@ public class PatientService {
     }
 
     public List<PatientProfileDTO> getPatientsByStatus(String status) {
-        return patientRepository.findByStatus(status).stream()
-                .map(patient -> getPatientProfile(patient.getId()))
-                .collect(Collectors.toList());
+        return toPatientProfiles(patientRepository.findByStatus(status));
     }
 
     public List<PatientProfileDTO> getPatientsByDoctor(Long doctorId) {
-        return patientRepository.findByDoctorId(doctorId).stream()
-                .map(patient -> getPatientProfile(patient.getId()))
-                .collect(Collectors.toList());
+        return toPatientProfiles(patientRepository.findByDoctorId(doctorId));
+    }
+
+    public PatientPageDTO getPatientsByStatus(String status, String cursor, Integer limit) {
+        return getPatientPage(cursor, limit,
+                (afterId, pageLimit) -> patientRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, pageLimit));
+    }
+
+    public void streamPatientsByStatus(String status, Consumer<PatientProfileDTO> sink) {
+        streamPatientsByStatus(status, Integer.MAX_VALUE, sink);
+    }
+
+    /**
+     * Streams at most {@code limit} patients; no rows beyond the limit are read.
+     */
+    public void streamPatientsByStatus(String status, int limit, Consumer<PatientProfileDTO> sink) {
+        streamPatients(sink, limit,
+                (afterId, pageLimit) -> patientRepository.findByStatusAndIdGreaterThanOrderByIdAsc(status, afterId, pageLimit));
+    }
+
+    public PatientPageDTO getPatientsByDoctor(Long doctorId, String cursor, Integer limit) {
+        return getPatientPage(cursor, limit,
+                (afterId, pageLimit) -> patientRepository.findByDoctorIdAndIdGreaterThanOrderByIdAsc(doctorId, afterId, pageLimit));
+    }
+
+    public void streamPatientsByDoctor(Long doctorId, Consumer<PatientProfileDTO> sink) {
+        streamPatientsByDoctor(doctorId, Integer.MAX_VALUE, sink);
+    }
+
+    /**
+     * Streams at most {@code limit} patients; no rows beyond the limit are read.
+     */
+    public void streamPatientsByDoctor(Long doctorId, int limit, Consumer<PatientProfileDTO> sink) {
+        streamPatients(sink, limit,
+                (afterId, pageLimit) -> patientRepository.findByDoctorIdAndIdGreaterThanOrderByIdAsc(doctorId, afterId, pageLimit));
+    }
+
+    /**
+     * Reads one keyset page. One extra row is fetched to tell whether another page exists.
+     */
+    private PatientPageDTO getPatientPage(String cursor, Integer limit, BiFunction<Long, Limit, List<Patient>> query) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Patient> patients = query.apply(PatientCursor.decode(cursor), Limit.of(pageSize + 1));
+
+        boolean hasMore = patients.size() > pageSize;
+        List<Patient> page = hasMore ? patients.subList(0, pageSize) : patients;
+
+        return PatientPageDTO.builder()
+                .content(toPatientProfiles(page))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? PatientCursor.encode(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+
+    /**
+     * Walks the keyset in fixed-size batches and hands each profile to the sink as soon as its
+     * batch is assembled, so memory stays bounded by the batch size rather than the result size.
+     */
+    private void streamPatients(Consumer<PatientProfileDTO> sink, int limit, BiFunction<Long, Limit, List<Patient>> query) {
+        long afterId = 0L;
+        int remaining = limit;
+        List<Patient> batch;
+        int batchSize;
+        do {
+            batchSize = Math.min(STREAM_BATCH_SIZE, remaining);
+            if (batchSize <= 0) {
+                return;
+            }
+            batch = query.apply(afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            toPatientProfiles(batch).forEach(sink);
+            afterId = batch.get(batch.size() - 1).getId();
+            remaining -= batch.size();
+        } while (batch.size() == batchSize);
     }
 
     public List<PatientDTO> getPatientsByBloodGroup(String bloodGroup) {
@@ -181,6 +301,7 @@ public class PatientService {
 
         patientMapper.updatePatientFromDto(updatePatientDTO, patient);
         Patient updatedPatient = patientRepository.save(patient);
+        patientProfileCache.invalidate(patientId, patient.getUserId());
         return patientMapper.toPatientDTO(updatedPatient);
     }
 
@@ -213,18 +334,16 @@ public class PatientService {
         patient.setDischargeDate(patientProfileDTO.getDischargeDate());
         patientRepository.save(patient);
 
-        // 2. Find and update MedicalHistory
-        MedicalHistory medicalHistory = medicalHistoryRepository.findByPatientId(patientId)
-                .orElseThrow(() -> new ResourceNotFoundException("Medical history not found for patient id: " + patientId));
-
-        medicalHistory.setHeight(patientProfileDTO.getHeight());
-        medicalHistory.setWeight(patientProfileDTO.getWeight());
-        medicalHistory.setAllergies(patientProfileDTO.getAllergies());
-        medicalHistory.setPastConditions(patientProfileDTO.getPastConditions());
-        medicalHistory.setSurgeries(patientProfileDTO.getSurgeries());
-        medicalHistory.setMedications(patientProfileDTO.getMedications());
-        medicalHistory.setUpdatedAt(Instant.now());
-        medicalHistoryRepository.save(medicalHistory);
+        // 2. Update MedicalHistory, creating it on first write
+        Update medicalHistoryUpdate = new Update()
+                .set("height", patientProfileDTO.getHeight())
+                .set("weight", patientProfileDTO.getWeight())
+                .set("allergies", patientProfileDTO.getAllergies())
+                .set("pastConditions", patientProfileDTO.getPastConditions())
+                .set("surgeries", patientProfileDTO.getSurgeries())
+                .set("medications", patientProfileDTO.getMedications());
+        medicalHistoryRepository.upsertByPatientId(patientId, medicalHistoryUpdate);
+        patientProfileCache.invalidate(patientId, patient.getUserId());
 
         return patientProfileDTO;
     }
@@ -235,6 +354,7 @@ public class PatientService {
 
         medicalHistoryRepository.findByPatientId(patientId).ifPresent(medicalHistoryRepository::delete);
         patientRepository.deleteById(patientId);
+        patientProfileCache.invalidate(patientId, patientProfile.getUserId());
 
         return patientProfile;
     }
@@ -266,15 +386,7 @@ public class PatientService {
         }
 
         MedicalHistory medicalHistory = medicalHistoryRepository.findByPatientId(patientId)
-                .orElseGet(() -> {
-                    // Create a new medical history if it doesn't exist
-                    MedicalHistory newHistory = MedicalHistory.builder()
-                            .patientId(patientId)
-                            .createdAt(Instant.now())
-                            .updatedAt(Instant.now())
-                            .build();
-                    return medicalHistoryRepository.save(newHistory);
-                });
+                .orElseGet(() -> emptyMedicalHistory(patientId));
 
         return medicalHistoryMapper.toMedicalHistoryDTO(medicalHistory);
     }
@@ -0,0 +1,125 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.dto.RiskPanelDTO;
+import com.pro.patientmanagementservice.dto.RiskPanelRequestDTO;
+import com.pro.patientmanagementservice.dto.RiskPredictionDTO;
+import com.pro.patientmanagementservice.exception.InvalidRiskPanelRequestException;
+import com.pro.patientmanagementservice.exception.PredictionUnavailableException;
+import com.pro.patientmanagementservice.prediction.PredictionClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scores a patient against every prediction model at once. The models are called in parallel,
+ * so the panel takes as long as the slowest model rather than the sum of all of them, and never
+ * longer than the panel deadline: models that have not answered by then are reported as
+ * {@code TIMEOUT} next to the results that did arrive.
+ */
+@Service
+@Slf4j
+public class RiskPanelService {
+
+    private final PredictionClient predictionClient;
+    private final Executor executor;
+    private final Duration deadline;
+
+    public RiskPanelService(PredictionClient predictionClient,
+                            @Qualifier("predictionPanelExecutor") Executor executor,
+                            @Value("${prediction.panel.deadline:3s}") Duration deadline) {
+        this.predictionClient = predictionClient;
+        this.executor = executor;
+        this.deadline = deadline;
+    }
+
+    public RiskPanelDTO assess(RiskPanelRequestDTO request) {
+        Map<String, Object> features = new LinkedHashMap<>();
+        features.put("stroke", request.getStroke());
+        features.put("diabetes", request.getDiabetes());
+        features.put("liver", request.getLiver());
+        if (features.values().stream().allMatch(f -> f == null)) {
+            throw new InvalidRiskPanelRequestException("Provide features for at least one of stroke, diabetes or liver");
+        }
+
+        long start = System.nanoTime();
+        Map<String, CompletableFuture<RiskPredictionDTO>> pending = new LinkedHashMap<>();
+        Map<String, RiskPredictionDTO> results = new LinkedHashMap<>();
+        features.forEach((model, input) -> {
+            if (input == null) {
+                results.put(model, status(model, RiskPredictionDTO.SKIPPED, null));
+                return;
+            }
+            try {
+                pending.put(model, CompletableFuture.supplyAsync(() -> predictionClient.predict(model, input), executor));
+            } catch (RejectedExecutionException e) {
+                results.put(model, status(model, RiskPredictionDTO.UNAVAILABLE, "Prediction panel is at capacity"));
+            }
+        });
+
+        awaitAll(pending);
+
+        boolean complete = results.values().stream().noneMatch(r -> RiskPredictionDTO.UNAVAILABLE.equals(r.getStatus()));
+        for (Map.Entry<String, CompletableFuture<RiskPredictionDTO>> entry : pending.entrySet()) {
+            RiskPredictionDTO result = outcome(entry.getKey(), entry.getValue());
+            complete &= RiskPredictionDTO.OK.equals(result.getStatus());
+            results.put(entry.getKey(), result);
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Risk panel finished in {} ms (complete: {})", elapsedMs, complete);
+        return RiskPanelDTO.builder()
+                .results(results)
+                .complete(complete)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    private void awaitAll(Map<String, CompletableFuture<RiskPredictionDTO>> pending) {
+        try {
+            CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+                    .get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Individual outcomes are read per future below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static RiskPredictionDTO outcome(String model, CompletableFuture<RiskPredictionDTO> future) {
+        if (!future.isDone()) {
+            // The call itself stays bounded by the model's read timeout; the panel just stops waiting
+            future.cancel(true);
+            return status(model, RiskPredictionDTO.TIMEOUT, "No response within the panel deadline");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof PredictionUnavailableException) {
+                return status(model, RiskPredictionDTO.UNAVAILABLE, cause.getMessage());
+            }
+            log.warn("{} prediction failed in risk panel: {}", model, cause.getMessage());
+            return status(model, RiskPredictionDTO.ERROR, cause.getMessage());
+        }
+    }
+
+    private static RiskPredictionDTO status(String model, String status, String error) {
+        return RiskPredictionDTO.builder()
+                .model(model)
+                .status(status)
+                .error(error)
+                .build();
+    }
+}
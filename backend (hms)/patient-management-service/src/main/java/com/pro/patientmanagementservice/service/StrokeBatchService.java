@@ -0,0 +1,203 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import com.pro.patientmanagementservice.dto.StrokeBatchRequestDTO;
+import com.pro.patientmanagementservice.dto.StrokeBatchResultDTO;
+import com.pro.patientmanagementservice.exception.InvalidBatchRequestException;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Scores many patients by splitting them into chunks that are each sent as one batch
+ * prediction. At most {@code parallelism} chunks of a request are in flight at a time, and
+ * results are handed to the sink as each chunk completes, always on the calling thread.
+ * A cohort is read up to {@code max-patients}; if it has more members, they are not read and a
+ * single line without index or user id reports the truncation after the last result.
+ */
+@Service
+@Slf4j
+public class StrokeBatchService {
+
+    private final StrokePredictionService strokePredictionService;
+    private final PatientService patientService;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxPatients;
+
+    public StrokeBatchService(StrokePredictionService strokePredictionService,
+                              PatientService patientService,
+                              @Qualifier("strokeBatchExecutor") Executor executor,
+                              @Value("${stroke.prediction.batch.chunk-size:100}") int chunkSize,
+                              @Value("${stroke.prediction.batch.parallelism:4}") int parallelism,
+                              @Value("${stroke.prediction.batch.max-patients:5000}") int maxPatients) {
+        this.strokePredictionService = strokePredictionService;
+        this.patientService = patientService;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.maxPatients = maxPatients;
+    }
+
+    /**
+     * Rejects malformed requests up front, before the response stream is committed.
+     */
+    public void validate(StrokeBatchRequestDTO request) {
+        int selectors = (request.getPatients() != null ? 1 : 0)
+                + (request.getDoctorId() != null ? 1 : 0)
+                + (request.getStatus() != null ? 1 : 0);
+        if (selectors != 1) {
+            throw new InvalidBatchRequestException("Provide exactly one of patients, doctorId or status");
+        }
+        if (request.getPatients() != null && request.getPatients().size() > maxPatients) {
+            throw new InvalidBatchRequestException("At most " + maxPatients + " patients can be scored per request");
+        }
+        if (request.getPatients() == null && request.getDefaults() == null) {
+            throw new InvalidBatchRequestException("Cohort scoring requires defaults for features not held in patient records");
+        }
+    }
+
+    public void scoreBatch(StrokeBatchRequestDTO request, Consumer<StrokeBatchResultDTO> sink) {
+        validate(request);
+        Run run = new Run(sink);
+
+        if (request.getPatients() != null) {
+            List<StrokePredictionRequest> patients = request.getPatients();
+            for (int i = 0; i < patients.size(); i++) {
+                run.add(StrokeBatchResultDTO.builder().index(i).build(), patients.get(i));
+            }
+        } else {
+            LocalDate today = LocalDate.now();
+            // One row past the cap tells a cohort that fits apart from one that was cut off
+            int limit = maxPatients + 1;
+            Consumer<PatientProfileDTO> cohort = profile -> run.addProfile(profile, request.getDefaults(), today);
+            if (request.getDoctorId() != null) {
+                patientService.streamPatientsByDoctor(request.getDoctorId(), limit, cohort);
+            } else {
+                patientService.streamPatientsByStatus(request.getStatus(), limit, cohort);
+            }
+        }
+        run.finish();
+    }
+
+    /**
+     * State of one batch request: the chunk being filled and the chunks in flight.
+     */
+    private final class Run {
+
+        private final Consumer<StrokeBatchResultDTO> sink;
+        private final CompletionService<List<StrokeBatchResultDTO>> completion = new ExecutorCompletionService<>(executor);
+        private List<StrokeBatchResultDTO> keys = new ArrayList<>(chunkSize);
+        private List<StrokePredictionRequest> features = new ArrayList<>(chunkSize);
+        private int inFlight;
+        private int read;
+
+        private Run(Consumer<StrokeBatchResultDTO> sink) {
+            this.sink = sink;
+        }
+
+        void addProfile(PatientProfileDTO profile, StrokePredictionRequest defaults, LocalDate today) {
+            if (++read > maxPatients) {
+                return;
+            }
+            StrokeBatchResultDTO key = StrokeBatchResultDTO.builder().userId(profile.getUserId()).build();
+            StrokePredictionRequest request;
+            try {
+                request = StrokeCohortFeatures.from(profile, defaults, today);
+            } catch (IllegalArgumentException e) {
+                key.setError(e.getMessage());
+                sink.accept(key);
+                return;
+            }
+            add(key, request);
+        }
+
+        void add(StrokeBatchResultDTO key, StrokePredictionRequest request) {
+            keys.add(key);
+            features.add(request);
+            if (keys.size() == chunkSize) {
+                submit();
+            }
+        }
+
+        void finish() {
+            if (!keys.isEmpty()) {
+                submit();
+            }
+            while (inFlight > 0) {
+                drainOne();
+            }
+            if (read > maxPatients) {
+                log.warn("Stroke batch cohort truncated at {} patients", maxPatients);
+                sink.accept(StrokeBatchResultDTO.builder()
+                        .error("Cohort has more than " + maxPatients + " patients; only the first " + maxPatients + " were scored")
+                        .build());
+            }
+        }
+
+        private void submit() {
+            while (inFlight >= parallelism) {
+                drainOne();
+            }
+            List<StrokeBatchResultDTO> chunkKeys = keys;
+            List<StrokePredictionRequest> chunkFeatures = features;
+            keys = new ArrayList<>(chunkSize);
+            features = new ArrayList<>(chunkSize);
+
+            completion.submit(() -> score(chunkKeys, chunkFeatures));
+            inFlight++;
+        }
+
+        private void drainOne() {
+            Future<List<StrokeBatchResultDTO>> done;
+            try {
+                done = completion.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for stroke batch results", e);
+            }
+            inFlight--;
+            try {
+                done.get().forEach(sink);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for stroke batch results", e);
+            } catch (ExecutionException e) {
+                // score() reports failures per item, so this only happens on programming errors
+                throw new IllegalStateException("Stroke batch chunk failed", e.getCause());
+            }
+        }
+    }
+
+    private List<StrokeBatchResultDTO> score(List<StrokeBatchResultDTO> keys, List<StrokePredictionRequest> features) {
+        try {
+            List<StrokePredictionResponse> predictions = strokePredictionService.predictStrokeBatch(features);
+            for (int i = 0; i < keys.size(); i++) {
+                StrokePredictionResponse prediction = predictions.get(i);
+                if (prediction.getError() != null) {
+                    keys.get(i).setError(prediction.getError());
+                } else {
+                    keys.get(i).setPrediction(prediction);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Stroke batch chunk of {} patients failed: {}", keys.size(), e.getMessage());
+            keys.forEach(key -> key.setError(e.getMessage()));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,68 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds model features from a patient profile. Age, gender, marital status, BMI and the
+ * hypertension / heart-disease flags come from the record; everything else from the caller's
+ * defaults.
+ */
+final class StrokeCohortFeatures {
+
+    private StrokeCohortFeatures() {
+    }
+
+    static StrokePredictionRequest from(PatientProfileDTO profile, StrokePredictionRequest defaults, LocalDate today) {
+        if (profile.getDateOfBirth() == null) {
+            throw new IllegalArgumentException("date of birth is not recorded");
+        }
+        return new StrokePredictionRequest(
+                profile.getGender() != null ? profile.getGender() : defaults.getGender(),
+                Period.between(profile.getDateOfBirth(), today).getYears(),
+                hasCondition(profile.getPastConditions(), "hypertension", "high blood pressure") ? 1 : defaults.getHypertension(),
+                hasCondition(profile.getPastConditions(), "heart disease", "coronary", "heart failure") ? 1 : defaults.getHeartDisease(),
+                everMarried(profile.getMaritalStatus(), defaults.getEverMarried()),
+                defaults.getWorkType(),
+                defaults.getResidenceType(),
+                defaults.getAvgGlucoseLevel(),
+                bmi(profile.getHeight(), profile.getWeight(), defaults.getBmi()),
+                defaults.getSmokingStatus());
+    }
+
+    private static boolean hasCondition(List<String> conditions, String... keywords) {
+        if (conditions == null) {
+            return false;
+        }
+        for (String condition : conditions) {
+            String normalized = condition == null ? "" : condition.toLowerCase(Locale.ROOT);
+            for (String keyword : keywords) {
+                if (normalized.contains(keyword)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String everMarried(String maritalStatus, String fallback) {
+        if (maritalStatus == null || maritalStatus.isBlank()) {
+            return fallback;
+        }
+        return "single".equalsIgnoreCase(maritalStatus.trim()) ? "No" : "Yes";
+    }
+
+    // Height is accepted in centimetres or metres
+    private static double bmi(Double height, Double weight, double fallback) {
+        if (height == null || weight == null || height <= 0 || weight <= 0) {
+            return fallback;
+        }
+        double metres = height > 3 ? height / 100 : height;
+        return weight / (metres * metres);
+    }
+}
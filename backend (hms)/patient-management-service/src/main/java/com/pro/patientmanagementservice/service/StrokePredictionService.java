@@ -1,91 +1,155 @@
 package com.pro.patientmanagementservice.service;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.RequiredArgsConstructor;
+import com.pro.patientmanagementservice.cache.StrokePredictionCache;
+import com.pro.patientmanagementservice.dto.CacheStatsDTO;
+import com.pro.patientmanagementservice.exception.InvalidStrokePredictionRequestException;
+import com.pro.patientmanagementservice.exception.StrokePredictionUnavailableException;
+import com.pro.patientmanagementservice.inference.StrokeModel;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
+/**
+ * Calls the Python stroke prediction model. Calls go through a bulkhead, which rejects
+ * immediately once the concurrency limit is reached instead of queueing request threads, and a
+ * circuit breaker that stops calling the model while it is failing or slow.
+ * With {@code stroke.prediction.mode=local} the exported model is scored in-process instead.
+ * Single predictions are served from {@link StrokePredictionCache} when an equivalent request
+ * was already scored by the same model version.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class StrokePredictionService {
 
-    @Value("${stroke.prediction.service.url:http://localhost:8090}")
-    private String strokeServiceUrl;
+    private final RestClient restClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final StrokeModel localModel;
+    private final StrokePredictionCache predictionCache;
 
-    @Value("${stroke.prediction.use.discovery:false}")
-    private boolean useServiceDiscovery;
-
-    private final RestTemplate restTemplate;
-    private final DiscoveryClient discoveryClient;
+    public StrokePredictionService(@Qualifier("strokePredictionRestClient") RestClient restClient,
+                                   @Qualifier("strokePredictionCircuitBreaker") CircuitBreaker circuitBreaker,
+                                   @Qualifier("strokePredictionBulkhead") Bulkhead bulkhead,
+                                   Optional<StrokeModel> localModel,
+                                   StrokePredictionCache predictionCache) {
+        this.restClient = restClient;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.localModel = localModel.orElse(null);
+        this.predictionCache = predictionCache;
+    }
 
     public StrokePredictionResponse predictStroke(StrokePredictionRequest request) {
+        return predictionCache.get(request, this::predictUncached);
+    }
+
+    public CacheStatsDTO getPredictionCacheStats() {
+        return predictionCache.stats();
+    }
+
+    private StrokePredictionResponse predictUncached(StrokePredictionRequest request) {
+        if (localModel != null) {
+            return predictLocally(request);
+        }
+
+        StrokePredictionResponse result = callRemote(() -> post(request));
+        log.info("Stroke prediction completed. Risk level: {}", result.getRiskLevel());
+        return result;
+    }
+
+    /**
+     * Runs a call to the remote model through the bulkhead and circuit breaker and maps its
+     * failures the same way for single and batch predictions.
+     */
+    private <T> T callRemote(Supplier<T> post) {
+        Supplier<T> call = Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, post));
         try {
-            String url = buildServiceUrl();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<StrokePredictionRequest> entity = new HttpEntity<>(request, headers);
-            
-            log.info("Sending stroke prediction request to: {} (discovery: {})", url, useServiceDiscovery);
-            
-            ResponseEntity<StrokePredictionResponse> response = restTemplate.exchange(
-                url, 
-                HttpMethod.POST, 
-                entity, 
-                StrokePredictionResponse.class
-            );
-            
-            StrokePredictionResponse result = response.getBody();
-            if (result != null) {
-                log.info("Stroke prediction completed. Risk level: {}", result.getRiskLevel());
-                return result;
-            } else {
-                throw new RuntimeException("Empty response from stroke prediction service");
-            }
-            
+            return call.get();
+        } catch (BulkheadFullException | CallNotPermittedException e) {
+            log.warn("Stroke prediction rejected: {}", e.getMessage());
+            throw new StrokePredictionUnavailableException("Stroke prediction service is busy or unavailable", e);
+        } catch (ResourceAccessException e) {
+            log.error("Stroke prediction service unreachable or timed out", e);
+            throw new StrokePredictionUnavailableException("Stroke prediction service did not respond in time", e);
+        } catch (HttpClientErrorException.BadRequest | HttpClientErrorException.UnprocessableEntity e) {
+            throw new InvalidStrokePredictionRequestException("Invalid stroke prediction request: " + e.getMessage(), e);
         } catch (Exception e) {
             log.error("Error calling stroke prediction service", e);
-            throw new RuntimeException("Failed to get stroke prediction: " + e.getMessage());
+            throw new RuntimeException("Failed to get stroke prediction: " + e.getMessage(), e);
         }
     }
 
-    private String buildServiceUrl() {
-        if (useServiceDiscovery) {
-            // Use service discovery to find the stroke prediction service
-            try {
-                List<ServiceInstance> instances = discoveryClient.getInstances("stroke-prediction-service");
-                if (instances.isEmpty()) {
-                    log.warn("No stroke-prediction-service instances found via discovery, falling back to direct URL");
-                    return strokeServiceUrl + "/predict";
-                }
-                
-                // Get the first available instance (no load balancing)
-                ServiceInstance instance = instances.get(0);
-                String discoveredUrl = instance.getUri().toString();
-                log.info("Found stroke-prediction-service at: {}", discoveredUrl);
-                return discoveredUrl + "/predict";
-                
-            } catch (Exception e) {
-                log.error("Error discovering stroke-prediction-service, falling back to direct URL: {}", e.getMessage());
-                return strokeServiceUrl + "/predict";
-            }
-        } else {
-            // Use direct URL (simple approach)
-            return strokeServiceUrl + "/predict";
+    /**
+     * Scores a chunk of patients with one call. Results are in request order; the remote service
+     * builds one DataFrame per chunk instead of one per patient. A patient the model cannot score
+     * gets a result carrying only an {@code error}, so one bad record does not fail the chunk.
+     */
+    public List<StrokePredictionResponse> predictStrokeBatch(List<StrokePredictionRequest> requests) {
+        if (localModel != null) {
+            return requests.stream().map(this::predictLocallyOrFail).toList();
         }
+
+        return callRemote(() -> postBatch(requests));
+    }
+
+    // The local model rejects out-of-range or unknown feature values, which is the caller's error
+    private StrokePredictionResponse predictLocally(StrokePredictionRequest request) {
+        try {
+            return localModel.predict(request);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStrokePredictionRequestException("Invalid stroke prediction request: " + e.getMessage(), e);
+        }
+    }
+
+    private StrokePredictionResponse predictLocallyOrFail(StrokePredictionRequest request) {
+        try {
+            return predictLocally(request);
+        } catch (InvalidStrokePredictionRequestException e) {
+            StrokePredictionResponse failed = new StrokePredictionResponse();
+            failed.setError(e.getMessage());
+            return failed;
+        }
+    }
+
+    private List<StrokePredictionResponse> postBatch(List<StrokePredictionRequest> requests) {
+        StrokePredictionResponse[] results = restClient.post()
+                .uri("/predict/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(requests)
+                .retrieve()
+                .body(StrokePredictionResponse[].class);
+        if (results == null || results.length != requests.size()) {
+            throw new IllegalStateException("Stroke prediction service returned "
+                    + (results == null ? 0 : results.length) + " results for " + requests.size() + " patients");
+        }
+        return List.of(results);
+    }
+
+    private StrokePredictionResponse post(StrokePredictionRequest request) {
+        StrokePredictionResponse result = restClient.post()
+                .uri("/predict")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(request)
+                .retrieve()
+                .body(StrokePredictionResponse.class);
+        if (result == null) {
+            throw new IllegalStateException("Empty response from stroke prediction service");
+        }
+        return result;
     }
 
     // DTO Classes
@@ -168,6 +232,11 @@ public class StrokePredictionService {
         private Long patientId;
         @JsonProperty("prediction_timestamp")
         private String predictionTimestamp;
+        @JsonProperty("model_version")
+        private String modelVersion;
+        // Only set on batch results for a patient that could not be scored
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String error;
 
         // Constructors
         public StrokePredictionResponse() {}
@@ -196,5 +265,11 @@ public class StrokePredictionService {
 
         public String getPredictionTimestamp() { return predictionTimestamp; }
         public void setPredictionTimestamp(String predictionTimestamp) { this.predictionTimestamp = predictionTimestamp; }
+
+        public String getModelVersion() { return modelVersion; }
+        public void setModelVersion(String modelVersion) { this.modelVersion = modelVersion; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
     }
 } 
\ No newline at end of file
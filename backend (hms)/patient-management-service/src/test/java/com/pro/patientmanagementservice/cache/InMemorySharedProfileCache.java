@@ -0,0 +1,36 @@
+package com.pro.patientmanagementservice.cache;
+
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for a shared cache tier; ignores TTLs.
+ */
+class InMemorySharedProfileCache implements SharedProfileCache {
+
+    private final Map<String, PatientProfileDTO> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<PatientProfileDTO> get(String key) {
+        return Optional.ofNullable(entries.get(key));
+    }
+
+    @Override
+    public void put(String key, PatientProfileDTO profile, Duration ttl) {
+        entries.put(key, profile);
+    }
+
+    @Override
+    public void evict(Collection<String> keys) {
+        keys.forEach(entries::remove);
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
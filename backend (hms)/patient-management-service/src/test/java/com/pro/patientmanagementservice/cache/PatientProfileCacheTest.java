@@ -0,0 +1,114 @@
+package com.pro.patientmanagementservice.cache;
+
+import com.pro.patientmanagementservice.dto.CacheStatsDTO;
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import com.pro.patientmanagementservice.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PatientProfileCacheTest {
+
+    private InMemorySharedProfileCache sharedCache;
+    private PatientProfileCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        sharedCache = new InMemorySharedProfileCache();
+        cache = new PatientProfileCache(Optional.of(sharedCache), true, 100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("repeated reads are served from the local tier")
+    void getByPatientId_shouldLoadOnce() {
+        cache.getByPatientId(1L, loader("Jane"));
+        PatientProfileDTO cached = cache.getByPatientId(1L, loader("Jane"));
+
+        assertThat(cached.getFirstName()).isEqualTo("Jane");
+        assertThat(loads).hasValue(1);
+
+        CacheStatsDTO stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getSharedMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a local miss is answered by the shared tier before loading")
+    void getByUserId_shouldFallBackToSharedTier() {
+        cache.getByUserId(1001L, loader("Jane"));
+
+        PatientProfileCache otherInstance = new PatientProfileCache(Optional.of(sharedCache), true, 100, Duration.ofMinutes(5));
+        PatientProfileDTO profile = otherInstance.getByUserId(1001L, loader("Stale"));
+
+        assertThat(profile.getFirstName()).isEqualTo("Jane");
+        assertThat(loads).hasValue(1);
+        assertThat(otherInstance.stats().getSharedHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("invalidate evicts both keys from both tiers")
+    void invalidate_shouldClearBothTiers() {
+        cache.getByPatientId(1L, loader("Jane"));
+        cache.getByUserId(1001L, loader("Jane"));
+        assertThat(sharedCache.size()).isEqualTo(2);
+
+        cache.invalidate(1L, 1001L);
+
+        assertThat(sharedCache.size()).isZero();
+        assertThat(cache.getByPatientId(1L, loader("Janet")).getFirstName()).isEqualTo("Janet");
+        assertThat(cache.getByUserId(1001L, loader("Janet")).getFirstName()).isEqualTo("Janet");
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("the local tier is bounded and reports evictions")
+    void localTier_shouldEvictBeyondMaxSize() {
+        PatientProfileCache bounded = new PatientProfileCache(Optional.empty(), true, 10, Duration.ofMinutes(5));
+        for (long id = 0; id < 1_000; id++) {
+            bounded.getByPatientId(id, loader("Patient " + id));
+        }
+
+        CacheStatsDTO stats = bounded.stats();
+        assertThat(stats.getEvictions()).isPositive();
+    }
+
+    @Test
+    @DisplayName("failed loads are not cached")
+    void getByPatientId_whenLoaderThrows_shouldNotCache() {
+        assertThatThrownBy(() -> cache.getByPatientId(9L, () -> {
+            throw new ResourceNotFoundException("Patient not found with id: 9");
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(cache.getByPatientId(9L, loader("Late")).getFirstName()).isEqualTo("Late");
+    }
+
+    @Test
+    @DisplayName("a disabled cache always delegates to the loader")
+    void disabled_shouldBypassBothTiers() {
+        PatientProfileCache disabled = new PatientProfileCache(Optional.of(sharedCache), false, 100, Duration.ofMinutes(5));
+
+        disabled.getByPatientId(1L, loader("Jane"));
+        disabled.getByPatientId(1L, loader("Jane"));
+
+        assertThat(loads).hasValue(2);
+        assertThat(sharedCache.size()).isZero();
+    }
+
+    private Supplier<PatientProfileDTO> loader(String firstName) {
+        return () -> {
+            loads.incrementAndGet();
+            return PatientProfileDTO.builder().firstName(firstName).build();
+        };
+    }
+}
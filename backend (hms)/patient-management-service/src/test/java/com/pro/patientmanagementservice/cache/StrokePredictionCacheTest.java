@@ -0,0 +1,139 @@
+package com.pro.patientmanagementservice.cache;
+
+import com.pro.patientmanagementservice.dto.CacheStatsDTO;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StrokePredictionCacheTest {
+
+    private StrokePredictionCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StrokePredictionCache(true, 100, Duration.ofMinutes(5));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("requests that differ only in surrounding whitespace share one entry")
+    void get_equivalentRequests_shouldLoadOnce() {
+        cache.get(request(" Male ", 67.0), loader("v1"));
+        StrokePredictionResponse cached = cache.get(request("Male", 67.0), loader("v1"));
+
+        assertThat(cached.getModelVersion()).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        CacheStatsDTO stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(1.0);
+        assertThat(stats.getModelVersion()).isEqualTo("v1");
+    }
+
+    @Test
+    @DisplayName("the model is called with the request the entry is keyed by")
+    void get_paddedRequest_shouldCallModelWithNormalizedRequest() {
+        List<StrokePredictionRequest> scored = new ArrayList<>();
+
+        cache.get(request(" Male ", -0.0), features -> {
+            scored.add(features);
+            return loader("v1").apply(features);
+        });
+
+        assertThat(scored).singleElement().satisfies(features -> {
+            assertThat(features.getGender()).isEqualTo("Male");
+            assertThat(Double.doubleToRawLongBits(features.getAge())).isEqualTo(Double.doubleToRawLongBits(0.0));
+        });
+    }
+
+    @Test
+    @DisplayName("a hit is a copy of the cached prediction stamped with the time it was served")
+    void get_hit_shouldReturnFreshCopy() {
+        StrokePredictionResponse first = cache.get(request("Male", 67.0), loader("v1"));
+        first.setPatientId(42L);
+
+        StrokePredictionResponse second = cache.get(request("Male", 67.0), loader("v1"));
+        StrokePredictionResponse third = cache.get(request("Male", 67.0), loader("v1"));
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isNotSameAs(first).isNotSameAs(third);
+        assertThat(second.getPatientId()).isNull();
+        assertThat(second.getProbability()).isEqualTo(0.12);
+        assertThat(second.getModelVersion()).isEqualTo("v1");
+        assertThat(second.getPredictionTimestamp()).isNotEqualTo("2025-01-01T00:00:00");
+    }
+
+    @Test
+    @DisplayName("different feature values are cached separately")
+    void get_differentRequests_shouldLoadEach() {
+        cache.get(request("Male", 67.0), loader("v1"));
+        cache.get(request("Male", 68.0), loader("v1"));
+        cache.get(request("male", 67.0), loader("v1"));
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.stats().getSize()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("a prediction from a new model version flushes entries from the old one")
+    void get_modelVersionChange_shouldInvalidateAll() {
+        cache.get(request("Male", 67.0), loader("v1"));
+        cache.get(request("Female", 50.0), loader("v1"));
+
+        // A miss that is answered by a redeployed model
+        cache.get(request("Female", 51.0), loader("v2"));
+        cache.get(request("Male", 67.0), loader("v2"));
+
+        assertThat(loads).hasValue(4);
+        CacheStatsDTO stats = cache.stats();
+        assertThat(stats.getModelVersion()).isEqualTo("v2");
+        assertThat(stats.getInvalidations()).isEqualTo(1);
+        assertThat(stats.getSize()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("failed predictions are not cached")
+    void get_loaderFailure_shouldNotCache() {
+        assertThatThrownBy(() -> cache.get(request("Male", 67.0), features -> {
+            throw new IllegalStateException("model down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        cache.get(request("Male", 67.0), loader("v1"));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("with caching disabled every call reaches the model")
+    void get_disabled_shouldAlwaysLoad() {
+        StrokePredictionCache disabled = new StrokePredictionCache(false, 100, Duration.ofMinutes(5));
+
+        disabled.get(request("Male", 67.0), loader("v1"));
+        disabled.get(request("Male", 67.0), loader("v1"));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Function<StrokePredictionRequest, StrokePredictionResponse> loader(String modelVersion) {
+        return features -> {
+            loads.incrementAndGet();
+            StrokePredictionResponse response = new StrokePredictionResponse(0, 0.12, "Low Risk", null, "2025-01-01T00:00:00");
+            response.setModelVersion(modelVersion);
+            return response;
+        };
+    }
+
+    private static StrokePredictionRequest request(String gender, double age) {
+        return new StrokePredictionRequest(gender, age, 0, 1, "Yes", "Private", "Urban", 228.69, 36.6, "formerly smoked");
+    }
+}
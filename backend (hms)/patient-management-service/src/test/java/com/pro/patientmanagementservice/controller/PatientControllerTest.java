@@ -0,0 +1,117 @@
+package com.pro.patientmanagementservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pro.patientmanagementservice.dto.PatientPageDTO;
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import com.pro.patientmanagementservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Routing tests for the list endpoints; method security is covered by the service's security config.
+ */
+@ExtendWith(MockitoExtension.class)
+class PatientControllerTest {
+
+    @Mock
+    private PatientService patientService;
+
+    private MockMvc mockMvc;
+
+    private PatientProfileDTO profile;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        mockMvc = MockMvcBuilders.standaloneSetup(new PatientController(patientService, objectMapper)).build();
+
+        profile = PatientProfileDTO.builder()
+                .userId(1001L)
+                .firstName("Jane")
+                .lastName("Doe")
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /patients without paging parameters keeps returning the full list")
+    void getAllPatients_withoutParams_shouldReturnList() throws Exception {
+        when(patientService.getAllPatients()).thenReturn(List.of(profile));
+
+        mockMvc.perform(get("/patients").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("Jane"));
+    }
+
+    @Test
+    @DisplayName("GET /patients?limit= returns a keyset page")
+    void getAllPatients_withLimit_shouldReturnPage() throws Exception {
+        when(patientService.getAllPatients(null, 1)).thenReturn(PatientPageDTO.builder()
+                .content(List.of(profile))
+                .hasMore(true)
+                .nextCursor("cDE6MQ")
+                .build());
+
+        mockMvc.perform(get("/patients").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstName").value("Jane"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("cDE6MQ"));
+    }
+
+    @Test
+    @DisplayName("GET /patients/status/{status}?cursor= continues a keyset page")
+    void getPatientsByStatus_withCursor_shouldReturnPage() throws Exception {
+        when(patientService.getPatientsByStatus("Admitted", "cDE6MQ", null)).thenReturn(PatientPageDTO.builder()
+                .content(List.of())
+                .hasMore(false)
+                .build());
+
+        mockMvc.perform(get("/patients/status/Admitted").param("cursor", "cDE6MQ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /patients/doctor/{doctorId} with Accept: application/x-ndjson streams one row per line")
+    @SuppressWarnings("unchecked")
+    void getPatientsByDoctor_withNdjson_shouldStreamRows() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<PatientProfileDTO> sink = invocation.getArgument(1);
+            sink.accept(profile);
+            sink.accept(profile);
+            return null;
+        }).when(patientService).streamPatientsByDoctor(eq(7L), any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/patients/doctor/7").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(result1 -> {
+                    String[] lines = result1.getResponse().getContentAsString().split("\n");
+                    org.assertj.core.api.Assertions.assertThat(lines).hasSize(2);
+                    org.assertj.core.api.Assertions.assertThat(lines[0]).contains("\"firstName\":\"Jane\"");
+                });
+        verify(patientService, never()).getPatientsByDoctor(any());
+    }
+}
@@ -0,0 +1,90 @@
+package com.pro.patientmanagementservice.inference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class StrokeModelTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private StrokeModel model;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/models/stroke-model.json")) {
+            model = StrokeModel.load(in, objectMapper);
+        }
+    }
+
+    @Test
+    @DisplayName("in-JVM scores match the sklearn pipeline on the exported parity cases")
+    void predict_shouldMatchPythonParityCases() throws IOException {
+        JsonNode cases;
+        try (InputStream in = getClass().getResourceAsStream("/models/stroke-parity-cases.json")) {
+            cases = objectMapper.readTree(in);
+        }
+        assertThat(cases).isNotEmpty();
+
+        for (JsonNode parityCase : cases) {
+            StrokePredictionRequest request = objectMapper.treeToValue(parityCase.get("input"), StrokePredictionRequest.class);
+
+            StrokePredictionResponse response = model.predict(request);
+
+            assertThat(response.getProbability())
+                    .as("probability for %s", parityCase.get("input"))
+                    .isCloseTo(parityCase.get("probability").asDouble(), within(1e-9));
+            assertThat(response.getStrokeRisk()).isEqualTo(parityCase.get("stroke_risk").asInt());
+        }
+    }
+
+    @Test
+    @DisplayName("risk level bands match the Python service")
+    void predict_shouldUsePythonRiskBands() {
+        assertThat(StrokeModel.riskLevel(0.7)).isEqualTo("High Risk");
+        assertThat(StrokeModel.riskLevel(0.3)).isEqualTo("Medium Risk");
+        assertThat(StrokeModel.riskLevel(0.29)).isEqualTo("Low Risk");
+    }
+
+    @Test
+    @DisplayName("an unseen one-hot category is ignored like OneHotEncoder(handle_unknown='ignore')")
+    void probability_unknownOneHotCategory_shouldContributeNothing() {
+        StrokePredictionRequest known = request("Private", "never smoked");
+        StrokePredictionRequest unknown = request("Astronaut", "never smoked");
+
+        assertThat(model.probability(unknown)).isNotEqualTo(model.probability(known));
+        assertThat(model.probability(unknown)).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    @DisplayName("an unseen smoking status is rejected like OrdinalEncoder(handle_unknown='error')")
+    void probability_unknownOrdinalCategory_shouldBeRejected() {
+        assertThatThrownBy(() -> model.probability(request("Private", "vapes")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("smoking_status");
+    }
+
+    @Test
+    @DisplayName("inputs outside the FastAPI schema bounds are rejected")
+    void probability_outOfRange_shouldBeRejected() {
+        StrokePredictionRequest request = request("Private", "never smoked");
+        request.setAge(130);
+
+        assertThatThrownBy(() -> model.probability(request)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static StrokePredictionRequest request(String workType, String smokingStatus) {
+        return new StrokePredictionRequest("Female", 52, 0, 0, "Yes", workType, "Rural", 95.2, 27.1, smokingStatus);
+    }
+}
@@ -0,0 +1,137 @@
+package com.pro.patientmanagementservice.migration;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import com.pro.patientmanagementservice.repository.PatientRepository;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MedicalHistoryBackfillRunnerTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private MedicalHistoryBackfillRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        runner = new MedicalHistoryBackfillRunner(patientRepository, mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("the runner only exists when the backfill property is set")
+    void runner_isGatedByProperty() {
+        ApplicationContextRunner context = new ApplicationContextRunner()
+                .withBean(PatientRepository.class, () -> patientRepository)
+                .withBean(MongoTemplate.class, () -> mongoTemplate)
+                .withUserConfiguration(MedicalHistoryBackfillRunner.class);
+
+        context.run(started -> assertThat(started).doesNotHaveBean(MedicalHistoryBackfillRunner.class));
+        context.withPropertyValues("patient.medical-history.backfill.enabled=true")
+                .run(started -> assertThat(started).hasSingleBean(MedicalHistoryBackfillRunner.class));
+    }
+
+    @Test
+    @DisplayName("patients that already have a history are skipped and the rest are inserted in one unordered bulk")
+    @SuppressWarnings("unchecked")
+    void backfill_shouldOnlyInsertMissingHistories() {
+        when(patientRepository.findIdsAfter(0L, Limit.of(MedicalHistoryBackfillRunner.BATCH_SIZE)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(mongoTemplate.find(any(Query.class), eq(MedicalHistory.class)))
+                .thenReturn(List.of(MedicalHistory.builder().patientId(2L).build()));
+        stubBulk().thenReturn(BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()));
+
+        long created = runner.backfill();
+
+        assertThat(created).isEqualTo(2);
+        ArgumentCaptor<List<MedicalHistory>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(inserted.capture());
+        assertThat(inserted.getValue()).extracting(MedicalHistory::getPatientId).containsExactly(1L, 3L);
+        assertThat(inserted.getValue()).allSatisfy(history -> assertThat(history.getCreatedAt()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("a batch where every patient has a history sends no bulk write")
+    void backfill_withNothingMissing_shouldNotWrite() {
+        when(patientRepository.findIdsAfter(0L, Limit.of(MedicalHistoryBackfillRunner.BATCH_SIZE)))
+                .thenReturn(List.of(1L));
+        when(mongoTemplate.find(any(Query.class), eq(MedicalHistory.class)))
+                .thenReturn(List.of(MedicalHistory.builder().patientId(1L).build()));
+
+        assertThat(runner.backfill()).isZero();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(MedicalHistory.class));
+    }
+
+    @Test
+    @DisplayName("histories created concurrently fail on the unique index without aborting the rest of the bulk")
+    void backfill_withDuplicateKeys_shouldCountTheInsertedDocuments() {
+        when(patientRepository.findIdsAfter(0L, Limit.of(MedicalHistoryBackfillRunner.BATCH_SIZE)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(mongoTemplate.find(any(Query.class), eq(MedicalHistory.class))).thenReturn(List.of());
+        // Patient 2's history was written by a first update between the lookup and the insert
+        MongoBulkWriteException duplicate = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        stubBulk().thenThrow(new BulkOperationException("duplicate key", duplicate));
+
+        long created = runner.backfill();
+
+        assertThat(created).isEqualTo(2);
+        verify(mongoTemplate).bulkOps(BulkOperations.BulkMode.UNORDERED, MedicalHistory.class);
+    }
+
+    @Test
+    @DisplayName("full batches are followed by the next keyset page")
+    void backfill_shouldWalkPatientIdsInBatches() {
+        List<Long> firstBatch = LongStream.rangeClosed(1, MedicalHistoryBackfillRunner.BATCH_SIZE)
+                .boxed().toList();
+        when(patientRepository.findIdsAfter(0L, Limit.of(MedicalHistoryBackfillRunner.BATCH_SIZE))).thenReturn(firstBatch);
+        when(patientRepository.findIdsAfter((long) MedicalHistoryBackfillRunner.BATCH_SIZE,
+                Limit.of(MedicalHistoryBackfillRunner.BATCH_SIZE))).thenReturn(List.of());
+        when(mongoTemplate.find(any(Query.class), eq(MedicalHistory.class)))
+                .thenReturn(firstBatch.stream().map(id -> MedicalHistory.builder().patientId(id).build()).toList());
+
+        assertThat(runner.backfill()).isZero();
+        verify(patientRepository, times(2)).findIdsAfter(any(), any());
+    }
+
+    private OngoingStubbing<BulkWriteResult> stubBulk() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MedicalHistory.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        return when(bulkOperations.execute());
+    }
+}
@@ -0,0 +1,100 @@
+package com.pro.patientmanagementservice.prediction;
+
+import com.pro.patientmanagementservice.dto.DiabetesFeaturesDTO;
+import com.pro.patientmanagementservice.dto.PredictionModelStatsDTO;
+import com.pro.patientmanagementservice.dto.RiskPredictionDTO;
+import com.pro.patientmanagementservice.exception.PredictionUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RemoteRiskModelTest {
+
+    private static final String PREDICTION = """
+            {"diabetes_risk": 1, "probability": 0.71, "risk_level": "High", "prediction_timestamp": "2025-01-01T00:00:00"}
+            """;
+
+    private MockRestServiceServer server;
+    private Bulkhead bulkhead;
+    private RemoteRiskModel model;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://diabetes-prediction-service");
+        server = MockRestServiceServer.bindTo(builder).build();
+        bulkhead = Bulkhead.of("diabetesPrediction", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        model = new RemoteRiskModel("diabetes", builder.build(), "/diabetes-prediction/predict", "diabetes_risk",
+                CircuitBreaker.ofDefaults("diabetesPrediction"), bulkhead);
+    }
+
+    @Test
+    @DisplayName("predict posts the model's column names and maps its risk field into the common shape")
+    void predict_shouldMapResponse() {
+        server.expect(requestTo("http://diabetes-prediction-service/diabetes-prediction/predict"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.Glucose").value(148))
+                .andExpect(jsonPath("$.DiabetesPedigreeFunction").value(0.627))
+                .andRespond(withSuccess(PREDICTION, MediaType.APPLICATION_JSON));
+
+        RiskPredictionDTO result = model.predict(features());
+
+        assertThat(result.getModel()).isEqualTo("diabetes");
+        assertThat(result.getStatus()).isEqualTo(RiskPredictionDTO.OK);
+        assertThat(result.getRisk()).isEqualTo(1);
+        assertThat(result.getProbability()).isEqualTo(0.71);
+        assertThat(result.getRiskLevel()).isEqualTo("High");
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("the prediction client counts successes, failures and bulkhead rejections per model")
+    void predictionClient_shouldRecordPerModelMetrics() {
+        server.expect(requestTo("http://diabetes-prediction-service/diabetes-prediction/predict"))
+                .andRespond(withSuccess(PREDICTION, MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://diabetes-prediction-service/diabetes-prediction/predict"))
+                .andRespond(withServerError());
+        PredictionClient client = new PredictionClient(List.of(model));
+
+        client.predict("diabetes", features());
+        assertThatThrownBy(() -> client.predict("diabetes", features())).isNotInstanceOf(PredictionUnavailableException.class);
+        assertThat(bulkhead.tryAcquirePermission()).isTrue();
+        try {
+            assertThatThrownBy(() -> client.predict("diabetes", features())).isInstanceOf(PredictionUnavailableException.class);
+        } finally {
+            bulkhead.onComplete();
+        }
+
+        PredictionModelStatsDTO stats = client.stats().get(0);
+        assertThat(stats.getCalls()).isEqualTo(3);
+        assertThat(stats.getSuccesses()).isEqualTo(1);
+        assertThat(stats.getFailures()).isEqualTo(1);
+        assertThat(stats.getRejections()).isEqualTo(1);
+        assertThat(stats.getCircuitBreakerState()).isEqualTo("CLOSED");
+        server.verify();
+    }
+
+    private static DiabetesFeaturesDTO features() {
+        return new DiabetesFeaturesDTO(6, 148, 72, 35, 0, 33.6, 0.627, 50);
+    }
+}
@@ -0,0 +1,100 @@
+package com.pro.patientmanagementservice.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayClaimsAuthenticationFilterTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private final GatewayClaimsAuthenticationFilter filter = new GatewayClaimsAuthenticationFilter(SECRET);
+    private final JwtUtils jwtUtils = new JwtUtils();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("correctly signed gateway headers authenticate the request with the token's claims")
+    void validSignature_shouldAuthenticate() throws Exception {
+        String expires = Long.toString(Instant.now().plusSeconds(600).getEpochSecond());
+        MockHttpServletRequest request = request("42", "dr.house", "ROLE_DOCTOR,ROLE_ADMIN", expires,
+                sign("42", "dr.house", "ROLE_DOCTOR,ROLE_ADMIN", expires));
+
+        Authentication authentication = run(request);
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getName()).isEqualTo("dr.house");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_DOCTOR", "ROLE_ADMIN");
+        assertThat(jwtUtils.getUserIdFromAuthentication(authentication)).isEqualTo(42L);
+        assertThat(jwtUtils.isAdmin(authentication)).isTrue();
+        assertThat(request.getAttribute(GatewayClaimsAuthenticationFilter.AUTHENTICATED)).isEqualTo(Boolean.TRUE);
+    }
+
+    @Test
+    @DisplayName("tampered claims are ignored and the request falls back to bearer authentication")
+    void tamperedRoles_shouldBeIgnored() throws Exception {
+        String expires = Long.toString(Instant.now().plusSeconds(600).getEpochSecond());
+        MockHttpServletRequest request = request("42", "patient", "ROLE_ADMIN", expires,
+                sign("42", "patient", "ROLE_PATIENT", expires));
+
+        assertThat(run(request)).isNull();
+        assertThat(request.getAttribute(GatewayClaimsAuthenticationFilter.AUTHENTICATED)).isNull();
+    }
+
+    @Test
+    @DisplayName("claims of an expired token are not trusted")
+    void expiredClaims_shouldBeIgnored() throws Exception {
+        String expires = Long.toString(Instant.now().minusSeconds(1).getEpochSecond());
+        MockHttpServletRequest request = request("42", "dr.house", "ROLE_DOCTOR", expires,
+                sign("42", "dr.house", "ROLE_DOCTOR", expires));
+
+        assertThat(run(request)).isNull();
+    }
+
+    private Authentication run(MockHttpServletRequest request) throws Exception {
+        Authentication[] seen = new Authentication[1];
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen[0] = SecurityContextHolder.getContext().getAuthentication();
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return seen[0];
+    }
+
+    private static MockHttpServletRequest request(String userId, String subject, String roles, String expires, String signature) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/patients/1");
+        request.addHeader(GatewayClaimsAuthenticationFilter.USER_ID, userId);
+        request.addHeader(GatewayClaimsAuthenticationFilter.SUBJECT, subject);
+        request.addHeader(GatewayClaimsAuthenticationFilter.ROLES, roles);
+        request.addHeader(GatewayClaimsAuthenticationFilter.EXPIRES, expires);
+        request.addHeader(GatewayClaimsAuthenticationFilter.SIGNATURE, signature);
+        return request;
+    }
+
+    private static String sign(String userId, String subject, String roles, String expires) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET, "HmacSHA256"));
+        byte[] signature = mac.doFinal(String.join("\n", userId, subject, roles, expires).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+}
@@ -0,0 +1,153 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.cache.PatientProfileCache;
+import com.pro.patientmanagementservice.dto.MedicalHistoryDTO;
+import com.pro.patientmanagementservice.dto.UpdateMedicalHistoryDTO;
+import com.pro.patientmanagementservice.exception.MedicalHistoryVersionConflictException;
+import com.pro.patientmanagementservice.exception.ResourceNotFoundException;
+import com.pro.patientmanagementservice.mapper.MedicalHistoryMapper;
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import com.pro.patientmanagementservice.model.Medication;
+import com.pro.patientmanagementservice.model.Patient;
+import com.pro.patientmanagementservice.repository.MedicalHistoryRepository;
+import com.pro.patientmanagementservice.repository.PatientRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MedicalHistoryServiceTest {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final Long USER_ID = 1001L;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private MedicalHistoryRepository medicalHistoryRepository;
+
+    @Mock
+    private MedicalHistoryMapper medicalHistoryMapper;
+
+    @Mock
+    private PatientProfileCache patientProfileCache;
+
+    @InjectMocks
+    private MedicalHistoryService medicalHistoryService;
+
+    private MedicalHistory stored;
+
+    @BeforeEach
+    void setUp() {
+        Patient patient = new Patient();
+        patient.setId(PATIENT_ID);
+        patient.setUserId(USER_ID);
+        when(patientRepository.findById(PATIENT_ID)).thenReturn(Optional.of(patient));
+
+        stored = MedicalHistory.builder().patientId(PATIENT_ID).version(4L).build();
+    }
+
+    @Test
+    @DisplayName("addMedication without If-Match pushes one element via upsert and evicts the cached profile")
+    void addMedication_unguarded_shouldPushViaUpsert() {
+        Medication medication = new Medication();
+        medication.setMedication("Aspirin");
+        when(medicalHistoryRepository.upsertByPatientId(eq(PATIENT_ID), any(Update.class))).thenReturn(stored);
+        MedicalHistoryDTO dto = new MedicalHistoryDTO();
+        dto.setVersion(4L);
+        when(medicalHistoryMapper.toMedicalHistoryDTO(stored)).thenReturn(dto);
+
+        MedicalHistoryDTO result = medicalHistoryService.addMedication(PATIENT_ID, medication, null);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(medicalHistoryRepository).upsertByPatientId(eq(PATIENT_ID), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$push", Document.class).get("medications")).isSameAs(medication);
+        assertThat(update.getValue().getUpdateObject()).doesNotContainKey("$set");
+        assertThat(result.getVersion()).isEqualTo(4L);
+        verify(patientProfileCache).invalidate(PATIENT_ID, USER_ID);
+        verify(medicalHistoryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("patchMedicalHistory only $sets the fields present in the request")
+    void patchMedicalHistory_shouldSetOnlyProvidedFields() {
+        UpdateMedicalHistoryDTO dto = new UpdateMedicalHistoryDTO();
+        dto.setWeight(72.5);
+        when(medicalHistoryRepository.updateByPatientId(eq(PATIENT_ID), eq(4L), isNull(), any(Update.class))).thenReturn(stored);
+
+        medicalHistoryService.patchMedicalHistory(PATIENT_ID, dto, 4L);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(medicalHistoryRepository).updateByPatientId(eq(PATIENT_ID), eq(4L), isNull(), update.capture());
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set).containsOnlyKeys("weight");
+        verify(medicalHistoryRepository, never()).upsertByPatientId(any(), any());
+    }
+
+    @Test
+    @DisplayName("addAllergy uses $addToSet so a repeated allergy is not duplicated")
+    void addAllergy_shouldAddToSet() {
+        when(medicalHistoryRepository.upsertByPatientId(eq(PATIENT_ID), any(Update.class))).thenReturn(stored);
+
+        medicalHistoryService.addAllergy(PATIENT_ID, "Penicillin", null);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(medicalHistoryRepository).upsertByPatientId(eq(PATIENT_ID), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$addToSet", Document.class).get("allergies")).isEqualTo("Penicillin");
+    }
+
+    @Test
+    @DisplayName("removeMedication pulls by name and requires the medication to be present")
+    void removeMedication_shouldPullByName() {
+        when(medicalHistoryRepository.updateByPatientId(eq(PATIENT_ID), isNull(), any(Criteria.class), any(Update.class))).thenReturn(stored);
+
+        medicalHistoryService.removeMedication(PATIENT_ID, "Aspirin", null);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<Criteria> precondition = ArgumentCaptor.forClass(Criteria.class);
+        verify(medicalHistoryRepository).updateByPatientId(eq(PATIENT_ID), isNull(), precondition.capture(), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$pull", Document.class).get("medications"))
+                .isEqualTo(new Document("medication", "Aspirin"));
+        assertThat(precondition.getValue().getCriteriaObject()).containsEntry("medications.medication", "Aspirin");
+    }
+
+    @Test
+    @DisplayName("a stale If-Match version is rejected with a version conflict and nothing is evicted")
+    void addMedication_staleVersion_shouldConflict() {
+        when(medicalHistoryRepository.updateByPatientId(eq(PATIENT_ID), eq(3L), isNull(), any(Update.class))).thenReturn(null);
+        when(medicalHistoryRepository.findByPatientId(PATIENT_ID)).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> medicalHistoryService.addMedication(PATIENT_ID, new Medication(), 3L))
+                .isInstanceOf(MedicalHistoryVersionConflictException.class)
+                .hasMessageContaining("version 4");
+        verifyNoInteractions(patientProfileCache);
+    }
+
+    @Test
+    @DisplayName("updating a medication index that does not exist is reported as not found")
+    void updateMedication_missingIndex_shouldBeNotFound() {
+        when(medicalHistoryRepository.updateByPatientId(eq(PATIENT_ID), isNull(), any(Criteria.class), any(Update.class))).thenReturn(null);
+        when(medicalHistoryRepository.findByPatientId(PATIENT_ID)).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> medicalHistoryService.updateMedication(PATIENT_ID, 7, new Medication(), null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,152 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.cache.PatientProfileCache;
+import com.pro.patientmanagementservice.dto.PatientPageDTO;
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import com.pro.patientmanagementservice.mapper.MedicalHistoryMapper;
+import com.pro.patientmanagementservice.mapper.PatientMapper;
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import com.pro.patientmanagementservice.model.Patient;
+import com.pro.patientmanagementservice.repository.MedicalHistoryRepository;
+import com.pro.patientmanagementservice.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the statements profile listings send to Postgres, against the real JPA mapping. Medical
+ * histories live in Mongo, so that side is a mock whose calls are counted instead. Tests run
+ * outside a transaction so that per-row lookups cannot be answered from the persistence context.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:patientdb;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+class PatientProfileQueryCountTest {
+
+    private static final int PATIENTS = 60;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final MedicalHistoryRepository medicalHistoryRepository = mock(MedicalHistoryRepository.class);
+
+    private PatientService patientService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        patientService = new PatientService(patientRepository, medicalHistoryRepository, mock(PatientMapper.class),
+                mock(MedicalHistoryMapper.class), new PatientProfileCache(Optional.empty(), true, 1_000, Duration.ofMinutes(5)));
+
+        patientRepository.saveAll(IntStream.rangeClosed(1, PATIENTS).mapToObj(i -> Patient.builder()
+                .userId(1_000L + i)
+                .firstName("Patient")
+                .lastName(String.valueOf(i))
+                .treatment("Observation")
+                .gender(i % 2 == 0 ? "Female" : "Male")
+                .mobile("555-" + i)
+                .admissionDate(LocalDate.of(2025, 1, 1))
+                .doctorAssigned("Dr. Seven")
+                .doctorId(i % 3 == 0 ? 8L : 7L)
+                .address("1 Main St")
+                .bloodGroup("O+")
+                .status(i % 2 == 0 ? "Admitted" : "Discharged")
+                .build()).toList());
+
+        // Every other patient has a medical history document
+        when(medicalHistoryRepository.findByPatientIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .filter(id -> id % 2 == 0)
+                    .map(id -> MedicalHistory.builder().patientId(id).height(170.0).build())
+                    .toList();
+        });
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("getAllPatients takes one Postgres statement and one Mongo lookup for all rows")
+    void getAllPatients_takesOneStatement() {
+        List<PatientProfileDTO> profiles = patientService.getAllPatients();
+
+        assertThat(profiles).hasSize(PATIENTS);
+        assertThat(profiles).filteredOn(profile -> profile.getHeight() != null).hasSize(PATIENTS / 2);
+        assertOneStatementAndOneLookup();
+    }
+
+    @Test
+    @DisplayName("getPatientsByStatus takes one Postgres statement and one Mongo lookup for all rows")
+    void getPatientsByStatus_takesOneStatement() {
+        List<PatientProfileDTO> profiles = patientService.getPatientsByStatus("Admitted");
+
+        assertThat(profiles).hasSize(PATIENTS / 2).allSatisfy(profile -> assertThat(profile.getStatus()).isEqualTo("Admitted"));
+        assertOneStatementAndOneLookup();
+    }
+
+    @Test
+    @DisplayName("getPatientsByDoctor takes one Postgres statement and one Mongo lookup for all rows")
+    void getPatientsByDoctor_takesOneStatement() {
+        List<PatientProfileDTO> profiles = patientService.getPatientsByDoctor(7L);
+
+        assertThat(profiles).hasSize(PATIENTS - PATIENTS / 3);
+        assertOneStatementAndOneLookup();
+    }
+
+    @Test
+    @DisplayName("a keyset page takes one Postgres statement and one Mongo lookup")
+    void getPatientsByDoctorPage_takesOneStatement() {
+        PatientPageDTO page = patientService.getPatientsByDoctor(7L, null, 25);
+
+        assertThat(page.getContent()).hasSize(25);
+        assertThat(page.isHasMore()).isTrue();
+        assertOneStatementAndOneLookup();
+    }
+
+    private void assertOneStatementAndOneLookup() {
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        verify(medicalHistoryRepository, times(1)).findByPatientIdIn(anyCollection());
+        verifyNoMoreInteractions(medicalHistoryRepository);
+    }
+}
@@ -0,0 +1,315 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.cache.PatientProfileCache;
+import com.pro.patientmanagementservice.dto.MedicalHistoryDTO;
+import com.pro.patientmanagementservice.dto.PatientPageDTO;
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import com.pro.patientmanagementservice.dto.UpdatePatientDTO;
+import com.pro.patientmanagementservice.exception.InvalidCursorException;
+import com.pro.patientmanagementservice.mapper.MedicalHistoryMapper;
+import com.pro.patientmanagementservice.mapper.PatientMapper;
+import com.pro.patientmanagementservice.model.MedicalHistory;
+import com.pro.patientmanagementservice.model.Patient;
+import com.pro.patientmanagementservice.repository.MedicalHistoryRepository;
+import com.pro.patientmanagementservice.repository.PatientRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientServiceTest {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    @Mock
+    private MedicalHistoryRepository medicalHistoryRepository;
+
+    @Mock
+    private PatientMapper patientMapper;
+
+    @Mock
+    private MedicalHistoryMapper medicalHistoryMapper;
+
+    @Spy
+    private PatientProfileCache patientProfileCache = new PatientProfileCache(Optional.empty(), true, 1_000, Duration.ofMinutes(5));
+
+    @InjectMocks
+    private PatientService patientService;
+
+    @Test
+    @DisplayName("getAllPatients never writes to Mongo for patients without a medical history")
+    void getAllPatients_withMissingHistories_shouldNotWrite() {
+        List<Patient> patients = patients(PAGE_SIZE);
+        when(patientRepository.findAll()).thenReturn(patients);
+        when(medicalHistoryRepository.findByPatientIdIn(anyCollection())).thenReturn(List.of());
+
+        List<PatientProfileDTO> profiles = patientService.getAllPatients();
+
+        assertThat(profiles).hasSize(PAGE_SIZE);
+        assertThat(profiles.get(0).getMedications()).isNull();
+        verify(medicalHistoryRepository, never()).saveAll(anyIterable());
+        verify(medicalHistoryRepository, never()).save(any());
+        verifyNoPerRowQueries();
+    }
+
+    @Test
+    @DisplayName("getPatientById returns a virtual empty history without writing")
+    void getPatientById_withoutHistory_shouldNotWrite() {
+        Patient patient = patients(1).get(0);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medicalHistoryRepository.findByPatientId(1L)).thenReturn(Optional.empty());
+
+        PatientProfileDTO profile = patientService.getPatientById(1L);
+
+        assertThat(profile.getFirstName()).isEqualTo("Patient");
+        assertThat(profile.getAllergies()).isNull();
+        verify(medicalHistoryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("getMedicalHistory returns a virtual empty history without writing")
+    void getMedicalHistory_withoutHistory_shouldNotWrite() {
+        when(patientRepository.existsById(1L)).thenReturn(true);
+        when(medicalHistoryRepository.findByPatientId(1L)).thenReturn(Optional.empty());
+        when(medicalHistoryMapper.toMedicalHistoryDTO(any())).thenAnswer(invocation -> {
+            MedicalHistory history = invocation.getArgument(0);
+            MedicalHistoryDTO dto = new MedicalHistoryDTO();
+            dto.setPatientId(history.getPatientId());
+            return dto;
+        });
+
+        MedicalHistoryDTO history = patientService.getMedicalHistory(1L);
+
+        assertThat(history.getPatientId()).isEqualTo(1L);
+        verify(medicalHistoryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("updatePatientProfile upserts the medical history instead of requiring it to exist")
+    void updatePatientProfile_shouldUpsertMedicalHistory() {
+        Patient patient = patients(1).get(0);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        PatientProfileDTO update = PatientProfileDTO.builder()
+                .mobile(patient.getMobile())
+                .height(180.0)
+                .allergies(List.of("Penicillin"))
+                .build();
+
+        patientService.updatePatientProfile(1L, update);
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(medicalHistoryRepository).upsertByPatientId(eq(1L), captor.capture());
+        assertThat(captor.getValue().getUpdateObject().get("$set", org.bson.Document.class))
+                .containsEntry("height", 180.0)
+                .containsEntry("allergies", List.of("Penicillin"));
+        verify(medicalHistoryRepository, never()).findByPatientId(anyLong());
+        verify(patientProfileCache).invalidate(1L, 1001L);
+    }
+
+    @Test
+    @DisplayName("getAllPatients skips the Mongo lookup when there are no patients")
+    void getAllPatients_whenEmpty_shouldNotQueryMongo() {
+        when(patientRepository.findAll()).thenReturn(List.of());
+
+        assertThat(patientService.getAllPatients()).isEmpty();
+        verifyNoInteractions(medicalHistoryRepository);
+    }
+
+    @Test
+    @DisplayName("getAllPatients(cursor, limit) returns one keyset page with a continuation token")
+    void getAllPatientsPage_shouldReturnCursorWhenMoreRowsExist() {
+        List<Patient> patients = patients(11);
+        when(patientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11))).thenReturn(patients);
+        when(medicalHistoryRepository.findByPatientIdIn(anyCollection())).thenReturn(histories(patients));
+
+        PatientPageDTO page = patientService.getAllPatients(null, 10);
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isNotBlank();
+        assertThat(PatientCursor.decode(page.getNextCursor())).isEqualTo(10L);
+    }
+
+    @Test
+    @DisplayName("getPatientsByStatus(cursor, limit) continues after the cursor position")
+    void getPatientsByStatusPage_shouldContinueFromCursor() {
+        List<Patient> patients = patients(3);
+        when(patientRepository.findByStatusAndIdGreaterThanOrderByIdAsc("Admitted", 42L, Limit.of(11))).thenReturn(patients);
+        when(medicalHistoryRepository.findByPatientIdIn(anyCollection())).thenReturn(histories(patients));
+
+        PatientPageDTO page = patientService.getPatientsByStatus("Admitted", PatientCursor.encode(42L), 10);
+
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getPatientsByDoctor(cursor, limit) caps the page size")
+    void getPatientsByDoctorPage_shouldCapLimit() {
+        when(patientRepository.findByDoctorIdAndIdGreaterThanOrderByIdAsc(7L, 0L, Limit.of(PatientService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of());
+
+        PatientPageDTO page = patientService.getPatientsByDoctor(7L, null, 100_000);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a tampered cursor is rejected")
+    void getAllPatientsPage_withInvalidCursor_shouldThrow() {
+        assertThatThrownBy(() -> patientService.getAllPatients("not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    @DisplayName("streamAllPatients walks the keyset batch by batch")
+    void streamAllPatients_shouldReadInBatches() {
+        List<Patient> firstBatch = patients(PatientService.STREAM_BATCH_SIZE);
+        List<Patient> lastBatch = List.of(Patient.builder().id(PatientService.STREAM_BATCH_SIZE + 1L).build());
+        when(patientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(PatientService.STREAM_BATCH_SIZE)))
+                .thenReturn(firstBatch);
+        when(patientRepository.findByIdGreaterThanOrderByIdAsc((long) PatientService.STREAM_BATCH_SIZE, Limit.of(PatientService.STREAM_BATCH_SIZE)))
+                .thenReturn(lastBatch);
+        when(medicalHistoryRepository.findByPatientIdIn(anyCollection()))
+                .thenReturn(histories(firstBatch), histories(lastBatch));
+
+        List<PatientProfileDTO> streamed = new ArrayList<>();
+        patientService.streamAllPatients(streamed::add);
+
+        assertThat(streamed).hasSize(PatientService.STREAM_BATCH_SIZE + 1);
+        verify(patientRepository, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+        verify(medicalHistoryRepository, times(2)).findByPatientIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("a limited stream reads no rows past the limit")
+    void streamPatientsByDoctor_withLimit_shouldStopReadingAtTheLimit() {
+        int limit = PatientService.STREAM_BATCH_SIZE + 3;
+        List<Patient> firstBatch = patients(PatientService.STREAM_BATCH_SIZE);
+        List<Patient> lastBatch = List.of(Patient.builder().id(501L).build(), Patient.builder().id(502L).build(),
+                Patient.builder().id(503L).build());
+        when(patientRepository.findByDoctorIdAndIdGreaterThanOrderByIdAsc(7L, 0L, Limit.of(PatientService.STREAM_BATCH_SIZE)))
+                .thenReturn(firstBatch);
+        when(patientRepository.findByDoctorIdAndIdGreaterThanOrderByIdAsc(7L, (long) PatientService.STREAM_BATCH_SIZE, Limit.of(3)))
+                .thenReturn(lastBatch);
+        when(medicalHistoryRepository.findByPatientIdIn(anyCollection()))
+                .thenReturn(histories(firstBatch), histories(lastBatch));
+
+        List<PatientProfileDTO> streamed = new ArrayList<>();
+        patientService.streamPatientsByDoctor(7L, limit, streamed::add);
+
+        assertThat(streamed).hasSize(limit);
+        verify(patientRepository, times(2)).findByDoctorIdAndIdGreaterThanOrderByIdAsc(anyLong(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("getPatientById is served from the profile cache on repeated reads")
+    void getPatientById_shouldHitCacheOnSecondRead() {
+        Patient patient = patients(1).get(0);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medicalHistoryRepository.findByPatientId(1L)).thenReturn(Optional.of(histories(List.of(patient)).get(0)));
+
+        patientService.getPatientById(1L);
+        PatientProfileDTO profile = patientService.getPatientById(1L);
+
+        assertThat(profile.getUserId()).isEqualTo(1001L);
+        verify(patientRepository, times(1)).findById(1L);
+        verify(medicalHistoryRepository, times(1)).findByPatientId(1L);
+    }
+
+    @Test
+    @DisplayName("updatePatient invalidates the cached profile for both patient and user keys")
+    void updatePatient_shouldInvalidateProfileCache() {
+        Patient patient = patients(1).get(0);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(patientRepository.findByUserId(1001L)).thenReturn(Optional.of(patient));
+        when(medicalHistoryRepository.findByPatientId(1L)).thenReturn(Optional.of(histories(List.of(patient)).get(0)));
+        when(patientRepository.save(patient)).thenReturn(patient);
+
+        patientService.getPatientById(1L);
+        patientService.getPatientByUserId(1001L);
+        patientService.updatePatient(1L, new UpdatePatientDTO());
+        patientService.getPatientById(1L);
+        patientService.getPatientByUserId(1001L);
+
+        verify(patientProfileCache).invalidate(1L, 1001L);
+        verify(medicalHistoryRepository, times(4)).findByPatientId(1L);
+    }
+
+    @Test
+    @DisplayName("deletePatient invalidates the cached profile")
+    void deletePatient_shouldInvalidateProfileCache() {
+        Patient patient = patients(1).get(0);
+        when(patientRepository.findById(1L)).thenReturn(Optional.of(patient));
+        when(medicalHistoryRepository.findByPatientId(1L)).thenReturn(Optional.of(histories(List.of(patient)).get(0)));
+
+        patientService.deletePatient(1L);
+
+        verify(patientProfileCache).invalidate(1L, 1001L);
+        verify(patientRepository).deleteById(1L);
+    }
+
+    private void verifyNoPerRowQueries() {
+        verify(patientRepository, never()).findById(anyLong());
+        verify(medicalHistoryRepository, never()).findByPatientId(anyLong());
+    }
+
+    private static List<Patient> patients(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> Patient.builder()
+                        .id(id)
+                        .userId(id + 1000)
+                        .firstName("Patient")
+                        .lastName(String.valueOf(id))
+                        .gender("Female")
+                        .mobile("555-" + id)
+                        .treatment("Observation")
+                        .doctorAssigned("Dr. Smith")
+                        .doctorId(7L)
+                        .address("Main Street")
+                        .bloodGroup("O+")
+                        .status("Admitted")
+                        .admissionDate(LocalDate.of(2024, 1, 1))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<MedicalHistory> histories(List<Patient> patients) {
+        return patients.stream()
+                .map(patient -> MedicalHistory.builder()
+                        .patientId(patient.getId())
+                        .height(170.0)
+                        .weight(65.0)
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
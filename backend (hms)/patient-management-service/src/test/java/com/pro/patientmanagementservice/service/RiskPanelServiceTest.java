@@ -0,0 +1,123 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.dto.DiabetesFeaturesDTO;
+import com.pro.patientmanagementservice.dto.LiverFeaturesDTO;
+import com.pro.patientmanagementservice.dto.RiskPanelDTO;
+import com.pro.patientmanagementservice.dto.RiskPanelRequestDTO;
+import com.pro.patientmanagementservice.dto.RiskPredictionDTO;
+import com.pro.patientmanagementservice.exception.InvalidRiskPanelRequestException;
+import com.pro.patientmanagementservice.exception.PredictionUnavailableException;
+import com.pro.patientmanagementservice.prediction.PredictionClient;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RiskPanelServiceTest {
+
+    @Mock
+    private PredictionClient predictionClient;
+
+    private ExecutorService executor;
+
+    private RiskPanelService riskPanelService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        riskPanelService = new RiskPanelService(predictionClient, executor, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("models are scored in parallel, so the panel takes about as long as the slowest model")
+    void assess_shouldTakeSlowestNotSum() {
+        when(predictionClient.predict(anyString(), any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return ok(invocation.getArgument(0));
+        });
+
+        RiskPanelDTO panel = riskPanelService.assess(fullRequest());
+
+        assertThat(panel.isComplete()).isTrue();
+        assertThat(panel.getResults()).containsOnlyKeys("stroke", "diabetes", "liver");
+        assertThat(panel.getResults().values()).allSatisfy(r -> assertThat(r.getStatus()).isEqualTo(RiskPredictionDTO.OK));
+        assertThat(panel.getElapsedMs()).isLessThan(450);
+    }
+
+    @Test
+    @DisplayName("a model that misses the deadline is reported as TIMEOUT alongside the results that arrived")
+    void assess_slowModel_shouldReturnPartialResults() {
+        when(predictionClient.predict(anyString(), any())).thenAnswer(invocation -> ok(invocation.getArgument(0)));
+        when(predictionClient.predict(eq("liver"), any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return ok("liver");
+        });
+
+        RiskPanelDTO panel = riskPanelService.assess(fullRequest());
+
+        assertThat(panel.isComplete()).isFalse();
+        assertThat(panel.getElapsedMs()).isLessThan(2_000);
+        assertThat(panel.getResults().get("stroke").getStatus()).isEqualTo(RiskPredictionDTO.OK);
+        assertThat(panel.getResults().get("diabetes").getStatus()).isEqualTo(RiskPredictionDTO.OK);
+        assertThat(panel.getResults().get("liver").getStatus()).isEqualTo(RiskPredictionDTO.TIMEOUT);
+    }
+
+    @Test
+    @DisplayName("models without features are skipped and an unavailable model does not fail the panel")
+    void assess_missingFeaturesAndUnavailableModel_shouldReportPerModelStatus() {
+        when(predictionClient.predict(eq("diabetes"), any()))
+                .thenThrow(new PredictionUnavailableException("diabetes prediction service is busy or unavailable", null));
+        RiskPanelRequestDTO request = fullRequest();
+        request.setStroke(null);
+        request.setLiver(null);
+
+        RiskPanelDTO panel = riskPanelService.assess(request);
+
+        assertThat(panel.isComplete()).isFalse();
+        assertThat(panel.getResults().get("stroke").getStatus()).isEqualTo(RiskPredictionDTO.SKIPPED);
+        assertThat(panel.getResults().get("liver").getStatus()).isEqualTo(RiskPredictionDTO.SKIPPED);
+        assertThat(panel.getResults().get("diabetes").getStatus()).isEqualTo(RiskPredictionDTO.UNAVAILABLE);
+        verify(predictionClient, never()).predict(eq("stroke"), any());
+    }
+
+    @Test
+    @DisplayName("a panel request without any features is rejected")
+    void assess_emptyRequest_shouldBeRejected() {
+        assertThatThrownBy(() -> riskPanelService.assess(new RiskPanelRequestDTO()))
+                .isInstanceOf(InvalidRiskPanelRequestException.class);
+        verifyNoInteractions(predictionClient);
+    }
+
+    private static RiskPredictionDTO ok(String model) {
+        return RiskPredictionDTO.builder().model(model).status(RiskPredictionDTO.OK).risk(0).probability(0.1).build();
+    }
+
+    private static RiskPanelRequestDTO fullRequest() {
+        RiskPanelRequestDTO request = new RiskPanelRequestDTO();
+        request.setStroke(new StrokePredictionRequest("Male", 67, 1, 1, "Yes", "Private", "Urban", 105.5, 28.4, "formerly smoked"));
+        request.setDiabetes(new DiabetesFeaturesDTO(6, 148, 72, 35, 0, 33.6, 0.627, 50));
+        request.setLiver(new LiverFeaturesDTO(65, "Female", 0.7, 0.1, 187, 16, 18, 6.8, 3.3, 0.9));
+        return request;
+    }
+}
@@ -0,0 +1,249 @@
+package com.pro.patientmanagementservice.service;
+
+import com.pro.patientmanagementservice.dto.PatientProfileDTO;
+import com.pro.patientmanagementservice.dto.StrokeBatchRequestDTO;
+import com.pro.patientmanagementservice.dto.StrokeBatchResultDTO;
+import com.pro.patientmanagementservice.exception.InvalidBatchRequestException;
+import com.pro.patientmanagementservice.exception.StrokePredictionUnavailableException;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StrokeBatchServiceTest {
+
+    @Mock
+    private StrokePredictionService strokePredictionService;
+
+    @Mock
+    private PatientService patientService;
+
+    private ExecutorService executor;
+
+    private StrokeBatchService strokeBatchService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        strokeBatchService = new StrokeBatchService(strokePredictionService, patientService, executor, 100, 2, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("explicit feature vectors are scored in chunks, one batch call per chunk")
+    void scoreBatch_explicitPatients_shouldScoreInChunks() {
+        when(strokePredictionService.predictStrokeBatch(anyList())).thenAnswer(invocation -> predictions(invocation.getArgument(0)));
+        StrokeBatchRequestDTO request = new StrokeBatchRequestDTO();
+        request.setPatients(IntStream.range(0, 250).mapToObj(i -> features()).toList());
+
+        List<StrokeBatchResultDTO> results = collect(request);
+
+        assertThat(results).hasSize(250);
+        assertThat(results).allSatisfy(result -> assertThat(result.getPrediction()).isNotNull());
+        assertThat(results).extracting(StrokeBatchResultDTO::getIndex).containsExactlyInAnyOrderElementsOf(
+                IntStream.range(0, 250).boxed().toList());
+        verify(strokePredictionService, times(3)).predictStrokeBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("no more than the configured number of chunks are in flight at once")
+    void scoreBatch_shouldBoundParallelism() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(strokePredictionService.predictStrokeBatch(anyList())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return predictions(invocation.getArgument(0));
+        });
+        StrokeBatchRequestDTO request = new StrokeBatchRequestDTO();
+        request.setPatients(IntStream.range(0, 1_000).mapToObj(i -> features()).toList());
+
+        assertThat(collect(request)).hasSize(1_000);
+        assertThat(peak.get()).isBetween(1, 2);
+    }
+
+    @Test
+    @DisplayName("a doctor's cohort is scored from patient records plus the supplied defaults")
+    @SuppressWarnings("unchecked")
+    void scoreBatch_doctorCohort_shouldDeriveFeaturesFromRecords() {
+        PatientProfileDTO withHistory = PatientProfileDTO.builder()
+                .userId(11L)
+                .gender("Female")
+                .dateOfBirth(LocalDate.now().minusYears(70).minusDays(1))
+                .maritalStatus("Married")
+                .height(160.0)
+                .weight(64.0)
+                .pastConditions(List.of("Essential Hypertension"))
+                .build();
+        PatientProfileDTO withoutBirthDate = PatientProfileDTO.builder().userId(12L).gender("Male").build();
+        doAnswer(invocation -> {
+            Consumer<PatientProfileDTO> sink = invocation.getArgument(2);
+            sink.accept(withHistory);
+            sink.accept(withoutBirthDate);
+            return null;
+        }).when(patientService).streamPatientsByDoctor(eq(7L), eq(5_001), any(Consumer.class));
+        when(strokePredictionService.predictStrokeBatch(anyList())).thenAnswer(invocation -> predictions(invocation.getArgument(0)));
+
+        StrokeBatchRequestDTO request = new StrokeBatchRequestDTO();
+        request.setDoctorId(7L);
+        request.setDefaults(features());
+        List<StrokeBatchResultDTO> results = collect(request);
+
+        ArgumentCaptor<List<StrokePredictionRequest>> scored = ArgumentCaptor.forClass(List.class);
+        verify(strokePredictionService).predictStrokeBatch(scored.capture());
+        StrokePredictionRequest derived = scored.getValue().get(0);
+        assertThat(derived.getAge()).isEqualTo(70);
+        assertThat(derived.getGender()).isEqualTo("Female");
+        assertThat(derived.getHypertension()).isEqualTo(1);
+        assertThat(derived.getEverMarried()).isEqualTo("Yes");
+        assertThat(derived.getBmi()).isEqualTo(25.0, org.assertj.core.api.Assertions.within(1e-9));
+        assertThat(derived.getAvgGlucoseLevel()).isEqualTo(features().getAvgGlucoseLevel());
+
+        assertThat(results).hasSize(2);
+        assertThat(results).filteredOn(r -> r.getUserId() == 12L)
+                .singleElement()
+                .satisfies(r -> assertThat(r.getError()).contains("date of birth"));
+    }
+
+    @Test
+    @DisplayName("a failed chunk reports an error for each of its patients and the rest still complete")
+    void scoreBatch_failedChunk_shouldReportPerPatientErrors() {
+        // Chunks run concurrently, so the failure is keyed on the chunk's contents rather than call order
+        StrokePredictionRequest marker = new StrokePredictionRequest("Female", 61, 0, 0, "Yes", "Private", "Urban", 110.0, 27.0, "never smoked");
+        when(strokePredictionService.predictStrokeBatch(anyList())).thenAnswer(invocation -> {
+            List<StrokePredictionRequest> chunk = invocation.getArgument(0);
+            if (chunk.get(0) == marker) {
+                throw new StrokePredictionUnavailableException("busy", null);
+            }
+            return predictions(chunk);
+        });
+        List<StrokePredictionRequest> patients = new ArrayList<>(IntStream.range(0, 150).mapToObj(i -> features()).toList());
+        patients.set(100, marker);
+        StrokeBatchRequestDTO request = new StrokeBatchRequestDTO();
+        request.setPatients(patients);
+
+        List<StrokeBatchResultDTO> results = collect(request);
+
+        assertThat(results).hasSize(150);
+        assertThat(results).filteredOn(r -> r.getError() != null)
+                .extracting(StrokeBatchResultDTO::getIndex)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(100, 150).boxed().toList());
+        assertThat(results).filteredOn(r -> r.getPrediction() != null)
+                .extracting(StrokeBatchResultDTO::getIndex)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 100).boxed().toList());
+    }
+
+    @Test
+    @DisplayName("a patient the model could not score gets its own error and the rest of the chunk is scored")
+    void scoreBatch_unscorablePatient_shouldOnlyFailThatPatient() {
+        when(strokePredictionService.predictStrokeBatch(anyList())).thenAnswer(invocation -> {
+            List<StrokePredictionResponse> predictions = new ArrayList<>(predictions(invocation.getArgument(0)));
+            StrokePredictionResponse failed = new StrokePredictionResponse();
+            failed.setError("Failed to make a prediction.");
+            predictions.set(3, failed);
+            return predictions;
+        });
+        StrokeBatchRequestDTO request = new StrokeBatchRequestDTO();
+        request.setPatients(IntStream.range(0, 10).mapToObj(i -> features()).toList());
+
+        List<StrokeBatchResultDTO> results = collect(request);
+
+        assertThat(results).filteredOn(r -> r.getError() != null)
+                .singleElement()
+                .satisfies(r -> {
+                    assertThat(r.getIndex()).isEqualTo(3);
+                    assertThat(r.getPrediction()).isNull();
+                });
+        assertThat(results).filteredOn(r -> r.getPrediction() != null).hasSize(9);
+    }
+
+    @Test
+    @DisplayName("a cohort larger than the cap is read only up to the cap and reported with one truncation line")
+    @SuppressWarnings("unchecked")
+    void scoreBatch_cohortOverCap_shouldStopReadingAndReportOnce() {
+        StrokeBatchService capped = new StrokeBatchService(strokePredictionService, patientService, executor, 100, 2, 3);
+        doAnswer(invocation -> {
+            int limit = invocation.getArgument(1);
+            Consumer<PatientProfileDTO> sink = invocation.getArgument(2);
+            // The repository honours the limit; the cohort itself has 50 members
+            LongStream.rangeClosed(1, Math.min(limit, 50)).forEach(id -> sink.accept(PatientProfileDTO.builder()
+                    .userId(id)
+                    .gender("Male")
+                    .dateOfBirth(LocalDate.now().minusYears(60))
+                    .build()));
+            return null;
+        }).when(patientService).streamPatientsByStatus(eq("Admitted"), eq(4), any(Consumer.class));
+        when(strokePredictionService.predictStrokeBatch(anyList())).thenAnswer(invocation -> predictions(invocation.getArgument(0)));
+
+        StrokeBatchRequestDTO request = new StrokeBatchRequestDTO();
+        request.setStatus("Admitted");
+        request.setDefaults(features());
+        List<StrokeBatchResultDTO> results = new ArrayList<>();
+        capped.scoreBatch(request, results::add);
+
+        assertThat(results).hasSize(4);
+        assertThat(results.subList(0, 3)).extracting(StrokeBatchResultDTO::getUserId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(results.get(3).getUserId()).isNull();
+        assertThat(results.get(3).getError()).contains("only the first 3");
+    }
+
+    @Test
+    @DisplayName("requests must name exactly one source and cohorts need defaults")
+    void validate_shouldRejectAmbiguousRequests() {
+        StrokeBatchRequestDTO both = new StrokeBatchRequestDTO();
+        both.setDoctorId(7L);
+        both.setStatus("Admitted");
+        assertThatThrownBy(() -> strokeBatchService.validate(both)).isInstanceOf(InvalidBatchRequestException.class);
+
+        StrokeBatchRequestDTO noDefaults = new StrokeBatchRequestDTO();
+        noDefaults.setStatus("Admitted");
+        assertThatThrownBy(() -> strokeBatchService.validate(noDefaults)).isInstanceOf(InvalidBatchRequestException.class);
+        verifyNoInteractions(strokePredictionService, patientService);
+    }
+
+    private List<StrokeBatchResultDTO> collect(StrokeBatchRequestDTO request) {
+        List<StrokeBatchResultDTO> results = Collections.synchronizedList(new ArrayList<>());
+        strokeBatchService.scoreBatch(request, results::add);
+        return results;
+    }
+
+    private static List<StrokePredictionResponse> predictions(List<StrokePredictionRequest> requests) {
+        return requests.stream()
+                .map(r -> new StrokePredictionResponse(0, 0.1, "Low Risk", null, "2025-01-01T00:00:00"))
+                .toList();
+    }
+
+    private static StrokePredictionRequest features() {
+        return new StrokePredictionRequest("Male", 60, 0, 0, "Yes", "Private", "Urban", 110.0, 27.0, "never smoked");
+    }
+}
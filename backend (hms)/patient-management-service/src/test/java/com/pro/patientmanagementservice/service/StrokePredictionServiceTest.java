@@ -0,0 +1,221 @@
+package com.pro.patientmanagementservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pro.patientmanagementservice.cache.StrokePredictionCache;
+import com.pro.patientmanagementservice.exception.InvalidStrokePredictionRequestException;
+import com.pro.patientmanagementservice.exception.StrokePredictionUnavailableException;
+import com.pro.patientmanagementservice.inference.StrokeModel;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionRequest;
+import com.pro.patientmanagementservice.service.StrokePredictionService.StrokePredictionResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class StrokePredictionServiceTest {
+
+    private static final String PREDICTION = """
+            {"stroke_risk": 1, "probability": 0.82, "risk_level": "High"}
+            """;
+
+    private MockRestServiceServer server;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private StrokePredictionService strokePredictionService;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl("http://stroke-prediction-service");
+        server = MockRestServiceServer.bindTo(builder).build();
+        circuitBreaker = CircuitBreaker.of("strokePrediction", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .ignoreExceptions(org.springframework.web.client.HttpClientErrorException.class)
+                .build());
+        bulkhead = Bulkhead.of("strokePrediction", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        strokePredictionService = new StrokePredictionService(builder.build(), circuitBreaker, bulkhead, Optional.empty(),
+                new StrokePredictionCache(true, 100, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    @DisplayName("predictStroke posts the snake_case payload to /predict and maps the response")
+    void predictStroke_shouldPostToPredict() {
+        server.expect(requestTo("http://stroke-prediction-service/predict"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(jsonPath("$.avg_glucose_level").value(105.5))
+                .andRespond(withSuccess(PREDICTION, MediaType.APPLICATION_JSON));
+
+        StrokePredictionResponse response = strokePredictionService.predictStroke(request());
+
+        assertThat(response.getRiskLevel()).isEqualTo("High");
+        assertThat(response.getProbability()).isEqualTo(0.82);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("an identical request is answered from the cache without calling the model again")
+    void predictStroke_repeatedRequest_shouldUseCache() {
+        server.expect(times(1), requestTo("http://stroke-prediction-service/predict"))
+                .andRespond(withSuccess(PREDICTION, MediaType.APPLICATION_JSON));
+
+        StrokePredictionResponse first = strokePredictionService.predictStroke(request());
+        StrokePredictionResponse second = strokePredictionService.predictStroke(request());
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getRiskLevel()).isEqualTo(first.getRiskLevel());
+        assertThat(second.getProbability()).isEqualTo(first.getProbability());
+        assertThat(strokePredictionService.getPredictionCacheStats().getHits()).isEqualTo(1);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("a batch entry the model could not score carries its error and the others their predictions")
+    void predictStrokeBatch_perPatientError_shouldBeKeptOnItsEntry() {
+        server.expect(requestTo("http://stroke-prediction-service/predict/batch"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("""
+                        [{"stroke_risk": 1, "probability": 0.82, "risk_level": "High"},
+                         {"prediction_timestamp": "2025-01-01T00:00:00", "error": "Failed to make a prediction."}]
+                        """, MediaType.APPLICATION_JSON));
+
+        List<StrokePredictionResponse> batch = strokePredictionService.predictStrokeBatch(List.of(request(), request()));
+
+        assertThat(batch.get(0).getError()).isNull();
+        assertThat(batch.get(0).getProbability()).isEqualTo(0.82);
+        assertThat(batch.get(1).getError()).isEqualTo("Failed to make a prediction.");
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("once the model keeps failing the breaker opens and calls fail fast without reaching it")
+    void predictStroke_repeatedFailures_shouldOpenBreaker() {
+        server.expect(times(4), requestTo("http://stroke-prediction-service/predict"))
+                .andRespond(withServerError());
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> strokePredictionService.predictStroke(request()))
+                    .isNotInstanceOf(StrokePredictionUnavailableException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> strokePredictionService.predictStroke(request()))
+                .isInstanceOf(StrokePredictionUnavailableException.class);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("client errors from the model do not count towards opening the breaker")
+    void predictStroke_badRequest_shouldNotTripBreaker() {
+        server.expect(times(4), requestTo("http://stroke-prediction-service/predict"))
+                .andRespond(withBadRequest());
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> strokePredictionService.predictStroke(request()))
+                    .isInstanceOf(InvalidStrokePredictionRequestException.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("a rejected batch is a bad request, mapped like a rejected single prediction")
+    void predictStrokeBatch_badRequest_shouldBeInvalidRequest() {
+        server.expect(times(4), requestTo("http://stroke-prediction-service/predict/batch"))
+                .andRespond(withStatus(HttpStatus.UNPROCESSABLE_ENTITY));
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> strokePredictionService.predictStrokeBatch(List.of(request())))
+                    .isInstanceOf(InvalidStrokePredictionRequestException.class)
+                    .hasCauseInstanceOf(HttpClientErrorException.UnprocessableEntity.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("a saturated bulkhead rejects immediately instead of holding the request thread")
+    void predictStroke_bulkheadFull_shouldRejectImmediately() {
+        assertThat(bulkhead.tryAcquirePermission()).isTrue();
+        try {
+            assertThatThrownBy(() -> strokePredictionService.predictStroke(request()))
+                    .isInstanceOf(StrokePredictionUnavailableException.class);
+        } finally {
+            bulkhead.onComplete();
+        }
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("in local mode predictions are scored in-process without an HTTP call")
+    void predictStroke_localMode_shouldNotCallRemoteService() throws Exception {
+        StrokeModel model;
+        try (InputStream in = getClass().getResourceAsStream("/models/stroke-model.json")) {
+            model = StrokeModel.load(in, new ObjectMapper());
+        }
+        StrokePredictionService local = new StrokePredictionService(RestClient.create(), circuitBreaker, bulkhead, Optional.of(model),
+                new StrokePredictionCache(true, 100, Duration.ofMinutes(5)));
+
+        StrokePredictionResponse response = local.predictStroke(request());
+
+        assertThat(response.getProbability()).isEqualTo(model.probability(request()));
+        assertThat(response.getRiskLevel()).isNotBlank();
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("in local mode invalid features are a bad request, and in a batch fail only their own patient")
+    void predictStroke_localModeInvalidInput_shouldBeABadRequest() throws Exception {
+        StrokeModel model;
+        try (InputStream in = getClass().getResourceAsStream("/models/stroke-model.json")) {
+            model = StrokeModel.load(in, new ObjectMapper());
+        }
+        StrokePredictionService local = new StrokePredictionService(RestClient.create(), circuitBreaker, bulkhead, Optional.of(model),
+                new StrokePredictionCache(true, 100, Duration.ofMinutes(5)));
+        StrokePredictionRequest invalid = new StrokePredictionRequest("Male", 67, 2, 1, "Yes", "Private", "Urban", 105.5, 28.4, "formerly smoked");
+
+        assertThatThrownBy(() -> local.predictStroke(invalid))
+                .isInstanceOf(InvalidStrokePredictionRequestException.class)
+                .hasMessageContaining("hypertension")
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        List<StrokePredictionResponse> batch = local.predictStrokeBatch(List.of(request(), invalid));
+        assertThat(batch.get(0).getError()).isNull();
+        assertThat(batch.get(0).getRiskLevel()).isNotBlank();
+        assertThat(batch.get(1).getError()).contains("hypertension");
+        assertThat(batch.get(1).getRiskLevel()).isNull();
+    }
+
+    private static StrokePredictionRequest request() {
+        return new StrokePredictionRequest("Male", 67, 1, 1, "Yes", "Private", "Urban", 105.5, 28.4, "formerly smoked");
+    }
+}
@@ -3,7 +3,7 @@ from typing import Optional, List
 from datetime import datetime
 import logging
 
-from ....schemas.stroke import PatientStrokeData, StrokePredictionResponse, HealthResponse
+from ....schemas.stroke import PatientStrokeData, StrokePredictionResponse, StrokeBatchPredictionResult, HealthResponse
 from ....services import prediction_service
 from ....core.eureka_client import eureka_client
 
@@ -17,7 +17,8 @@ async def health_check():
         status="healthy" if prediction_service.model_loaded else "unhealthy",
         timestamp=datetime.utcnow().isoformat(),
         service=eureka_client.service_name,
-        model_loaded=prediction_service.model_loaded
+        model_loaded=prediction_service.model_loaded,
+        model_version=prediction_service.model_version
     )
 
 @router.get("/info")
@@ -28,6 +29,7 @@ async def service_info():
         "version": "1.0.0",
         "description": "AI-powered stroke risk prediction",
         "model_loaded": prediction_service.model_loaded,
+        "model_version": prediction_service.model_version,
         "eureka_server": eureka_client.eureka_server,
         "instance_id": eureka_client.instance_id
     }
@@ -46,33 +48,46 @@ async def predict_stroke(patient_data: PatientStrokeData, patient_id: Optional[s
             probability=probability,
             risk_level=risk_level,
             patient_id=patient_id,
-            prediction_timestamp=datetime.utcnow().isoformat()
+            prediction_timestamp=datetime.utcnow().isoformat(),
+            model_version=prediction_service.model_version
         )
     except Exception as e:
         logger.error(f"Prediction error: {e}")
         raise HTTPException(status_code=500, detail="Failed to make a prediction.")
 
-@router.post("/predict/batch", response_model=List[StrokePredictionResponse])
+@router.post("/predict/batch", response_model=List[StrokeBatchPredictionResult],
+             response_model_exclude_none=True)
 async def predict_stroke_batch(patients_data: list[PatientStrokeData]):
     """
-    Predict stroke risk for a batch of patients.
+    Predict stroke risk for a batch of patients in one vectorised model call.
+    Results are returned in the same order as the request. A patient that cannot be
+    scored gets an entry with only an error, so the rest of the batch is still answered.
     """
-    predictions = []
-    for patient_data in patients_data:
-        try:
-            risk, probability = prediction_service.safe_predict(patient_data.dict())
-            risk_level = prediction_service.get_risk_level(probability)
-            predictions.append(StrokePredictionResponse(
-                stroke_risk=risk,
-                probability=probability,
-                risk_level=risk_level,
-                prediction_timestamp=datetime.utcnow().isoformat()
+    try:
+        scored = prediction_service.safe_predict_batch([patient_data.dict() for patient_data in patients_data])
+    except Exception as e:
+        logger.error(f"Batch prediction error: {e}")
+        raise HTTPException(status_code=500, detail="Failed to make a batch prediction.")
+
+    timestamp = datetime.utcnow().isoformat()
+    results = []
+    for outcome in scored:
+        if isinstance(outcome, Exception):
+            results.append(StrokeBatchPredictionResult(
+                prediction_timestamp=timestamp,
+                model_version=prediction_service.model_version,
+                error="Failed to make a prediction."
             ))
-        except Exception as e:
-            logger.error(f"Batch prediction error for a patient: {e}")
-            # Skip failing predictions in batch
             continue
-    return predictions
+        risk, probability = outcome
+        results.append(StrokeBatchPredictionResult(
+            stroke_risk=risk,
+            probability=probability,
+            risk_level=prediction_service.get_risk_level(probability),
+            prediction_timestamp=timestamp,
+            model_version=prediction_service.model_version
+        ))
+    return results
 
 @router.get("/stats")
 async def get_prediction_stats():
@@ -36,9 +36,20 @@ class StrokePredictionResponse(BaseModel):
     risk_level: str = Field(..., description="Risk level description")
     patient_id: Optional[str] = Field(None, description="Patient identifier")
     prediction_timestamp: str = Field(..., description="Timestamp of prediction")
+    model_version: Optional[str] = Field(None, description="Version of the model that made the prediction")
+
+class StrokeBatchPredictionResult(BaseModel):
+    """One patient of a batch: either the prediction fields or an error are set."""
+    stroke_risk: Optional[int] = Field(None, description="Stroke prediction: 0=Low Risk, 1=High Risk")
+    probability: Optional[float] = Field(None, description="Probability of stroke (0-1)")
+    risk_level: Optional[str] = Field(None, description="Risk level description")
+    prediction_timestamp: str = Field(..., description="Timestamp of prediction")
+    model_version: Optional[str] = Field(None, description="Version of the model that made the prediction")
+    error: Optional[str] = Field(None, description="Why this patient could not be scored")
 
 class HealthResponse(BaseModel):
     status: str
     timestamp: str
     service: str
-    model_loaded: bool 
\ No newline at end of file
+    model_loaded: bool
+    model_version: Optional[str] = None 
\ No newline at end of file
@@ -1,15 +1,18 @@
+import hashlib
 import joblib
 import pandas as pd
 import numpy as np
 import os
 import logging
-from typing import Dict, Any
+from typing import Dict, Any, List, Tuple, Union
 from ..core.config import MODEL_PATH
 
 logger = logging.getLogger(__name__)
 
 model_data = {}
 model_loaded = False
+# First 12 hex digits of the model file's SHA-256; same value export_model.py writes as "version"
+model_version = None
 
 def get_risk_level(probability: float) -> str:
     """Determine risk level based on probability"""
@@ -22,14 +25,16 @@ def get_risk_level(probability: float) -> str:
 
 def load_model():
     """Load the trained stroke prediction model."""
-    global model_data, model_loaded
+    global model_data, model_loaded, model_version
     try:
         if not os.path.exists(MODEL_PATH):
             raise FileNotFoundError(f"Model file not found at {MODEL_PATH}")
         
         model_data = joblib.load(MODEL_PATH)
+        with open(MODEL_PATH, "rb") as f:
+            model_version = hashlib.sha256(f.read()).hexdigest()[:12]
         model_loaded = True
-        logger.info("Stroke prediction model loaded successfully from %s", MODEL_PATH)
+        logger.info("Stroke prediction model %s loaded successfully from %s", model_version, MODEL_PATH)
         return True
     except Exception as e:
         logger.error(f"Failed to load model: {str(e)}")
@@ -66,4 +71,42 @@ def safe_predict(patient_data_dict: Dict[str, Any]) -> tuple:
     except Exception as e:
         logger.error(f"An error occurred during prediction: {e}")
         # Re-raise as a generic exception to be caught by the API endpoint
-        raise 
\ No newline at end of file
+        raise 
+
+def safe_predict_batch(patients: List[Dict[str, Any]]) -> List[Union[Tuple[int, float], Exception]]:
+    """
+    Score many patients with one DataFrame and one model call. Results are in input order.
+    If the vectorised call fails, each patient is scored on its own so that one bad record
+    only fails itself: its slot then holds the exception instead of a (risk, probability) pair.
+    """
+    if not model_loaded or not model_data:
+        raise RuntimeError("Model is not loaded")
+    if not patients:
+        return []
+
+    try:
+        patients_df = pd.DataFrame(patients)
+
+        preprocessor = model_data['preprocessor']
+        model = model_data['model']
+        numeric_cols = model_data['numeric_cols']
+        encoded_cols = model_data['encoded_cols']
+
+        patients_df[encoded_cols] = preprocessor.transform(patients_df)
+        X_predict = patients_df[numeric_cols + encoded_cols]
+
+        predictions = model.predict(X_predict)
+        probabilities = model.predict_proba(X_predict)[:, 1]
+
+        return [(int(p), float(prob)) for p, prob in zip(predictions, probabilities)]
+
+    except Exception as e:
+        logger.warning(f"Batch prediction of {len(patients)} patients failed ({e}); scoring them one by one")
+
+    results = []
+    for patient in patients:
+        try:
+            results.append(safe_predict(patient))
+        except Exception as e:
+            results.append(e)
+    return results
@@ -0,0 +1,132 @@
+#!/usr/bin/env python3
+"""
+Export the stroke model for in-process scoring by patient-management-service.
+
+The pipeline in app/models/model.joblib is a ColumnTransformer (OrdinalEncoder for
+smoking_status, OneHotEncoder for the other categoricals, raw numeric columns) feeding a
+LogisticRegression, so the whole model reduces to one intercept plus one coefficient per
+numeric column, ordinal column and one-hot category. This script writes those weights as
+JSON, together with parity cases scored by the real sklearn pipeline that the Java scorer
+is tested against.
+
+Usage (from the stroke-prediction-service directory):
+    python scripts/export_model.py \
+        --model-out ../patient-management-service/src/main/resources/models/stroke-model.json \
+        --parity-out ../patient-management-service/src/test/resources/models/stroke-parity-cases.json
+"""
+
+import argparse
+import hashlib
+import itertools
+import json
+import os
+import sys
+
+sys.path.insert(0, os.path.abspath(os.path.join(os.path.dirname(__file__), "..")))
+
+from app.core.config import MODEL_PATH  # noqa: E402
+from app.services import prediction_service  # noqa: E402
+
+FORMAT = "hms-linear-model/1"
+
+
+def sha256(path):
+    digest = hashlib.sha256()
+    with open(path, "rb") as f:
+        for block in iter(lambda: f.read(65536), b""):
+            digest.update(block)
+    return digest.hexdigest()
+
+
+def export_model(model_data, source_sha):
+    preprocessor = model_data["preprocessor"]
+    model = model_data["model"]
+    numeric_cols = model_data["numeric_cols"]
+    encoded_cols = model_data["encoded_cols"]
+
+    if type(model).__name__ != "LogisticRegression" or list(model.classes_) != [0, 1]:
+        raise SystemExit(f"Only binary LogisticRegression can be exported, got {type(model).__name__}")
+
+    weights = dict(zip(model.feature_names_in_, model.coef_[0]))
+    if list(model.feature_names_in_) != numeric_cols + encoded_cols:
+        raise SystemExit("Model features do not match numeric_cols + encoded_cols")
+
+    ordinal, one_hot = [], []
+    for name, encoder, columns in preprocessor.transformers_:
+        if name == "remainder":
+            continue
+        for column, categories in zip(columns, encoder.categories_):
+            if type(encoder).__name__ == "OrdinalEncoder":
+                ordinal.append({
+                    "field": column,
+                    "categories": [str(c) for c in categories],
+                    "coefficient": float(weights[f"{name}__{column}"]),
+                })
+            elif type(encoder).__name__ == "OneHotEncoder":
+                one_hot.append({
+                    "field": column,
+                    "coefficients": {str(c): float(weights[f"{name}__{column}_{c}"]) for c in categories},
+                })
+            else:
+                raise SystemExit(f"Unsupported encoder {type(encoder).__name__}")
+
+    return {
+        "format": FORMAT,
+        "model": "sklearn.linear_model.LogisticRegression",
+        "sklearnVersion": model._sklearn_version,
+        "version": source_sha[:12],
+        "sourceSha256": source_sha,
+        "threshold": 0.5,
+        "intercept": float(model.intercept_[0]),
+        "numeric": [{"field": c, "coefficient": float(weights[c])} for c in numeric_cols],
+        "ordinal": ordinal,
+        "oneHot": one_hot,
+    }
+
+
+def parity_cases():
+    base = {
+        "gender": "Male", "age": 67.0, "hypertension": 0, "heart_disease": 1,
+        "ever_married": "Yes", "work_type": "Private", "Residence_type": "Urban",
+        "avg_glucose_level": 228.69, "bmi": 36.6, "smoking_status": "formerly smoked",
+    }
+    cases = [dict(base)]
+    variants = itertools.product(
+        ["Male", "Female"], [3.0, 45.0, 81.0], [0, 1], ["Never_worked", "Self-employed", "children", "Govt_job"],
+        ["Unknown", "never smoked", "smokes"],
+    )
+    for i, (gender, age, hypertension, work_type, smoking) in enumerate(variants):
+        if i % 7:
+            continue
+        cases.append(dict(base, gender=gender, age=age, hypertension=hypertension, heart_disease=i % 2,
+                          ever_married="No" if age < 18 else "Yes", work_type=work_type,
+                          Residence_type="Rural" if i % 3 else "Urban",
+                          avg_glucose_level=70.0 + i * 3.1, bmi=18.5 + (i % 20), smoking_status=smoking))
+
+    scored = []
+    for case in cases:
+        risk, probability = prediction_service.safe_predict(case)
+        scored.append({"input": case, "stroke_risk": risk, "probability": probability})
+    return scored
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--model-out", required=True)
+    parser.add_argument("--parity-out", required=True)
+    args = parser.parse_args()
+
+    if not prediction_service.load_model():
+        raise SystemExit(f"Could not load {MODEL_PATH}")
+
+    exported = export_model(prediction_service.model_data, sha256(MODEL_PATH))
+    for path, payload in ((args.model_out, exported), (args.parity_out, parity_cases())):
+        os.makedirs(os.path.dirname(os.path.abspath(path)), exist_ok=True)
+        with open(path, "w") as f:
+            json.dump(payload, f, indent=2)
+            f.write("\n")
+        print(f"Wrote {path}")
+
+
+if __name__ == "__main__":
+    main()